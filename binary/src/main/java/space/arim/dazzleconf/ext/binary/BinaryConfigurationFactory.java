@@ -0,0 +1,134 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+import space.arim.dazzleconf.factory.AbstractConfigurationFactory;
+
+/**
+ * A {@link ConfigurationFactory} implementation using a compact binary format, intended for
+ * configurations which are written by programs rather than people. <br>
+ * <br>
+ * Strings are stored once and referenced by index, lists of numbers are stored as primitive arrays,
+ * and each section has a table locating its values. When loaded from a {@code ByteBuffer} or a
+ * file path, values are decoded lazily from the bytes, which are memory mapped for larger files.
+ * Comments are not written.
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+public class BinaryConfigurationFactory<C> extends AbstractConfigurationFactory<C> {
+
+	private final BinaryOptions binaryOptions;
+	
+	/**
+	 * Creates from a configuration class, config options, and {@link BinaryOptions}
+	 * 
+	 * @param configClazz the config class
+	 * @param options the config options
+	 * @param binaryOptions the binary options
+	 * @throws NullPointerException if {@code configClazz}, {@code options}, or {@code binaryOptions} is null
+	 * @throws IllegalArgumentException if {@code configClazz} is not an interface
+	 * @throws IllDefinedConfigException if a configuration entry in {@code configClazz} is not defined properly
+	 */
+	public BinaryConfigurationFactory(Class<C> configClazz, ConfigurationOptions options, BinaryOptions binaryOptions) {
+		super(configClazz, options);
+		this.binaryOptions = Objects.requireNonNull(binaryOptions, "binaryOptions");
+	}
+	
+	/**
+	 * Creates from a configuration class and config options, using the default {@link BinaryOptions}
+	 * 
+	 * @param configClazz the config class
+	 * @param options the config options
+	 * @throws NullPointerException if {@code configClazz} or {@code options} is null
+	 * @throws IllegalArgumentException if {@code configClazz} is not an interface
+	 * @throws IllDefinedConfigException if a configuration entry in {@code configClazz} is not defined properly
+	 */
+	public BinaryConfigurationFactory(Class<C> configClazz, ConfigurationOptions options) {
+		this(configClazz, options, new BinaryOptions.Builder().build());
+	}
+	
+	/**
+	 * Binary data is carried through readers and writers as ISO-8859-1 characters, each of
+	 * which corresponds to exactly one byte
+	 */
+	@Override
+	protected Charset charset() {
+		return StandardCharsets.ISO_8859_1;
+	}
+	
+	@Override
+	protected int bufferSize() {
+		return binaryOptions.bufferSize();
+	}
+	
+	@Override
+	protected long memoryMapThreshold() {
+		return binaryOptions.memoryMapThreshold();
+	}
+	
+	@Override
+	protected Map<String, Object> loadMapFromBytes(ByteBuffer buffer) throws ConfigFormatSyntaxException {
+		return BinaryDocument.open(buffer, binaryOptions.validateStructure()).getRoot();
+	}
+
+	@Override
+	protected Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException {
+		char[] chars = new char[bufferSize()];
+		int length = 0;
+		int read;
+		while ((read = reader.read(chars, length, chars.length - length)) != -1) {
+			length += read;
+			if (length == chars.length) {
+				chars = Arrays.copyOf(chars, chars.length * 2);
+			}
+		}
+		byte[] bytes = new byte[length];
+		for (int n = 0; n < length; n++) {
+			bytes[n] = (byte) chars[n];
+		}
+		return loadMapFromBytes(ByteBuffer.wrap(bytes));
+	}
+
+	@Override
+	protected void writeMapToWriter(Map<String, Object> rawMap, Writer writer) throws IOException {
+		byte[] bytes = BinaryEncoder.encode(rawMap);
+		char[] chars = new char[bytes.length];
+		for (int n = 0; n < bytes.length; n++) {
+			chars[n] = (char) (bytes[n] & 0xFF);
+		}
+		writer.write(chars);
+	}
+
+}
@@ -0,0 +1,387 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import static space.arim.dazzleconf.ext.binary.BinaryFormat.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+
+/**
+ * A document in the binary layout, decoded lazily. Only the header and the positions of strings
+ * are read when opened; values are decoded when accessed. <br>
+ * <br>
+ * Reads use absolute positions only, so a document may be accessed by multiple threads.
+ * 
+ * @author A248
+ *
+ */
+final class BinaryDocument {
+
+	private final ByteBuffer buffer;
+	private final int[] stringPositions;
+	private final String[] stringCache;
+	private final int bodyStart;
+	/** Views of sections by the position of their slot table, so that their key indexes are built once */
+	private final ConcurrentMap<Integer, SectionView> sectionViews = new ConcurrentHashMap<>();
+	
+	private BinaryDocument(ByteBuffer buffer, int[] stringPositions, int bodyStart) {
+		this.buffer = buffer;
+		this.stringPositions = stringPositions;
+		stringCache = new String[stringPositions.length];
+		this.bodyStart = bodyStart;
+	}
+	
+	/**
+	 * Opens a document from the remaining bytes of a buffer. The buffer is retained, and must not be
+	 * modified while the document is in use.
+	 * 
+	 * @param buffer the buffer
+	 * @param validate whether to validate the structure of the entire document
+	 * @return the document
+	 * @throws ConfigFormatSyntaxException if the document is not in the binary layout, or is corrupt
+	 */
+	static BinaryDocument open(ByteBuffer buffer, boolean validate) throws ConfigFormatSyntaxException {
+		buffer = buffer.slice();
+		try {
+			Cursor cursor = new Cursor(buffer, 0);
+			for (byte magicByte : MAGIC) {
+				if (cursor.readByte() != magicByte) {
+					throw new ConfigFormatSyntaxException("Not a binary configuration");
+				}
+			}
+			byte version = cursor.readByte();
+			if (version != VERSION) {
+				throw new ConfigFormatSyntaxException("Unsupported binary configuration version " + version);
+			}
+			int[] stringPositions = new int[cursor.readCount(1)];
+			for (int n = 0; n < stringPositions.length; n++) {
+				stringPositions[n] = cursor.position;
+				cursor.skip(cursor.readCount(1));
+			}
+			BinaryDocument document = new BinaryDocument(buffer, stringPositions, cursor.position);
+			if (cursor.readByte() != TAG_SECTION) {
+				throw new ConfigFormatSyntaxException("Root value is not a section");
+			}
+			if (validate) {
+				document.validateValue(new Cursor(buffer, document.bodyStart), 0);
+			}
+			return document;
+
+		} catch (IndexOutOfBoundsException ex) {
+			throw new ConfigFormatSyntaxException("Binary configuration is truncated or corrupt", ex);
+		}
+	}
+	
+	/**
+	 * Gets the root section
+	 * 
+	 * @return the root section
+	 */
+	@SuppressWarnings("unchecked")
+	Map<String, Object> getRoot() throws ConfigFormatSyntaxException {
+		try {
+			return (Map<String, Object>) readValue(new Cursor(buffer, bodyStart));
+		} catch (IndexOutOfBoundsException | IllegalStateException ex) {
+			throw corrupt(ex);
+		}
+	}
+	
+	private static ConfigFormatSyntaxException corrupt(RuntimeException cause) {
+		return new ConfigFormatSyntaxException("Binary configuration is truncated or corrupt", cause);
+	}
+	
+	/*
+	 * Decoding
+	 */
+	
+	String getString(int index) {
+		String string = stringCache[index];
+		if (string == null) {
+			// Racy caching is safe for immutable strings
+			stringCache[index] = string = decodeString(stringPositions[index]);
+		}
+		return string;
+	}
+	
+	private String decodeString(int position) {
+		Cursor cursor = new Cursor(buffer, position);
+		int length = cursor.readCount(1);
+		int start = cursor.position;
+		if (buffer.hasArray()) {
+			return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[length];
+		ByteBuffer source = buffer.duplicate();
+		((Buffer) source).position(start);
+		source.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/*
+	 * Keys and values of sections are decoded upon access. If the structure was not validated,
+	 * corrupt data is therefore reported upon access, with an unchecked exception
+	 */
+	
+	String keyOfSlot(int slotTable, int slot) {
+		try {
+			return getString(buffer.getInt(slotTable + slot * SLOT_SIZE));
+		} catch (IndexOutOfBoundsException ex) {
+			throw new UncheckedInvalidConfigException(corrupt(ex));
+		}
+	}
+	
+	Object valueOfSlot(int slotTable, int slot) {
+		try {
+			int offset = buffer.getInt(slotTable + slot * SLOT_SIZE + 4);
+			return readValue(new Cursor(buffer, bodyStart + offset));
+		} catch (IndexOutOfBoundsException | IllegalStateException ex) {
+			throw new UncheckedInvalidConfigException(corrupt(ex));
+		}
+	}
+	
+	int getInt(int position) {
+		return buffer.getInt(position);
+	}
+	
+	long getLong(int position) {
+		return buffer.getLong(position);
+	}
+	
+	private Object readValue(Cursor cursor) {
+		byte tag = cursor.readByte();
+		switch (tag) {
+		case TAG_FALSE:
+			return Boolean.FALSE;
+		case TAG_TRUE:
+			return Boolean.TRUE;
+		case TAG_INT:
+			return cursor.readInt();
+		case TAG_LONG:
+			return cursor.readLong();
+		case TAG_FLOAT:
+			return Float.intBitsToFloat(cursor.readInt());
+		case TAG_DOUBLE:
+			return Double.longBitsToDouble(cursor.readLong());
+		case TAG_STRING:
+			return getString(cursor.readVarInt());
+		case TAG_LIST: {
+			int count = cursor.readCount(1);
+			List<Object> list = new ArrayList<>(count);
+			for (int n = 0; n < count; n++) {
+				list.add(readValue(cursor));
+			}
+			return Collections.unmodifiableList(list);
+		}
+		case TAG_INT_ARRAY:
+		case TAG_LONG_ARRAY:
+		case TAG_DOUBLE_ARRAY: {
+			int width = (tag == TAG_INT_ARRAY) ? 4 : 8;
+			int count = cursor.readCount(width);
+			PrimitiveArrayView view = new PrimitiveArrayView(this, tag, cursor.position, count);
+			cursor.skip(count * width);
+			return view;
+		}
+		case TAG_SECTION: {
+			int count = cursor.readCount(SLOT_SIZE);
+			int length = cursor.readInt();
+			int slotTable = cursor.position;
+			cursor.skip(length);
+			return sectionViews.computeIfAbsent(slotTable, (position) -> new SectionView(this, position, count));
+		}
+		case TAG_MAP: {
+			int count = cursor.readCount(2);
+			Map<Object, Object> map = new LinkedHashMap<>(count);
+			for (int n = 0; n < count; n++) {
+				Object key = readValue(cursor);
+				map.put(key, readValue(cursor));
+			}
+			return Collections.unmodifiableMap(map);
+		}
+		default:
+			throw new IllegalStateException("Unknown tag " + tag + " at position " + (cursor.position - 1));
+		}
+	}
+	
+	/*
+	 * Validation
+	 */
+	
+	private void validateValue(Cursor cursor, int depth) throws ConfigFormatSyntaxException {
+		int tagPosition = cursor.position;
+		if (depth > MAX_DEPTH) {
+			throw new ConfigFormatSyntaxException("Values nested too deeply at position " + tagPosition);
+		}
+		byte tag = cursor.readByte();
+		switch (tag) {
+		case TAG_FALSE:
+		case TAG_TRUE:
+			break;
+		case TAG_INT:
+		case TAG_FLOAT:
+			cursor.skip(4);
+			break;
+		case TAG_LONG:
+		case TAG_DOUBLE:
+			cursor.skip(8);
+			break;
+		case TAG_STRING:
+			validateStringIndex(cursor.readVarInt(), tagPosition);
+			break;
+		case TAG_LIST: {
+			int count = cursor.readCount(1);
+			for (int n = 0; n < count; n++) {
+				validateValue(cursor, depth + 1);
+			}
+			break;
+		}
+		case TAG_INT_ARRAY:
+			cursor.skip(cursor.readCount(4) * 4);
+			break;
+		case TAG_LONG_ARRAY:
+		case TAG_DOUBLE_ARRAY:
+			cursor.skip(cursor.readCount(8) * 8);
+			break;
+		case TAG_SECTION:
+			validateSection(cursor, tagPosition, depth);
+			break;
+		case TAG_MAP: {
+			int count = cursor.readCount(2);
+			for (int n = 0; n < count; n++) {
+				validateValue(cursor, depth + 1);
+				validateValue(cursor, depth + 1);
+			}
+			break;
+		}
+		default:
+			throw new ConfigFormatSyntaxException("Unknown tag " + tag + " at position " + tagPosition);
+		}
+	}
+	
+	private void validateSection(Cursor cursor, int tagPosition, int depth) throws ConfigFormatSyntaxException {
+		int count = cursor.readCount(SLOT_SIZE);
+		int length = cursor.readInt();
+		int slotTable = cursor.position;
+		int valuesStart = slotTable + count * SLOT_SIZE;
+		if (length < count * SLOT_SIZE || length > buffer.limit() - slotTable) {
+			throw new ConfigFormatSyntaxException("Invalid section length at position " + tagPosition);
+		}
+		int end = slotTable + length;
+		for (int slot = 0; slot < count; slot++) {
+			validateStringIndex(buffer.getInt(slotTable + slot * SLOT_SIZE), tagPosition);
+			long valuePosition = (long) bodyStart + buffer.getInt(slotTable + slot * SLOT_SIZE + 4);
+			if (valuePosition < valuesStart || valuePosition >= end) {
+				throw new ConfigFormatSyntaxException("Invalid value offset in section at position " + tagPosition);
+			}
+			Cursor valueCursor = new Cursor(buffer, (int) valuePosition);
+			validateValue(valueCursor, depth + 1);
+			if (valueCursor.position > end) {
+				throw new ConfigFormatSyntaxException("Value exceeds section at position " + tagPosition);
+			}
+		}
+		cursor.position = end;
+	}
+	
+	private void validateStringIndex(int index, int position) throws ConfigFormatSyntaxException {
+		if (index < 0 || index >= stringPositions.length) {
+			throw new ConfigFormatSyntaxException("Invalid string index " + index + " at position " + position);
+		}
+	}
+	
+	/**
+	 * Sequential reader over absolute positions of the buffer. Reading out of bounds
+	 * throws {@code IndexOutOfBoundsException}.
+	 *
+	 */
+	private static final class Cursor {
+		
+		private final ByteBuffer buffer;
+		int position;
+		
+		Cursor(ByteBuffer buffer, int position) {
+			this.buffer = buffer;
+			this.position = position;
+		}
+		
+		byte readByte() {
+			return buffer.get(position++);
+		}
+		
+		int readInt() {
+			int value = buffer.getInt(position);
+			position += 4;
+			return value;
+		}
+		
+		long readLong() {
+			long value = buffer.getLong(position);
+			position += 8;
+			return value;
+		}
+		
+		int readVarInt() {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				byte current = readByte();
+				value |= (current & 0x7F) << shift;
+				if (current >= 0) {
+					if (value < 0) {
+						break;
+					}
+					return value;
+				}
+			}
+			throw new IndexOutOfBoundsException("Malformed varint before position " + position);
+		}
+		
+		/**
+		 * Reads a count of elements, checking that the elements could fit in the remaining bytes
+		 * 
+		 * @param minimumWidth the minimum size of each element
+		 * @return the count
+		 */
+		int readCount(int minimumWidth) {
+			int count = readVarInt();
+			if ((long) count * minimumWidth > buffer.limit() - position) {
+				throw new IndexOutOfBoundsException("Count " + count + " exceeds the data before position " + position);
+			}
+			return count;
+		}
+		
+		void skip(int length) {
+			if (length < 0 || length > buffer.limit() - position) {
+				throw new IndexOutOfBoundsException("Cannot skip " + length + " bytes at position " + position);
+			}
+			position += length;
+		}
+		
+	}
+	
+}
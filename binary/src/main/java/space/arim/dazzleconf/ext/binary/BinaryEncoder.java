@@ -0,0 +1,285 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import static space.arim.dazzleconf.ext.binary.BinaryFormat.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+
+/**
+ * Encodes a raw map of nested values into the binary layout described in {@link BinaryFormat}
+ * 
+ * @author A248
+ *
+ */
+final class BinaryEncoder {
+
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+	private final List<String> strings = new ArrayList<>();
+	
+	private byte[] body = new byte[256];
+	private int size;
+	
+	private BinaryEncoder() {}
+	
+	static byte[] encode(Map<String, Object> rawMap) {
+		BinaryEncoder encoder = new BinaryEncoder();
+		encoder.writeMap(rawMap);
+		return encoder.toByteArray();
+	}
+	
+	private byte[] toByteArray() {
+		byte[][] encodedStrings = new byte[strings.size()][];
+		int stringTableSize = varIntSize(encodedStrings.length);
+		for (int n = 0; n < encodedStrings.length; n++) {
+			byte[] encoded = strings.get(n).getBytes(StandardCharsets.UTF_8);
+			encodedStrings[n] = encoded;
+			stringTableSize += varIntSize(encoded.length) + encoded.length;
+		}
+		byte[] result = new byte[MAGIC.length + 1 + stringTableSize + size];
+		System.arraycopy(MAGIC, 0, result, 0, MAGIC.length);
+		int position = MAGIC.length;
+		result[position++] = VERSION;
+		position = putVarInt(result, position, encodedStrings.length);
+		for (byte[] encoded : encodedStrings) {
+			position = putVarInt(result, position, encoded.length);
+			System.arraycopy(encoded, 0, result, position, encoded.length);
+			position += encoded.length;
+		}
+		System.arraycopy(body, 0, result, position, size);
+		return result;
+	}
+	
+	/*
+	 * Values
+	 */
+	
+	private void writeValue(Object value) {
+		if (value instanceof String) {
+			writeString((String) value);
+		} else if (value instanceof Boolean) {
+			writeByte(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+		} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			writeByte(TAG_INT);
+			writeInt(((Number) value).intValue());
+		} else if (value instanceof Long) {
+			writeByte(TAG_LONG);
+			writeLong((Long) value);
+		} else if (value instanceof Float) {
+			writeByte(TAG_FLOAT);
+			writeInt(Float.floatToRawIntBits((Float) value));
+		} else if (value instanceof Double) {
+			writeByte(TAG_DOUBLE);
+			writeLong(Double.doubleToRawLongBits((Double) value));
+		} else if (value instanceof Number || value instanceof Character) {
+			// Arbitrary precision numbers are preserved as their string form
+			writeString(value.toString());
+		} else if (value instanceof Collection) {
+			writeCollection((Collection<?>) value);
+		} else if (value instanceof Map) {
+			writeMap((Map<?, ?>) value);
+		} else {
+			throw new IllDefinedConfigException("Cannot write value " + value + " of type " + value.getClass().getName()
+					+ " in binary format. Serialisers must produce strings, numbers, booleans, lists, or maps.");
+		}
+	}
+	
+	private void writeString(String value) {
+		writeByte(TAG_STRING);
+		writeVarInt(intern(value));
+	}
+	
+	private int intern(String string) {
+		Integer existing = stringIndexes.get(string);
+		if (existing != null) {
+			return existing;
+		}
+		int index = strings.size();
+		strings.add(string);
+		stringIndexes.put(string, index);
+		return index;
+	}
+	
+	private void writeCollection(Collection<?> collection) {
+		byte arrayTag = primitiveArrayTag(collection);
+		if (arrayTag == TAG_INT_ARRAY) {
+			writeByte(TAG_INT_ARRAY);
+			writeVarInt(collection.size());
+			for (Object element : collection) {
+				writeInt((Integer) element);
+			}
+		} else if (arrayTag == TAG_LONG_ARRAY) {
+			writeByte(TAG_LONG_ARRAY);
+			writeVarInt(collection.size());
+			for (Object element : collection) {
+				writeLong((Long) element);
+			}
+		} else if (arrayTag == TAG_DOUBLE_ARRAY) {
+			writeByte(TAG_DOUBLE_ARRAY);
+			writeVarInt(collection.size());
+			for (Object element : collection) {
+				writeLong(Double.doubleToRawLongBits((Double) element));
+			}
+		} else {
+			writeByte(TAG_LIST);
+			writeVarInt(collection.size());
+			for (Object element : collection) {
+				writeValue(element);
+			}
+		}
+	}
+	
+	/**
+	 * Determines whether a collection consists solely of one primitive wrapper type
+	 * 
+	 * @param collection the collection
+	 * @return the array tag, or {@code TAG_LIST} if not a primitive array
+	 */
+	private static byte primitiveArrayTag(Collection<?> collection) {
+		if (collection.isEmpty()) {
+			return TAG_LIST;
+		}
+		Class<?> elementClass = null;
+		for (Object element : collection) {
+			if (element == null) {
+				return TAG_LIST;
+			}
+			Class<?> currentClass = element.getClass();
+			if (elementClass == null) {
+				elementClass = currentClass;
+			} else if (elementClass != currentClass) {
+				return TAG_LIST;
+			}
+		}
+		if (elementClass == Integer.class) {
+			return TAG_INT_ARRAY;
+		}
+		if (elementClass == Long.class) {
+			return TAG_LONG_ARRAY;
+		}
+		if (elementClass == Double.class) {
+			return TAG_DOUBLE_ARRAY;
+		}
+		return TAG_LIST;
+	}
+	
+	private void writeMap(Map<?, ?> map) {
+		boolean stringKeys = true;
+		for (Object key : map.keySet()) {
+			if (!(key instanceof String)) {
+				stringKeys = false;
+				break;
+			}
+		}
+		if (!stringKeys) {
+			writeByte(TAG_MAP);
+			writeVarInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(entry.getKey());
+				writeValue(entry.getValue());
+			}
+			return;
+		}
+		int count = map.size();
+		writeByte(TAG_SECTION);
+		writeVarInt(count);
+		int lengthPosition = reserve(4);
+		int contentStart = size;
+		int slotPosition = reserve(count * SLOT_SIZE);
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			putInt(slotPosition, intern((String) entry.getKey()));
+			putInt(slotPosition + 4, size);
+			slotPosition += SLOT_SIZE;
+			writeValue(entry.getValue());
+		}
+		putInt(lengthPosition, size - contentStart);
+	}
+	
+	/*
+	 * Primitives
+	 */
+	
+	private void ensureCapacity(int additional) {
+		int required = size + additional;
+		if (required > body.length) {
+			body = Arrays.copyOf(body, Math.max(required, body.length * 2));
+		}
+	}
+	
+	private int reserve(int length) {
+		ensureCapacity(length);
+		int position = size;
+		size += length;
+		return position;
+	}
+	
+	private void writeByte(byte value) {
+		ensureCapacity(1);
+		body[size++] = value;
+	}
+	
+	private void writeInt(int value) {
+		putInt(reserve(4), value);
+	}
+	
+	private void writeLong(long value) {
+		int position = reserve(8);
+		putInt(position, (int) (value >>> 32));
+		putInt(position + 4, (int) value);
+	}
+	
+	private void putInt(int position, int value) {
+		body[position] = (byte) (value >>> 24);
+		body[position + 1] = (byte) (value >>> 16);
+		body[position + 2] = (byte) (value >>> 8);
+		body[position + 3] = (byte) value;
+	}
+	
+	private void writeVarInt(int value) {
+		ensureCapacity(5);
+		size = putVarInt(body, size, value);
+	}
+	
+	private static int putVarInt(byte[] array, int position, int value) {
+		while ((value & ~0x7F) != 0) {
+			array[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		array[position++] = (byte) value;
+		return position;
+	}
+	
+	private static int varIntSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			size++;
+			value >>>= 7;
+		}
+		return size;
+	}
+	
+}
@@ -0,0 +1,68 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+/**
+ * Constants of the binary layout. <br>
+ * <br>
+ * A document begins with the {@link #MAGIC} bytes and the {@link #VERSION}, followed by the string
+ * table: a varint count, then each string as a varint length and UTF-8 bytes. All strings, including
+ * keys, are stored once in the table and referenced by index. The root value follows, which is always
+ * a section. Offsets are relative to the start of the root value. <br>
+ * <br>
+ * Each value begins with a one byte tag. Numbers are big endian. Sections have a varint count, a
+ * 4 byte content length, a slot table of 4 byte key indexes and 4 byte value offsets, then the values.
+ * The slot table allows each value to be located and decoded independently of the others.
+ * 
+ * @author A248
+ *
+ */
+final class BinaryFormat {
+
+	private BinaryFormat() {}
+	
+	static final byte[] MAGIC = {'D', 'Z', 'C', 'B'};
+	static final byte VERSION = 1;
+	
+	static final byte TAG_FALSE = 1;
+	static final byte TAG_TRUE = 2;
+	static final byte TAG_INT = 3;
+	static final byte TAG_LONG = 4;
+	static final byte TAG_FLOAT = 5;
+	static final byte TAG_DOUBLE = 6;
+	static final byte TAG_STRING = 7;
+	/** Varint count, then each element */
+	static final byte TAG_LIST = 8;
+	/** Varint count, then each element as 4 bytes */
+	static final byte TAG_INT_ARRAY = 9;
+	/** Varint count, then each element as 8 bytes */
+	static final byte TAG_LONG_ARRAY = 10;
+	/** Varint count, then each element as 8 bytes */
+	static final byte TAG_DOUBLE_ARRAY = 11;
+	/** Map with string keys, laid out for lazy access */
+	static final byte TAG_SECTION = 12;
+	/** Map with keys other than strings. Varint count, then each key and value */
+	static final byte TAG_MAP = 13;
+	
+	static final int SLOT_SIZE = 8;
+	
+	/** Maximum nesting of lists, sections and maps accepted when validating a document */
+	static final int MAX_DEPTH = 256;
+	
+}
@@ -0,0 +1,157 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+/**
+ * Options for binary configurations
+ * 
+ * @author A248
+ *
+ */
+public final class BinaryOptions {
+
+	private final boolean validateStructure;
+	private final int bufferSize;
+	private final long memoryMapThreshold;
+	
+	BinaryOptions(Builder builder) {
+		validateStructure = builder.validateStructure;
+		bufferSize = builder.bufferSize;
+		memoryMapThreshold = builder.memoryMapThreshold;
+	}
+	
+	/**
+	 * Whether the structure of the entire document is validated when loaded. See
+	 * {@link Builder#validateStructure(boolean)} for more details.
+	 * 
+	 * @return true if validated on load, false otherwise
+	 */
+	public boolean validateStructure() {
+		return validateStructure;
+	}
+	
+	/**
+	 * Gets the buffer size used for streams and channels. See {@link Builder#bufferSize(int)}
+	 * 
+	 * @return the buffer size
+	 */
+	public int bufferSize() {
+		return bufferSize;
+	}
+	
+	/**
+	 * Gets the file size at or above which files are memory mapped. See {@link Builder#memoryMapThreshold(long)}
+	 * 
+	 * @return the memory map threshold
+	 */
+	public long memoryMapThreshold() {
+		return memoryMapThreshold;
+	}
+
+	@Override
+	public String toString() {
+		return "BinaryOptions [validateStructure=" + validateStructure + ", bufferSize=" + bufferSize
+				+ ", memoryMapThreshold=" + memoryMapThreshold + "]";
+	}
+
+	/**
+	 * Builder of {@code BinaryOptions}
+	 * 
+	 * @author A248
+	 *
+	 */
+	public static class Builder {
+		
+		private boolean validateStructure = true;
+		private int bufferSize = 8192;
+		private long memoryMapThreshold = 64L << 10;
+		
+		public Builder() {
+			
+		}
+		
+		/**
+		 * Values in binary configurations are decoded only when accessed. This option controls whether
+		 * the structure of the whole document is checked when it is loaded, so that corrupt data is
+		 * reported as a syntax error. True by default. <br>
+		 * <br>
+		 * Disabling validation avoids reading parts of the document which are never accessed, such as
+		 * with lazy entries enabled. However, corrupt data is then only detected when accessed. It is reported
+		 * as {@code ConfigFormatSyntaxException} if accessed while loading the configuration, or wrapped in
+		 * {@code UncheckedInvalidConfigException} if accessed afterward, such as by a lazy entry.
+		 * 
+		 * @param validateStructure true to validate the structure when loaded, false otherwise
+		 * @return this builder
+		 */
+		public Builder validateStructure(boolean validateStructure) {
+			this.validateStructure = validateStructure;
+			return this;
+		}
+		
+		/**
+		 * Sets the size of the buffers used when reading from or writing to streams and channels.
+		 * This is also the initial buffer size when reading a file whose size is not known. Default is 8192
+		 * 
+		 * @param bufferSize the buffer size
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code bufferSize} is not positive
+		 */
+		public Builder bufferSize(int bufferSize) {
+			if (bufferSize <= 0) {
+				throw new IllegalArgumentException("bufferSize must be positive");
+			}
+			this.bufferSize = bufferSize;
+			return this;
+		}
+		
+		/**
+		 * Sets the file size, in bytes, at or above which files are memory mapped when loaded from a path.
+		 * Since binary configurations are decoded lazily from the mapped file, mapping pays off sooner than
+		 * for text formats. Default is 64 KiB
+		 * 
+		 * @param memoryMapThreshold the memory map threshold
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code memoryMapThreshold} is negative
+		 */
+		public Builder memoryMapThreshold(long memoryMapThreshold) {
+			if (memoryMapThreshold < 0) {
+				throw new IllegalArgumentException("memoryMapThreshold must not be negative");
+			}
+			this.memoryMapThreshold = memoryMapThreshold;
+			return this;
+		}
+		
+		/**
+		 * Builds the options. May be used repeatedly without side effects
+		 * 
+		 * @return the built options
+		 */
+		public BinaryOptions build() {
+			return new BinaryOptions(this);
+		}
+
+		@Override
+		public String toString() {
+			return "BinaryOptions.Builder [validateStructure=" + validateStructure + ", bufferSize=" + bufferSize
+					+ ", memoryMapThreshold=" + memoryMapThreshold + "]";
+		}
+		
+	}
+	
+}
@@ -0,0 +1,66 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list view of a primitive array in a binary document. Elements are decoded when retrieved.
+ * 
+ * @author A248
+ *
+ */
+final class PrimitiveArrayView extends AbstractList<Number> implements RandomAccess {
+
+	private final BinaryDocument document;
+	private final byte tag;
+	private final int start;
+	private final int size;
+	
+	PrimitiveArrayView(BinaryDocument document, byte tag, int start, int size) {
+		this.document = document;
+		this.tag = tag;
+		this.start = start;
+		this.size = size;
+	}
+	
+	@Override
+	public Number get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+		}
+		switch (tag) {
+		case BinaryFormat.TAG_INT_ARRAY:
+			return document.getInt(start + index * 4);
+		case BinaryFormat.TAG_LONG_ARRAY:
+			return document.getLong(start + index * 8);
+		case BinaryFormat.TAG_DOUBLE_ARRAY:
+			return Double.longBitsToDouble(document.getLong(start + index * 8));
+		default:
+			throw new IllegalStateException("Unknown tag " + tag);
+		}
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+}
@@ -0,0 +1,117 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map view of a section in a binary document. Each value is decoded when retrieved.
+ * 
+ * @author A248
+ *
+ */
+final class SectionView extends AbstractMap<String, Object> {
+
+	private final BinaryDocument document;
+	private final int slotTable;
+	private final int size;
+	
+	/** Lazily computed, may be computed more than once */
+	private volatile Map<String, Integer> slotIndexes;
+	
+	SectionView(BinaryDocument document, int slotTable, int size) {
+		this.document = document;
+		this.slotTable = slotTable;
+		this.size = size;
+	}
+	
+	private Map<String, Integer> getSlotIndexes() {
+		Map<String, Integer> slotIndexes = this.slotIndexes;
+		if (slotIndexes == null) {
+			slotIndexes = new HashMap<>(size * 4 / 3 + 1);
+			for (int slot = 0; slot < size; slot++) {
+				slotIndexes.put(document.keyOfSlot(slotTable, slot), slot);
+			}
+			this.slotIndexes = slotIndexes;
+		}
+		return slotIndexes;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return getSlotIndexes().containsKey(key);
+	}
+	
+	@Override
+	public Object get(Object key) {
+		Integer slot = getSlotIndexes().get(key);
+		if (slot == null) {
+			return null;
+		}
+		return document.valueOfSlot(slotTable, slot);
+	}
+	
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new EntrySet();
+	}
+	
+	private class EntrySet extends AbstractSet<Entry<String, Object>> {
+		
+		@Override
+		public int size() {
+			return size;
+		}
+		
+		@Override
+		public Iterator<Entry<String, Object>> iterator() {
+			return new Iterator<Entry<String, Object>>() {
+				
+				private int slot;
+				
+				@Override
+				public boolean hasNext() {
+					return slot < size;
+				}
+				
+				@Override
+				public Entry<String, Object> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int current = slot++;
+					return new SimpleImmutableEntry<>(
+							document.keyOfSlot(slotTable, current), document.valueOfSlot(slotTable, current));
+				}
+			};
+		}
+	}
+	
+}
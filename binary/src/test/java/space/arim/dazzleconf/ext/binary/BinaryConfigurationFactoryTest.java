@@ -0,0 +1,245 @@
+/* 
+ * DazzleConf-binary
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-binary is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-binary is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-binary. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.binary;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultBoolean;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultDouble;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultDoubles;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultIntegers;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultLong;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultMap;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultStrings;
+import space.arim.dazzleconf.annote.ConfKey;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+
+public class BinaryConfigurationFactoryTest {
+
+	@TempDir
+	public Path tempDir;
+
+	public interface Config {
+
+		@DefaultInteger(5)
+		int integer();
+
+		@DefaultLong(Long.MAX_VALUE)
+		long longValue();
+
+		@DefaultDouble(2.5)
+		double doubleValue();
+
+		@DefaultBoolean(true)
+		boolean flag();
+
+		@DefaultString("unicode ☃ text")
+		String text();
+
+		@DefaultIntegers({1, 2, 3})
+		List<Integer> integers();
+
+		@DefaultDoubles({0.5, -1.25})
+		List<Double> doubles();
+
+		@DefaultStrings({"repeated-string", "repeated-string", "other"})
+		List<String> strings();
+
+		@DefaultMap({"1", "one", "2", "two"})
+		Map<Integer, String> numberedNames();
+
+		@ConfKey("nested.value")
+		@DefaultString("deep")
+		String nestedValue();
+
+		@SubSection
+		Section section();
+
+		interface Section {
+
+			@DefaultInteger(7)
+			int sectionValue();
+
+		}
+	}
+
+	private static ConfigurationFactory<Config> factory(ConfigurationOptions options, BinaryOptions binaryOptions) {
+		return new BinaryConfigurationFactory<>(Config.class, options, binaryOptions);
+	}
+
+	private static ConfigurationFactory<Config> factory() {
+		return new BinaryConfigurationFactory<>(Config.class, ConfigurationOptions.defaults());
+	}
+
+	private static void assertConfigsEqual(Config expected, Config actual) {
+		assertEquals(expected.integer(), actual.integer());
+		assertEquals(expected.longValue(), actual.longValue());
+		assertEquals(expected.doubleValue(), actual.doubleValue());
+		assertEquals(expected.flag(), actual.flag());
+		assertEquals(expected.text(), actual.text());
+		assertEquals(expected.integers(), actual.integers());
+		assertEquals(expected.doubles(), actual.doubles());
+		assertEquals(expected.strings(), actual.strings());
+		assertEquals(expected.numberedNames(), actual.numberedNames());
+		assertEquals(expected.nestedValue(), actual.nestedValue());
+		assertEquals(expected.section().sectionValue(), actual.section().sectionValue());
+	}
+
+	@Test
+	public void testRoundTripBuffer() throws IOException, InvalidConfigException {
+		ConfigurationFactory<Config> factory = factory();
+		Config defaults = factory.loadDefaults();
+		ByteBuffer written = factory.write(defaults);
+
+		String content = StandardCharsets.ISO_8859_1.decode(written.duplicate()).toString();
+		assertTrue(content.startsWith("DZCB"));
+		assertEquals(content.indexOf("repeated-string"), content.lastIndexOf("repeated-string"),
+				"Strings should be stored once");
+
+		assertConfigsEqual(defaults, factory.load(written));
+	}
+
+	@Test
+	public void testRoundTripStream() throws IOException, InvalidConfigException {
+		ConfigurationFactory<Config> factory = factory();
+		Config defaults = factory.loadDefaults();
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		factory.write(defaults, output);
+		assertArrayEquals(toArray(factory.write(defaults)), output.toByteArray());
+
+		Config reloaded = factory.load(new ByteArrayInputStream(output.toByteArray()));
+		assertConfigsEqual(defaults, reloaded);
+	}
+
+	@Test
+	public void testMappedFileLazyEntries() throws IOException, InvalidConfigException {
+		ConfigurationOptions options = new ConfigurationOptions.Builder().setLazyEntries(true).build();
+		BinaryOptions binaryOptions = new BinaryOptions.Builder().memoryMapThreshold(0L).validateStructure(false).build();
+		ConfigurationFactory<Config> factory = factory(options, binaryOptions);
+		Config defaults = factory.loadDefaults();
+		Path path = tempDir.resolve("config.bin");
+		factory.write(defaults, path);
+
+		assertConfigsEqual(defaults, factory.load(path));
+	}
+
+	@Test
+	public void testCorruptData() throws IOException {
+		ConfigurationFactory<Config> factory = factory();
+		byte[] written = toArray(factory.write(factory.loadDefaults()));
+
+		byte[] truncated = Arrays.copyOf(written, written.length - 3);
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(ByteBuffer.wrap(truncated)));
+
+		byte[] wrongMagic = written.clone();
+		wrongMagic[0] = 'X';
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(ByteBuffer.wrap(wrongMagic)));
+
+		byte[] wrongVersion = written.clone();
+		wrongVersion[4] = 99;
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(ByteBuffer.wrap(wrongVersion)));
+	}
+
+	/**
+	 * Creates a document with the single string "key" and a root section of one entry
+	 * 
+	 * @param keyIndex the string index of the entry's key
+	 * @param value the encoded value of the entry
+	 * @return the document
+	 */
+	private static ByteBuffer rootSectionDocument(int keyIndex, byte[] value) {
+		ByteBuffer buffer = ByteBuffer.allocate(32 + value.length);
+		buffer.put(BinaryFormat.MAGIC).put(BinaryFormat.VERSION);
+		buffer.put((byte) 1).put((byte) 3).put("key".getBytes(StandardCharsets.UTF_8));
+		buffer.put(BinaryFormat.TAG_SECTION).put((byte) 1).putInt(BinaryFormat.SLOT_SIZE + value.length);
+		// The value follows the tag, count, length and slot table of the section
+		buffer.putInt(keyIndex).putInt(1 + 1 + 4 + BinaryFormat.SLOT_SIZE);
+		buffer.put(value);
+		buffer.flip();
+		return buffer;
+	}
+
+	@Test
+	public void testCorruptStringIndex() {
+		ConfigurationFactory<Config> factory = factory();
+		byte[] value = {BinaryFormat.TAG_TRUE};
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(rootSectionDocument(1, value)));
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(rootSectionDocument(-1, value)));
+	}
+
+	@Test
+	public void testCorruptNestingDepth() {
+		ConfigurationFactory<Config> factory = factory();
+		int depth = 100_000;
+		byte[] value = new byte[depth * 2 + 1];
+		for (int n = 0; n < depth; n++) {
+			value[n * 2] = BinaryFormat.TAG_LIST;
+			value[n * 2 + 1] = 1;
+		}
+		value[depth * 2] = BinaryFormat.TAG_TRUE;
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(rootSectionDocument(0, value)));
+	}
+
+	@Test
+	public void testCorruptDataWithoutValidation() throws ConfigFormatSyntaxException {
+		BinaryOptions binaryOptions = new BinaryOptions.Builder().validateStructure(false).build();
+		ConfigurationFactory<Config> factory = factory(ConfigurationOptions.defaults(), binaryOptions);
+		byte[] value = {BinaryFormat.TAG_TRUE};
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load(rootSectionDocument(5, value)));
+
+		Map<String, Object> root = BinaryDocument.open(rootSectionDocument(5, value), false).getRoot();
+		UncheckedInvalidConfigException ex = assertThrows(UncheckedInvalidConfigException.class, () -> root.get("key"));
+		assertTrue(ex.getCause() instanceof ConfigFormatSyntaxException);
+	}
+
+	@Test
+	public void testSectionViewsReused() throws IOException, InvalidConfigException {
+		ConfigurationFactory<Config> factory = factory();
+		Map<String, Object> root = BinaryDocument.open(factory.write(factory.loadDefaults()), true).getRoot();
+		assertSame(root.get("nested"), root.get("nested"), "Section views should be reused");
+		assertSame(root.get("section"), root.get("section"));
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+}
@@ -18,6 +18,9 @@
  */
 package space.arim.dazzleconf;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * A marker interface for configurations produced by config factories where, although the config data
  * was missing one or more keys, an auxiliary configuration instance was used to fill in the missing keys.
@@ -27,4 +30,18 @@ package space.arim.dazzleconf;
  */
 public interface AuxiliaryKeys {
 
+	/**
+	 * Gets the paths of the entries whose values were taken from the auxiliary configuration, in the
+	 * order the entries are defined. Each path is the full key of an entry, with the keys of enclosing
+	 * sections joined by periods. If an entire section was missing, the path of the section is included
+	 * rather than the paths of its entries. <br>
+	 * <br>
+	 * By default, returns an empty set, meaning the paths are not known.
+	 * 
+	 * @return the immutable set of paths of entries filled from auxiliary values
+	 */
+	default Set<String> getAuxiliaryKeyPaths() {
+		return Collections.emptySet();
+	}
+	
 }
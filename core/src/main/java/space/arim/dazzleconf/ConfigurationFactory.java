@@ -18,15 +18,25 @@
  */
 package space.arim.dazzleconf;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import space.arim.dazzleconf.annote.ConfDefault;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.util.AsyncTasks;
+import space.arim.dazzleconf.internal.util.ByteBufferInputStream;
 
 /**
  * Loader and writer of configuration data
@@ -105,6 +115,142 @@ public interface ConfigurationFactory<C> {
 	 */
 	C load(InputStream inputStream, C auxiliaryEntries) throws IOException, InvalidConfigException;
 	
+	/**
+	 * Reads configuration data from the remaining bytes of a byte buffer. The position of the buffer
+	 * is not changed. <br>
+	 * <br>
+	 * By default, reads the bytes through {@link #load(InputStream)}.
+	 * 
+	 * @param buffer the buffer from which to read the data
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs, including if the bytes cannot be decoded
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code buffer} is null
+	 */
+	default C load(ByteBuffer buffer) throws IOException, InvalidConfigException {
+		return load(new ByteBufferInputStream(buffer));
+	}
+	
+	/**
+	 * Reads configuration data from the remaining bytes of a byte buffer with the given auxiliary configuration
+	 * instance. The position of the buffer is not changed. See {@link #load(InputStream, Object)} for a description
+	 * of auxiliary entries. <br>
+	 * <br>
+	 * By default, reads the bytes through {@link #load(InputStream, Object)}.
+	 * 
+	 * @param buffer the buffer from which to read the data
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs, including if the bytes cannot be decoded
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code buffer} is null
+	 */
+	default C load(ByteBuffer buffer, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return load(new ByteBufferInputStream(buffer), auxiliaryEntries);
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path. <br>
+	 * <br>
+	 * By default, opens a {@code FileChannel} and reads through {@link #load(ReadableByteChannel)}.
+	 * Implementations may read the file more efficiently if its size is known.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs, including if the file does not exist
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code path} is null
+	 */
+	default C load(Path path) throws IOException, InvalidConfigException {
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return load(fileChannel);
+		}
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path with the given auxiliary configuration
+	 * instance. See {@link #load(InputStream, Object)} for a description of auxiliary entries. <br>
+	 * <br>
+	 * By default, opens a {@code FileChannel} and reads through {@link #load(ReadableByteChannel, Object)}.
+	 * Implementations may read the file more efficiently if its size is known.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs, including if the file does not exist
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code path} is null
+	 */
+	default C load(Path path, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return load(fileChannel, auxiliaryEntries);
+		}
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path, asynchronously on the given executor.
+	 * See {@link #load(Path)}. <br>
+	 * <br>
+	 * If loading fails, the future is completed exceptionally with the {@code IOException} or
+	 * {@code InvalidConfigException} which was thrown.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @param executor the executor on which to read the data
+	 * @return a future completed with the read config data
+	 * @throws NullPointerException if {@code path} or {@code executor} is null
+	 */
+	default CompletableFuture<C> loadAsync(Path path, Executor executor) {
+		Objects.requireNonNull(path, "path");
+		return AsyncTasks.supply(() -> load(path), executor);
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path, asynchronously on the default executor.
+	 * See {@link #loadAsync(Path, Executor)}. <br>
+	 * <br>
+	 * The default executor uses virtual threads where available, and a shared pool of daemon threads otherwise.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @return a future completed with the read config data
+	 * @throws NullPointerException if {@code path} is null
+	 */
+	default CompletableFuture<C> loadAsync(Path path) {
+		return loadAsync(path, AsyncTasks.defaultExecutor());
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path with the given auxiliary configuration
+	 * instance, asynchronously on the given executor. See {@link #load(Path, Object)}. <br>
+	 * <br>
+	 * If loading fails, the future is completed exceptionally with the {@code IOException} or
+	 * {@code InvalidConfigException} which was thrown.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @param executor the executor on which to read the data
+	 * @return a future completed with the read config data
+	 * @throws NullPointerException if {@code path}, {@code auxiliaryEntries}, or {@code executor} is null
+	 */
+	default CompletableFuture<C> loadAsync(Path path, C auxiliaryEntries, Executor executor) {
+		Objects.requireNonNull(path, "path");
+		Objects.requireNonNull(auxiliaryEntries, "auxiliaryEntries");
+		return AsyncTasks.supply(() -> load(path, auxiliaryEntries), executor);
+	}
+	
+	/**
+	 * Reads configuration data from the file at the specified path with the given auxiliary configuration
+	 * instance, asynchronously on the default executor. See {@link #loadAsync(Path, Object, Executor)}
+	 * and {@link #loadAsync(Path)}.
+	 * 
+	 * @param path the path of the file from which to read the data
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return a future completed with the read config data
+	 * @throws NullPointerException if {@code path} or {@code auxiliaryEntries} is null
+	 */
+	default CompletableFuture<C> loadAsync(Path path, C auxiliaryEntries) {
+		return loadAsync(path, auxiliaryEntries, AsyncTasks.defaultExecutor());
+	}
+	
 	/**
 	 * Reads the default configuration data from annotations in {@link ConfDefault} <br>
 	 * <br>
@@ -136,4 +282,114 @@ public interface ConfigurationFactory<C> {
 	 */
 	void write(C configData, OutputStream outputStream) throws IOException;
 	
+	/**
+	 * Writes configuration data to the file at the specified path. The file is created if it does
+	 * not exist, and its existing contents are replaced otherwise. <br>
+	 * <br>
+	 * By default, opens a {@code FileChannel} and writes through {@link #write(Object, WritableByteChannel)}.
+	 * 
+	 * @param configData the configuration data
+	 * @param path the path of the file to write to
+	 * @throws IOException if an I/O error occurs
+	 * @throws NullPointerException if {@code configData} or {@code path} is null
+	 */
+	default void write(C configData, Path path) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(path,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(configData, fileChannel);
+		}
+	}
+	
+	/**
+	 * Writes the entries of configuration data which were taken from auxiliary entries to the file at the
+	 * specified path, which the configuration was loaded from. Use this after loading with auxiliary entries,
+	 * when {@link AuxiliaryKeys} are present, to add the missing entries to the file. <br>
+	 * <br>
+	 * Formats which support it insert only the entries at {@link AuxiliaryKeys#getAuxiliaryKeyPaths()}, with
+	 * their comments, into the existing text of the file, so that the rest of the file, including any comments
+	 * and formatting added by hand, is left as it is. Otherwise, the whole configuration is written as with
+	 * {@link #write(Object, Path)}. <br>
+	 * <br>
+	 * By default, writes through {@link #write(Object, Path)}.
+	 * 
+	 * @param configData the configuration data
+	 * @param path the path of the file to update
+	 * @throws IOException if an I/O error occurs
+	 * @throws NullPointerException if {@code configData} or {@code path} is null
+	 */
+	default void writeAuxiliaryKeys(C configData, Path path) throws IOException {
+		write(configData, path);
+	}
+	
+	/**
+	 * Writes the entries of configuration data which were taken from auxiliary entries to the file at the
+	 * specified path, given the current content of the file. See {@link #writeAuxiliaryKeys(Object, Path)}. <br>
+	 * <br>
+	 * Use this when the content of the file was already read, such as to load the configuration, so that
+	 * the file need not be read again. The buffer's position is not changed. <br>
+	 * <br>
+	 * By default, writes through {@link #writeAuxiliaryKeys(Object, Path)}.
+	 * 
+	 * @param configData the configuration data
+	 * @param path the path of the file to update
+	 * @param source the current content of the file
+	 * @throws IOException if an I/O error occurs
+	 * @throws NullPointerException if {@code configData}, {@code path} or {@code source} is null
+	 */
+	default void writeAuxiliaryKeys(C configData, Path path, ByteBuffer source) throws IOException {
+		Objects.requireNonNull(source, "source");
+		writeAuxiliaryKeys(configData, path);
+	}
+	
+	/**
+	 * Writes configuration data to the file at the specified path, asynchronously on the given executor.
+	 * See {@link #write(Object, Path)}. <br>
+	 * <br>
+	 * If writing fails, the future is completed exceptionally with the {@code IOException} which was thrown.
+	 * 
+	 * @param configData the configuration data
+	 * @param path the path of the file to write to
+	 * @param executor the executor on which to write the data
+	 * @return a future completed once the data is written
+	 * @throws NullPointerException if {@code configData}, {@code path}, or {@code executor} is null
+	 */
+	default CompletableFuture<Void> writeAsync(C configData, Path path, Executor executor) {
+		Objects.requireNonNull(configData, "configData");
+		Objects.requireNonNull(path, "path");
+		return AsyncTasks.supply(() -> {
+			write(configData, path);
+			return null;
+		}, executor);
+	}
+	
+	/**
+	 * Writes configuration data to the file at the specified path, asynchronously on the default executor.
+	 * See {@link #writeAsync(Object, Path, Executor)} and {@link #loadAsync(Path)}.
+	 * 
+	 * @param configData the configuration data
+	 * @param path the path of the file to write to
+	 * @return a future completed once the data is written
+	 * @throws NullPointerException if {@code configData} or {@code path} is null
+	 */
+	default CompletableFuture<Void> writeAsync(C configData, Path path) {
+		return writeAsync(configData, path, AsyncTasks.defaultExecutor());
+	}
+	
+	/**
+	 * Writes configuration data to a new byte buffer. The returned buffer's position is zero and its
+	 * limit is the amount of bytes written. <br>
+	 * <br>
+	 * By default, writes the data through {@link #write(Object, OutputStream)}.
+	 * 
+	 * @param configData the configuration data
+	 * @return a buffer containing the written data
+	 * @throws IOException if an I/O error occurs
+	 * @throws NullPointerException if {@code configData} is null
+	 */
+	default ByteBuffer write(C configData) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		write(configData, outputStream);
+		return ByteBuffer.wrap(outputStream.toByteArray());
+	}
+	
 }
@@ -0,0 +1,130 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A named source of configuration values, used as one layer when loading configuration data from
+ * several sources with {@link LayeredConfigurationFactory#loadLayered(List)}. A layer is either a file, text
+ * in the factory's format, or a raw map of nested values. <br>
+ * <br>
+ * Raw maps are used directly, without being copied, and should not be modified while configuration
+ * data is loaded from them. They take the same form as the maps a configuration format loads: nested
+ * maps with string keys, whose values are strings, numbers, booleans, lists, or further maps.
+ * 
+ * @author A248
+ *
+ */
+public final class ConfigurationLayer {
+
+	private final String name;
+	private final Path path;
+	private final CharSequence content;
+	private final Map<String, Object> rawMap;
+	
+	private ConfigurationLayer(String name, Path path, CharSequence content, Map<String, Object> rawMap) {
+		this.name = Objects.requireNonNull(name, "name");
+		this.path = path;
+		this.content = content;
+		this.rawMap = rawMap;
+	}
+	
+	/**
+	 * Creates a layer from the file at the specified path
+	 * 
+	 * @param name the name of the layer
+	 * @param path the path of the file
+	 * @return the layer
+	 * @throws NullPointerException if {@code name} or {@code path} is null
+	 */
+	public static ConfigurationLayer ofPath(String name, Path path) {
+		return new ConfigurationLayer(name, Objects.requireNonNull(path, "path"), null, null);
+	}
+	
+	/**
+	 * Creates a layer from text in the configuration format
+	 * 
+	 * @param name the name of the layer
+	 * @param content the text
+	 * @return the layer
+	 * @throws NullPointerException if {@code name} or {@code content} is null
+	 */
+	public static ConfigurationLayer ofContent(String name, CharSequence content) {
+		return new ConfigurationLayer(name, null, Objects.requireNonNull(content, "content"), null);
+	}
+	
+	/**
+	 * Creates a layer from a raw map of nested values. The map is not copied.
+	 * 
+	 * @param name the name of the layer
+	 * @param rawMap the raw map
+	 * @return the layer
+	 * @throws NullPointerException if {@code name} or {@code rawMap} is null
+	 */
+	public static ConfigurationLayer ofRawMap(String name, Map<String, Object> rawMap) {
+		return new ConfigurationLayer(name, null, null, Objects.requireNonNull(rawMap, "rawMap"));
+	}
+	
+	/**
+	 * Gets the name of this layer, as reported by {@link LayeredKeys}
+	 * 
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the path of the file of this layer
+	 * 
+	 * @return the path, or {@code null} if this layer is not a file
+	 */
+	public Path getPath() {
+		return path;
+	}
+	
+	/**
+	 * Gets the text of this layer
+	 * 
+	 * @return the text, or {@code null} if this layer is not text
+	 */
+	public CharSequence getContent() {
+		return content;
+	}
+	
+	/**
+	 * Gets the raw map of this layer
+	 * 
+	 * @return the raw map, or {@code null} if this layer is not a raw map
+	 */
+	public Map<String, Object> getRawMap() {
+		return rawMap;
+	}
+
+	@Override
+	public String toString() {
+		Object source = (path != null) ? path : (content != null) ? "content" : "raw map";
+		return "ConfigurationLayer [name=" + name + ", source=" + source + "]";
+	}
+	
+}
@@ -25,6 +25,8 @@ import java.util.Objects;
 
 import space.arim.dazzleconf.annote.ConfSerialisers;
 import space.arim.dazzleconf.annote.ConfValidator;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 import space.arim.dazzleconf.serialiser.ValueSerialiser;
 import space.arim.dazzleconf.serialiser.ValueSerialiserMap;
@@ -44,6 +46,11 @@ public final class ConfigurationOptions {
 	private final ConfigurationSorter sorter;
 	private final boolean strictParseEnums;
 	private final boolean createSingleElementCollections;
+	private final boolean lazyEntries;
+	private final boolean lazySubSections;
+	private final boolean eagerlyValidateLazyValues;
+	private final boolean parallelSectionElements;
+	private final boolean retainSourceValues;
 	
 	private static final ConfigurationOptions DEFAULTS = new ConfigurationOptions.Builder().build();
 	
@@ -53,6 +60,11 @@ public final class ConfigurationOptions {
 		sorter = builder.sorter;
 		strictParseEnums = builder.strictParseEnums;
 		createSingleElementCollections = builder.createSingleElementCollections;
+		lazyEntries = builder.lazyEntries;
+		lazySubSections = builder.lazySubSections;
+		eagerlyValidateLazyValues = builder.eagerlyValidateLazyValues;
+		parallelSectionElements = builder.parallelSectionElements;
+		retainSourceValues = builder.retainSourceValues;
 	}
 	
 	/**
@@ -111,11 +123,61 @@ public final class ConfigurationOptions {
 		return createSingleElementCollections;
 	}
 	
+	/**
+	 * Whether config entries are kept in their raw form and converted upon first access
+	 * 
+	 * @return true if entries are lazily converted, false otherwise
+	 */
+	public boolean lazyEntries() {
+		return lazyEntries;
+	}
+	
+	/**
+	 * Whether nested configuration sections are created upon first access
+	 * 
+	 * @return true if sub sections are lazily created, false otherwise
+	 */
+	public boolean lazySubSections() {
+		return lazySubSections;
+	}
+	
+	/**
+	 * Whether lazily loaded values are nonetheless validated when the configuration is loaded
+	 * 
+	 * @return true if lazy values are eagerly validated, false otherwise
+	 */
+	public boolean eagerlyValidateLazyValues() {
+		return eagerlyValidateLazyValues;
+	}
+	
+	/**
+	 * Whether the elements of large collections and maps of sections are processed in parallel
+	 * 
+	 * @return true if section elements are processed in parallel, false otherwise
+	 */
+	public boolean parallelSectionElements() {
+		return parallelSectionElements;
+	}
+	
+	/**
+	 * Whether loaded configurations retain the raw values of their entries, for reuse when writing
+	 * 
+	 * @return true if source values are retained, false otherwise
+	 */
+	public boolean retainSourceValues() {
+		return retainSourceValues;
+	}
+	
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + (strictParseEnums ? 1231 : 1237);
+		result = prime * result + (lazyEntries ? 1231 : 1237);
+		result = prime * result + (lazySubSections ? 1231 : 1237);
+		result = prime * result + (eagerlyValidateLazyValues ? 1231 : 1237);
+		result = prime * result + (parallelSectionElements ? 1231 : 1237);
+		result = prime * result + (retainSourceValues ? 1231 : 1237);
 		result = prime * result + ((sorter == null) ? 0 : sorter.hashCode());
 		result = prime * result + serialisers.hashCode();
 		result = prime * result + validators.hashCode();
@@ -132,6 +194,11 @@ public final class ConfigurationOptions {
 		}
 		ConfigurationOptions other = (ConfigurationOptions) object;
 		return strictParseEnums == other.strictParseEnums
+				&& lazyEntries == other.lazyEntries
+				&& lazySubSections == other.lazySubSections
+				&& eagerlyValidateLazyValues == other.eagerlyValidateLazyValues
+				&& parallelSectionElements == other.parallelSectionElements
+				&& retainSourceValues == other.retainSourceValues
 				&& ((sorter == null) ? other.sorter == null : sorter == other.sorter)
 				&& serialisers.equals(other.serialisers)
 				&& validators.equals(other.validators);
@@ -141,7 +208,10 @@ public final class ConfigurationOptions {
 	public String toString() {
 		return "ConfigurationOptions [serialisers=" + serialisers + ", validators=" + validators + ", sorter=" + sorter
 				+ ", strictParseEnums=" + strictParseEnums + ", createSingleElementCollections="
-				+ createSingleElementCollections + "]";
+				+ createSingleElementCollections + ", lazyEntries=" + lazyEntries + ", lazySubSections="
+				+ lazySubSections + ", eagerlyValidateLazyValues=" + eagerlyValidateLazyValues
+				+ ", parallelSectionElements=" + parallelSectionElements + ", retainSourceValues=" + retainSourceValues
+				+ "]";
 	}
 
 	/**
@@ -157,6 +227,11 @@ public final class ConfigurationOptions {
 		ConfigurationSorter sorter;
 		boolean strictParseEnums;
 		boolean createSingleElementCollections;
+		boolean lazyEntries;
+		boolean lazySubSections;
+		boolean eagerlyValidateLazyValues;
+		boolean parallelSectionElements;
+		boolean retainSourceValues;
 		
 		/**
 		 * Adds the specified value serialiser to this builder
@@ -293,6 +368,104 @@ public final class ConfigurationOptions {
 			return this;
 		}
 		
+		/**
+		 * Specifies whether config entries should be kept in their raw form when the configuration is loaded,
+		 * and only converted to their desired type upon first access. By default this is {@code false} <br>
+		 * <br>
+		 * Lazy entries benefit programs which read few of the entries of a large configuration, since the cost
+		 * of loading then scales with the entries actually used. Missing keys are still detected when the configuration
+		 * is loaded. However, unless {@link #setEagerlyValidateLazyValues(boolean)} is enabled, a value which cannot
+		 * be converted or fails validation is only detected upon access, at which point
+		 * {@link UncheckedInvalidConfigException} is thrown from the config method.
+		 * 
+		 * @param lazyEntries whether to lazily convert config entries
+		 * @return this builder
+		 */
+		public Builder setLazyEntries(boolean lazyEntries) {
+			this.lazyEntries = lazyEntries;
+			return this;
+		}
+		
+		/**
+		 * Specifies whether nested configuration sections ({@link SubSection}) should be created upon first access
+		 * rather than when the configuration is loaded. By default this is {@code false} <br>
+		 * <br>
+		 * The raw section is retained until the nested section is first accessed. This is of benefit for configurations
+		 * with many optional sections, only some of which are used. A missing section is still detected when the
+		 * configuration is loaded. However, unless {@link #setEagerlyValidateLazyValues(boolean)} is enabled, invalid
+		 * entries within the section are only detected upon access, at which point
+		 * {@link UncheckedInvalidConfigException} is thrown from the config method.
+		 * 
+		 * @param lazySubSections whether to lazily create nested sections
+		 * @return this builder
+		 */
+		public Builder setLazySubSections(boolean lazySubSections) {
+			this.lazySubSections = lazySubSections;
+			return this;
+		}
+		
+		/**
+		 * Specifies whether lazily loaded values should still be validated when the configuration is loaded.
+		 * By default this is {@code false}. Has no effect unless lazy loading is enabled. <br>
+		 * <br>
+		 * If {@code true}, each lazy entry is converted and validated at load time so that invalid configurations
+		 * are rejected immediately, but the converted value is not retained: only the raw value is kept until the
+		 * entry is first accessed. This preserves fail-fast validation while keeping memory proportional to the
+		 * entries actually used, at the cost of converting accessed entries twice. Validators are applied only
+		 * once, at load time, and not again when an entry is accessed. <br>
+		 * <br>
+		 * Likewise, each lazy nested section is validated at load time, without creating the section itself.
+		 * Its entries are processed once, and kept until the section is created.
+		 * 
+		 * @param eagerlyValidateLazyValues whether to validate lazy values when the configuration is loaded
+		 * @return this builder
+		 */
+		public Builder setEagerlyValidateLazyValues(boolean eagerlyValidateLazyValues) {
+			this.eagerlyValidateLazyValues = eagerlyValidateLazyValues;
+			return this;
+		}
+		
+		/**
+		 * Specifies whether the elements of large collections and maps of {@link SubSection}s should be
+		 * processed in parallel. By default this is {@code false}. <br>
+		 * <br>
+		 * Every element shares the same section definition, so elements may be converted independently.
+		 * If {@code true}, collections and maps with many section elements are processed using the common
+		 * fork join pool. Small collections are always processed sequentially.
+		 * 
+		 * @param parallelSectionElements whether to process section elements in parallel
+		 * @return this builder
+		 */
+		public Builder setParallelSectionElements(boolean parallelSectionElements) {
+			this.parallelSectionElements = parallelSectionElements;
+			return this;
+		}
+		
+		/**
+		 * Specifies whether loaded configurations should retain the raw values of their entries, as read
+		 * from the source. By default this is {@code false}. <br>
+		 * <br>
+		 * Configuration instances are immutable, so a retained value always matches the entry's value.
+		 * If {@code true}, writing a loaded configuration reuses the retained values rather than invoking
+		 * each config method and serialising the result again, which makes writing back a configuration
+		 * after loading it much cheaper. Values are therefore written in the form they were loaded, rather
+		 * than a normalised form. Entries filled in from auxiliary entries or defaults are serialised
+		 * as usual. <br>
+		 * <br>
+		 * Only values which were converted and validated when the configuration was loaded are retained.
+		 * With lazy entries which are not eagerly validated, raw values are therefore not retained. Retained
+		 * lists and maps are copied, so they are unaffected by later changes to the loaded collections. <br>
+		 * <br>
+		 * This retains the raw values in memory alongside the converted values.
+		 * 
+		 * @param retainSourceValues whether to retain raw source values
+		 * @return this builder
+		 */
+		public Builder setRetainSourceValues(boolean retainSourceValues) {
+			this.retainSourceValues = retainSourceValues;
+			return this;
+		}
+		
 		/**
 		 * Builds a {@code ValidationOptions} from the contents of this builder
 		 * 
@@ -306,7 +479,10 @@ public final class ConfigurationOptions {
 		public String toString() {
 			return "ConfigurationOptions.Builder [serialisers=" + serialisers + ", validators=" + validators
 					+ ", sorter=" + sorter + ", strictParseEnums=" + strictParseEnums
-					+ ", createSingleElementCollections="+ createSingleElementCollections + "]";
+					+ ", createSingleElementCollections="+ createSingleElementCollections + ", lazyEntries=" + lazyEntries
+					+ ", lazySubSections=" + lazySubSections + ", eagerlyValidateLazyValues=" + eagerlyValidateLazyValues
+					+ ", parallelSectionElements=" + parallelSectionElements + ", retainSourceValues="
+					+ retainSourceValues + "]";
 		}
 		
 	}
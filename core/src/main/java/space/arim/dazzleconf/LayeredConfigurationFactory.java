@@ -0,0 +1,73 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf;
+
+import java.io.IOException;
+import java.util.List;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+/**
+ * A {@link ConfigurationFactory} which can also read configuration data from several layers of sources. <br>
+ * <br>
+ * Factories extending {@code AbstractConfigurationFactory}, which load configurations from raw maps,
+ * implement this interface.
+ * 
+ * @author A248
+ *
+ * @param <C> the type of the configuration
+ */
+public interface LayeredConfigurationFactory<C> extends ConfigurationFactory<C> {
+
+	/**
+	 * Reads configuration data from several layers of sources. The value of each entry is taken from
+	 * the first layer which defines it, so earlier layers override later ones. Sections are merged across
+	 * layers, such that each entry within a section is resolved separately. Only the values which are
+	 * used are converted and validated. <br>
+	 * <br>
+	 * The returned configuration implements {@link LayeredKeys}, recording which layer supplied each entry.
+	 * If an entry is defined by none of the layers, {@code MissingKeyException} is thrown.
+	 * 
+	 * @param layers the layers, in order of precedence
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is not valid
+	 * @throws NullPointerException if {@code layers} is null
+	 * @throws IllegalArgumentException if there are no layers
+	 */
+	C loadLayered(List<ConfigurationLayer> layers) throws IOException, InvalidConfigException;
+	
+	/**
+	 * Reads configuration data from several layers of sources with the given auxiliary configuration
+	 * instance. See {@link #loadLayered(List)}. <br>
+	 * <br>
+	 * If an entry is defined by none of the layers, its value is taken from the auxiliary configuration
+	 * instance, and the returned configuration implements {@link AuxiliaryKeys}.
+	 * 
+	 * @param layers the layers, in order of precedence
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is not valid
+	 * @throws NullPointerException if {@code layers} or {@code auxiliaryEntries} is null
+	 * @throws IllegalArgumentException if there are no layers
+	 */
+	C loadLayered(List<ConfigurationLayer> layers, C auxiliaryEntries) throws IOException, InvalidConfigException;
+	
+}
@@ -0,0 +1,42 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf;
+
+import java.util.Map;
+
+/**
+ * An interface for configurations loaded from layers of sources, through
+ * {@link LayeredConfigurationFactory#loadLayered(java.util.List)}. Records which layer supplied the value
+ * of each entry.
+ * 
+ * @author A248
+ *
+ */
+public interface LayeredKeys {
+
+	/**
+	 * Gets the names of the layers which supplied the values of entries, keyed by the path of each entry.
+	 * Each path is the full key of an entry, with the keys of enclosing sections joined by periods. Entries
+	 * taken from auxiliary entries are not included; see {@link AuxiliaryKeys}.
+	 * 
+	 * @return the immutable map of entry paths to layer names
+	 */
+	Map<String, String> getKeyLayers();
+	
+}
@@ -0,0 +1,45 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.annote;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Applied to lists, sets, and collections which may be very large, such as allow and deny lists. <br>
+ * <br>
+ * Elements are converted one at a time straight into the final immutable collection, without first
+ * collecting them in a temporary list or set and copying it. Sets are stored in a single open addressed
+ * table rather than as hash nodes. This bounds the memory used while loading to little more than the
+ * loaded value and the final collection. <br>
+ * <br>
+ * The resulting collections are immutable, but unlike the collections created otherwise, they permit
+ * queries for {@code null} elements, which return false.
+ * 
+ * @author A248
+ *
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface CompactCollection {
+
+}
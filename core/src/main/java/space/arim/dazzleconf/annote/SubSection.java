@@ -25,7 +25,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 /**
- * Specifies the config entry is a nested configuration section
+ * Specifies the config entry is a nested configuration section. <br>
+ * <br>
+ * The return type may also be a {@code List}, {@code Set}, {@code Collection}, or {@code Map}
+ * whose elements (or map values) are configuration interfaces, such as {@code Map<String, Shard>}.
+ * All elements share a single definition of the section interface. Such entries default to
+ * an empty collection or map when defaults are loaded.
  * 
  * @author A248
  *
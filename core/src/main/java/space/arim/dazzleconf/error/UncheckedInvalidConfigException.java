@@ -0,0 +1,68 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.error;
+
+import java.util.Objects;
+
+/**
+ * Wraps an {@link InvalidConfigException} with an unchecked exception. Thrown when a configuration value
+ * is found to be invalid after the configuration was already loaded, such as when entries are lazily converted.
+ * 
+ * @author A248
+ *
+ */
+public class UncheckedInvalidConfigException extends RuntimeException {
+
+	/**
+	 * Serial version uid
+	 */
+	private static final long serialVersionUID = -2376530432711694806L;
+
+	/**
+	 * Creates the exception with an exception message and cause
+	 * 
+	 * @param message the message
+	 * @param cause the cause
+	 * @throws NullPointerException if {@code cause} is null
+	 */
+	public UncheckedInvalidConfigException(String message, InvalidConfigException cause) {
+		super(message, Objects.requireNonNull(cause, "cause"));
+	}
+	
+	/**
+	 * Creates the exception with a cause
+	 * 
+	 * @param cause the cause
+	 * @throws NullPointerException if {@code cause} is null
+	 */
+	public UncheckedInvalidConfigException(InvalidConfigException cause) {
+		super(Objects.requireNonNull(cause, "cause"));
+	}
+	
+	/**
+	 * Gets the cause of this exception
+	 * 
+	 * @return the {@code InvalidConfigException} which is the cause of this exception
+	 */
+	@Override
+	public synchronized InvalidConfigException getCause() {
+		return (InvalidConfigException) super.getCause();
+	}
+
+}
@@ -21,9 +21,11 @@ package space.arim.dazzleconf.factory;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import space.arim.dazzleconf.ConfigurationFactory;
 import space.arim.dazzleconf.ConfigurationOptions;
@@ -69,6 +71,30 @@ public abstract class AbstractConfigurationFactory<C> extends DelegatingConfigur
 	 */
 	protected abstract Charset charset();
 	
+	/**
+	 * The size of the character buffers used when reading from or writing to streams and channels. This is
+	 * also the initial buffer size when reading a file whose size is not known. <br>
+	 * <br>
+	 * The default is 8192.
+	 * 
+	 * @return the buffer size, which must be positive
+	 */
+	protected int bufferSize() {
+		return 8192;
+	}
+	
+	/**
+	 * The file size, in bytes, at or above which files are memory mapped when loaded through
+	 * {@link #load(java.nio.file.Path)}. Smaller files are read into a buffer of exactly the file's size. <br>
+	 * <br>
+	 * The default is 1 MiB.
+	 * 
+	 * @return the memory map threshold
+	 */
+	protected long memoryMapThreshold() {
+		return 1L << 20;
+	}
+	
 	/**
 	 * Loads a raw map of nested values from the specified reader. The map returned is a hierarchical
 	 * map of nested maps.
@@ -80,6 +106,26 @@ public abstract class AbstractConfigurationFactory<C> extends DelegatingConfigur
 	 */
 	protected abstract Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException;
 	
+	/**
+	 * Loads a raw map of nested values directly from the bytes of a configuration, for formats which
+	 * are not text based. This is used when loading from a {@code ByteBuffer} or a file path. <br>
+	 * <br>
+	 * If this returns {@code null}, as it does by default, the bytes are decoded using the {@link #charset()}
+	 * and read through {@link #loadMapFromReader(Reader)}. Streams and channels are always read through
+	 * {@code loadMapFromReader}. <br>
+	 * <br>
+	 * The buffer's position may be changed freely. The returned map may retain the buffer, and so may
+	 * decode its values lazily.
+	 * 
+	 * @param buffer the bytes of the configuration
+	 * @return the raw map of values, or {@code null} to read characters instead
+	 * @throws IOException if an I/O error occurs
+	 * @throws ConfigFormatSyntaxException if the configuration format syntax is incorrect
+	 */
+	protected Map<String, Object> loadMapFromBytes(ByteBuffer buffer) throws IOException, ConfigFormatSyntaxException {
+		return null;
+	}
+	
 	/**
 	 * Writes a raw map of nested values to the specified writer. Inverse operation of {@link #loadMapFromReader(Reader)}. <br>
 	 * <br>
@@ -95,6 +141,57 @@ public abstract class AbstractConfigurationFactory<C> extends DelegatingConfigur
 	 */
 	protected abstract void writeMapToWriter(Map<String, Object> config, Writer writer) throws IOException;
 	
+	/**
+	 * Creates a {@link ConfigurationEmitter} which writes configuration entries to the specified writer as
+	 * they are emitted. This avoids building a map of the entire configuration before writing it. <br>
+	 * <br>
+	 * If this returns {@code null}, as it does by default, configuration data is instead written using
+	 * {@link #writeMapToWriter(Map, Writer)}. Implementations may write any preamble, such as a header,
+	 * before returning the emitter. This method is called once per write.
+	 * 
+	 * @param writer the writer
+	 * @return the configuration emitter, or {@code null} to write a map
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected ConfigurationEmitter createEmitter(Writer writer) throws IOException {
+		return null;
+	}
+	
+	/**
+	 * Inserts the entries at the given paths into the existing text of a configuration file, as used by
+	 * {@link ConfigurationFactory#writeAuxiliaryKeys(Object, java.nio.file.Path)}. The paths are the full,
+	 * dot separated keys of the missing entries and sections. <br>
+	 * <br>
+	 * Implementations may use {@link #emitSelectedEntries(Object, Set, ConfigurationEmitter)} to render
+	 * only the entries at these paths. If this returns {@code null}, as it does by default, the whole
+	 * configuration is written instead.
+	 * 
+	 * @param document the existing text of the configuration
+	 * @param configData the configuration data
+	 * @param paths the full keys of the entries and sections to insert
+	 * @return the patched text, or {@code null} to write the whole configuration
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected CharSequence patchDocument(CharSequence document, C configData, Set<String> paths) throws IOException {
+		return null;
+	}
+	
+	/**
+	 * Emits only the entries and sections at the given paths to the specified emitter, then finishes it.
+	 * Sections containing selected entries are begun and ended around them. The keys of entries and
+	 * sections which are not selected are passed to {@link ConfigurationEmitter#omitKey(String)}, in the
+	 * order in which they would otherwise be written.
+	 * 
+	 * @param configData the configuration data
+	 * @param paths the full keys of the entries and sections to emit
+	 * @param emitter the emitter
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected final void emitSelectedEntries(C configData, Set<String> paths, ConfigurationEmitter emitter)
+			throws IOException {
+		delegate.emitSelectedEntries(configData, paths, emitter);
+	}
+	
 	/**
 	 * Whether this implementation actively supports comments by recognising {@link CommentedWrapper} in config values.
 	 * It is insufficient for the underlying format to support comments; the implementation of this config factory must
@@ -157,16 +254,42 @@ public abstract class AbstractConfigurationFactory<C> extends DelegatingConfigur
 			return AbstractConfigurationFactory.this.charset();
 		}
 
+		@Override
+		protected int bufferSize() {
+			return AbstractConfigurationFactory.this.bufferSize();
+		}
+		
+		@Override
+		protected long memoryMapThreshold() {
+			return AbstractConfigurationFactory.this.memoryMapThreshold();
+		}
+
 		@Override
 		protected Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException {
 			return AbstractConfigurationFactory.this.loadMapFromReader(reader);
 		}
 
+		@Override
+		protected Map<String, Object> loadMapFromBytes(ByteBuffer buffer) throws IOException, ConfigFormatSyntaxException {
+			return AbstractConfigurationFactory.this.loadMapFromBytes(buffer);
+		}
+
 		@Override
 		protected void writeMapToWriter(Map<String, Object> config, Writer writer) throws IOException {
 			AbstractConfigurationFactory.this.writeMapToWriter(config, writer);
 		}
 		
+		@Override
+		protected ConfigurationEmitter createEmitter(Writer writer) throws IOException {
+			return AbstractConfigurationFactory.this.createEmitter(writer);
+		}
+		
+		@Override
+		protected CharSequence patchDocument(CharSequence document, C configData, Set<String> paths)
+				throws IOException {
+			return AbstractConfigurationFactory.this.patchDocument(document, configData, paths);
+		}
+		
 		@Override
 		protected MapDeprocessor<C> createMapDeprocessor(C configData) {
 			if (AbstractConfigurationFactory.this.supportsCommentsThroughWrapper()) {
@@ -0,0 +1,95 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.factory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Receives the entries of a configuration as a stream of events, in the order they should be written.
+ * Allows a configuration format to write configuration data directly, without first building
+ * a hierarchical map of the entire configuration. <br>
+ * <br>
+ * Nested sections, including sections implied by keys containing periods, are opened with
+ * {@link #beginSection(String, List)} and closed with {@link #endSection()}. All entries emitted between
+ * these calls belong to the section. Entries sharing a parent key are always grouped into one section. <br>
+ * <br>
+ * Emitted values take the same form as the values of maps passed to
+ * {@link AbstractConfigurationFactory#writeMapToWriter(java.util.Map, Writer)}, except that they are never
+ * wrapped in {@link CommentedWrapper}. Comments are instead passed as an argument, and may be ignored
+ * if the format does not support them.
+ * 
+ * @author A248
+ *
+ */
+public interface ConfigurationEmitter {
+
+	/**
+	 * Begins a nested configuration section
+	 * 
+	 * @param key the key of the section, relative to the current section
+	 * @param comments the comments on the section, empty if there are none
+	 * @throws IOException if an I/O error occurs
+	 */
+	void beginSection(String key, List<String> comments) throws IOException;
+	
+	/**
+	 * Ends the most recently begun configuration section
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	void endSection() throws IOException;
+	
+	/**
+	 * Emits a single configuration entry
+	 * 
+	 * @param key the key of the entry, relative to the current section
+	 * @param value the serialised value of the entry
+	 * @param comments the comments on the entry, empty if there are none
+	 * @throws IOException if an I/O error occurs
+	 */
+	void emitEntry(String key, Object value, List<String> comments) throws IOException;
+	
+	/**
+	 * Notes the key of an entry or section which is left out, when only some entries of a configuration
+	 * are emitted. Called in the place where the entry or section would otherwise have been emitted, so
+	 * that the emitted entries may be positioned relative to the omitted ones. <br>
+	 * <br>
+	 * By default, does nothing.
+	 * 
+	 * @param key the key of the omitted entry or section, relative to the current section
+	 * @throws IOException if an I/O error occurs
+	 */
+	default void omitKey(String key) throws IOException {
+		
+	}
+	
+	/**
+	 * Finishes emitting the configuration. Called once, after all entries have been emitted. <br>
+	 * <br>
+	 * By default, does nothing.
+	 * 
+	 * @throws IOException if an I/O error occurs
+	 */
+	default void finish() throws IOException {
+		
+	}
+	
+}
@@ -21,16 +21,21 @@ package space.arim.dazzleconf.factory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
 
-import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationLayer;
 import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.LayeredConfigurationFactory;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.AbstractConfigurationFactoryImpl;
 
-abstract class DelegatingConfigurationFactory<C> implements ConfigurationFactory<C> {
+abstract class DelegatingConfigurationFactory<C> implements LayeredConfigurationFactory<C> {
 
-	abstract ConfigurationFactory<C> delegate();
+	abstract AbstractConfigurationFactoryImpl<C> delegate();
 
 	@Override
 	public Class<C> getConfigClass() {
@@ -62,6 +67,65 @@ abstract class DelegatingConfigurationFactory<C> implements ConfigurationFactory
 		return delegate().load(inputStream, auxiliaryEntries);
 	}
 
+	@Override
+	public C load(ByteBuffer buffer) throws IOException, InvalidConfigException {
+		return delegate().load(buffer);
+	}
+
+	@Override
+	public C load(ByteBuffer buffer, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return delegate().load(buffer, auxiliaryEntries);
+	}
+
+	/**
+	 * Reads configuration data from characters already decoded in memory
+	 * 
+	 * @param content the configuration content
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code content} is null
+	 */
+	public C load(CharSequence content) throws IOException, InvalidConfigException {
+		return delegate().load(content);
+	}
+
+	/**
+	 * Reads configuration data from characters already decoded in memory with the given auxiliary configuration
+	 * instance. See {@link #load(InputStream, Object)} for a description of auxiliary entries.
+	 * 
+	 * @param content the configuration content
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code content} or {@code auxiliaryEntries} is null
+	 */
+	public C load(CharSequence content, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return delegate().load(content, auxiliaryEntries);
+	}
+
+	@Override
+	public C load(Path path) throws IOException, InvalidConfigException {
+		return delegate().load(path);
+	}
+
+	@Override
+	public C load(Path path, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return delegate().load(path, auxiliaryEntries);
+	}
+
+	@Override
+	public C loadLayered(List<ConfigurationLayer> layers) throws IOException, InvalidConfigException {
+		return delegate().loadLayered(layers);
+	}
+	
+	@Override
+	public C loadLayered(List<ConfigurationLayer> layers, C auxiliaryEntries)
+			throws IOException, InvalidConfigException {
+		return delegate().loadLayered(layers, auxiliaryEntries);
+	}
+
 	@Override
 	public C loadDefaults() {
 		return delegate().loadDefaults();
@@ -77,4 +141,24 @@ abstract class DelegatingConfigurationFactory<C> implements ConfigurationFactory
 		delegate().write(configData, outputStream);
 	}
 	
+	@Override
+	public void write(C configData, Path path) throws IOException {
+		delegate().write(configData, path);
+	}
+	
+	@Override
+	public void writeAuxiliaryKeys(C configData, Path path) throws IOException {
+		delegate().writeAuxiliaryKeys(configData, path);
+	}
+	
+	@Override
+	public void writeAuxiliaryKeys(C configData, Path path, ByteBuffer source) throws IOException {
+		delegate().writeAuxiliaryKeys(configData, path, source);
+	}
+	
+	@Override
+	public ByteBuffer write(C configData) throws IOException {
+		return delegate().write(configData);
+	}
+	
 }
@@ -0,0 +1,236 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.util.AsyncTasks;
+
+/**
+ * A group of related configurations which are reloaded together. <br>
+ * <br>
+ * The configuration data of all members is held in one immutable {@link Snapshot}, which is replaced
+ * as a whole. A reload publishes a new snapshot only if every member was loaded successfully, so readers
+ * never observe a mix of old and new configurations. If any member fails to load, the previous snapshot
+ * remains current. <br>
+ * <br>
+ * This class is thread safe.
+ * 
+ * @author A248
+ *
+ */
+public final class ConfigGroup {
+
+	private final List<ConfigurationHelper<?>> members;
+	private final Map<ConfigurationHelper<?>, Integer> memberIndices;
+	private final ConfigHandle<Snapshot> handle;
+	
+	private ConfigGroup(List<ConfigurationHelper<?>> members, Map<ConfigurationHelper<?>, Integer> memberIndices,
+			Object[] initialData) {
+		this.members = members;
+		this.memberIndices = memberIndices;
+		handle = new ConfigHandle<>(new Snapshot(memberIndices, initialData));
+	}
+	
+	/**
+	 * Creates a group from the given members, loading each of them
+	 * 
+	 * @param members the member configuration helpers, each distinct
+	 * @return the group, holding the loaded config data
+	 * @throws IOException if an I/O exception occurred loading any member
+	 * @throws InvalidConfigException if the loaded configuration of any member was not valid (user error)
+	 * @throws IllegalArgumentException if there are no members, or a member is repeated
+	 */
+	public static ConfigGroup load(List<? extends ConfigurationHelper<?>> members)
+			throws IOException, InvalidConfigException {
+		List<ConfigurationHelper<?>> memberList = Collections.unmodifiableList(new ArrayList<>(members));
+		if (memberList.isEmpty()) {
+			throw new IllegalArgumentException("A config group requires at least one member");
+		}
+		Map<ConfigurationHelper<?>, Integer> memberIndices = new IdentityHashMap<>(memberList.size());
+		for (int n = 0; n < memberList.size(); n++) {
+			ConfigurationHelper<?> member = Objects.requireNonNull(memberList.get(n), "member");
+			if (memberIndices.put(member, n) != null) {
+				throw new IllegalArgumentException("Member " + member + " is repeated");
+			}
+		}
+		return new ConfigGroup(memberList, memberIndices, loadAll(memberList));
+	}
+	
+	private static Object[] loadAll(List<ConfigurationHelper<?>> members) throws IOException, InvalidConfigException {
+		Object[] configData = new Object[members.size()];
+		for (int n = 0; n < configData.length; n++) {
+			configData[n] = members.get(n).reloadConfigData();
+		}
+		return configData;
+	}
+	
+	/**
+	 * Gets the members of this group
+	 * 
+	 * @return an immutable list of the members
+	 */
+	public List<ConfigurationHelper<?>> getMembers() {
+		return members;
+	}
+	
+	/**
+	 * Gets the current snapshot of the configuration data of all members
+	 * 
+	 * @return the current snapshot
+	 */
+	public Snapshot current() {
+		return handle.current();
+	}
+	
+	/**
+	 * Gets the current version, which is incremented each time a snapshot is published
+	 * 
+	 * @return the current version
+	 */
+	public long version() {
+		return handle.version();
+	}
+	
+	/**
+	 * Reloads all members on the calling thread, one after another, and publishes the new snapshot if
+	 * all succeed. If a snapshot was published by a concurrent reload in the meantime, the reloaded
+	 * data is discarded rather than replacing the newer snapshot.
+	 * 
+	 * @return true if the new snapshot was published, false if it was discarded
+	 * @throws IOException if an I/O exception occurred loading any member
+	 * @throws InvalidConfigException if the loaded configuration of any member was not valid (user error)
+	 */
+	public boolean reload() throws IOException, InvalidConfigException {
+		long version = handle.version();
+		Object[] configData = loadAll(members);
+		return handle.compareAndPublish(version, new Snapshot(memberIndices, configData));
+	}
+	
+	/**
+	 * Reloads all members concurrently on the given executor, and publishes the new snapshot if all
+	 * succeed. See {@link #reload()}. <br>
+	 * <br>
+	 * If any member fails to reload, the future is completed exceptionally with the {@code IOException}
+	 * or {@code InvalidConfigException} of the first failed member, to which the failures of further members
+	 * are added as suppressed exceptions. The current snapshot is left unchanged.
+	 * 
+	 * @param executor the executor on which to reload members
+	 * @return a future completed with whether the new snapshot was published
+	 * @throws NullPointerException if {@code executor} is null
+	 */
+	public CompletableFuture<Boolean> reloadAsync(Executor executor) {
+		Objects.requireNonNull(executor, "executor");
+		long version = handle.version();
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[members.size()];
+		for (int n = 0; n < futures.length; n++) {
+			futures[n] = members.get(n).reloadConfigDataAsync(executor);
+		}
+		CompletableFuture<Boolean> result = new CompletableFuture<>();
+		CompletableFuture.allOf(futures).whenComplete((ignore, ignoredEx) -> {
+			Object[] configData = new Object[futures.length];
+			Throwable failure = null;
+			for (int n = 0; n < futures.length; n++) {
+				try {
+					configData[n] = futures[n].join();
+				} catch (CompletionException | CancellationException ex) {
+					Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+					if (failure == null) {
+						failure = cause;
+					} else if (cause != failure) {
+						failure.addSuppressed(cause);
+					}
+				}
+			}
+			if (failure != null) {
+				result.completeExceptionally(failure);
+			} else {
+				result.complete(handle.compareAndPublish(version, new Snapshot(memberIndices, configData)));
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Reloads all members concurrently on the default executor. See {@link #reloadAsync(Executor)}
+	 * 
+	 * @return a future completed with whether the new snapshot was published
+	 */
+	public CompletableFuture<Boolean> reloadAsync() {
+		return reloadAsync(AsyncTasks.defaultExecutor());
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigGroup [members=" + members + ", handle=" + handle + "]";
+	}
+	
+	/**
+	 * An immutable snapshot of the configuration data of every member of a group, loaded together
+	 * 
+	 * @author A248
+	 *
+	 */
+	public static final class Snapshot {
+		
+		private final Map<ConfigurationHelper<?>, Integer> memberIndices;
+		private final Object[] configData;
+		
+		Snapshot(Map<ConfigurationHelper<?>, Integer> memberIndices, Object[] configData) {
+			this.memberIndices = memberIndices;
+			this.configData = configData;
+		}
+		
+		/**
+		 * Gets the configuration data of a member
+		 * 
+		 * @param <C> the configuration type
+		 * @param member the member configuration helper
+		 * @return the configuration data of the member in this snapshot
+		 * @throws IllegalArgumentException if {@code member} is not a member of the group
+		 */
+		@SuppressWarnings("unchecked")
+		public <C> C get(ConfigurationHelper<C> member) {
+			Integer index = memberIndices.get(member);
+			if (index == null) {
+				throw new IllegalArgumentException(member + " is not a member of the group");
+			}
+			return (C) configData[index];
+		}
+
+		@Override
+		public String toString() {
+			return "Snapshot [configData=" + Arrays.toString(configData) + "]";
+		}
+		
+	}
+	
+}
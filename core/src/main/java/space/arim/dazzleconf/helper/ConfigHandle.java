@@ -0,0 +1,194 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.lang.reflect.Proxy;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Holder of the current configuration data, which may be swapped when the configuration is reloaded. <br>
+ * <br>
+ * The configuration data and its version are held together in a single volatile reference. Reading the
+ * current data with {@link #current()} costs one volatile read, and never blocks. New data is published
+ * atomically, either unconditionally or by comparing the version it was based on. Each publication
+ * increments the version by one. <br>
+ * <br>
+ * This class is thread safe and lock free.
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+public final class ConfigHandle<C> {
+
+	private volatile Versioned<C> versioned;
+	
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<ConfigHandle, Versioned> VERSIONED_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(ConfigHandle.class, Versioned.class, "versioned");
+	
+	/**
+	 * Creates with initial configuration data, at version 0
+	 * 
+	 * @param initialData the initial configuration data
+	 * @throws NullPointerException if {@code initialData} is null
+	 */
+	public ConfigHandle(C initialData) {
+		versioned = new Versioned<>(Objects.requireNonNull(initialData, "initialData"), 0L);
+	}
+	
+	/**
+	 * Gets the current configuration data
+	 * 
+	 * @return the current configuration data
+	 */
+	public C current() {
+		return versioned.configData;
+	}
+	
+	/**
+	 * Gets the current version, which is incremented each time configuration data is published
+	 * 
+	 * @return the current version
+	 */
+	public long version() {
+		return versioned.version;
+	}
+	
+	/**
+	 * Gets the current configuration data together with its version. Unlike calling {@link #current()}
+	 * and {@link #version()} separately, the data and version are consistent with each other.
+	 * 
+	 * @return the current configuration data and version
+	 */
+	public Versioned<C> versioned() {
+		return versioned;
+	}
+	
+	/**
+	 * Publishes new configuration data, regardless of the current version
+	 * 
+	 * @param configData the new configuration data
+	 * @return the version of the published data
+	 * @throws NullPointerException if {@code configData} is null
+	 */
+	public long publish(C configData) {
+		Objects.requireNonNull(configData, "configData");
+		Versioned<C> current;
+		Versioned<C> next;
+		do {
+			current = versioned;
+			next = new Versioned<>(configData, current.version + 1);
+		} while (!VERSIONED_UPDATER.compareAndSet(this, current, next));
+		return next.version;
+	}
+	
+	/**
+	 * Publishes new configuration data only if the current version is the expected version. Used to avoid
+	 * replacing data published in the meantime, such as by a concurrent reload which finished first.
+	 * 
+	 * @param expectedVersion the version the new data is based on
+	 * @param configData the new configuration data
+	 * @return true if published, false if the current version was not the expected version
+	 * @throws NullPointerException if {@code configData} is null
+	 */
+	public boolean compareAndPublish(long expectedVersion, C configData) {
+		Objects.requireNonNull(configData, "configData");
+		Versioned<C> current;
+		do {
+			current = versioned;
+			if (current.version != expectedVersion) {
+				return false;
+			}
+		} while (!VERSIONED_UPDATER.compareAndSet(this, current, new Versioned<>(configData, expectedVersion + 1)));
+		return true;
+	}
+	
+	/**
+	 * Creates a live view of this handle. The live view is a stable instance of the config interface,
+	 * each method of which is delegated to the current configuration data of this handle. Components
+	 * holding the live view thus see reloaded values without being given the new configuration data. <br>
+	 * <br>
+	 * Each call on the live view reads the current configuration data anew, so successive calls may observe
+	 * different reloads. Values which must be consistent with each other should instead be read from a single
+	 * {@link #current()} instance. Likewise, a nested section obtained from the live view is part of the
+	 * configuration data current at the time, and is not itself live. <br>
+	 * <br>
+	 * The live view is equal only to itself.
+	 * 
+	 * @param configClass the config interface, which the configuration data must implement
+	 * @return a live view of this handle
+	 * @throws IllegalArgumentException if {@code configClass} is not an interface
+	 */
+	public C liveView(Class<C> configClass) {
+		if (!configClass.isInterface()) {
+			throw new IllegalArgumentException("Live views require an interface, not " + configClass);
+		}
+		Object proxy = Proxy.newProxyInstance(configClass.getClassLoader(), new Class<?>[] {configClass},
+				new LiveViewInvocationHandler<>(this));
+		return configClass.cast(proxy);
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigHandle [versioned=" + versioned + "]";
+	}
+	
+	/**
+	 * Configuration data together with the version at which it was published. Immutable.
+	 * 
+	 * @param <C> the configuration type
+	 */
+	public static final class Versioned<C> {
+		
+		final C configData;
+		final long version;
+		
+		Versioned(C configData, long version) {
+			this.configData = configData;
+			this.version = version;
+		}
+		
+		/**
+		 * Gets the configuration data
+		 * 
+		 * @return the configuration data
+		 */
+		public C getConfigData() {
+			return configData;
+		}
+		
+		/**
+		 * Gets the version at which the configuration data was published
+		 * 
+		 * @return the version
+		 */
+		public long getVersion() {
+			return version;
+		}
+
+		@Override
+		public String toString() {
+			return "Versioned [configData=" + configData + ", version=" + version + "]";
+		}
+		
+	}
+	
+}
@@ -0,0 +1,263 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.SnapshotConfigurationFactory;
+
+/**
+ * Bounded history of the configuration data loaded by a {@link ConfigurationHelper}, allowing an earlier
+ * configuration to be restored instantly. <br>
+ * <br>
+ * The history publishes to a {@link ConfigHandle}. Each successful reload through the history is recorded,
+ * together with the time it was loaded and a hash of its source. Only the most recent entries, up to the
+ * capacity, are kept. Rolling back republishes a recorded instance to the handle, without reading, parsing or
+ * validating the configuration again. <br>
+ * <br>
+ * This class is thread safe. Reading the handle remains lock free.
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+public final class ConfigHistory<C> {
+
+	private final ConfigurationHelper<C> helper;
+	private final ConfigHandle<C> handle;
+	
+	/** Ring buffer of entries. Guarded by this */
+	private final Entry<C>[] entries;
+	/** Index of the most recent entry. Guarded by this */
+	private int head;
+	/** Number of entries. Guarded by this */
+	private int size;
+	
+	@SuppressWarnings("unchecked")
+	private ConfigHistory(ConfigurationHelper<C> helper, int capacity, Entry<C> initialEntry) {
+		this.helper = helper;
+		handle = new ConfigHandle<>(initialEntry.configData);
+		entries = new Entry[capacity];
+		entries[0] = initialEntry;
+		size = 1;
+	}
+	
+	/**
+	 * Loads the configuration data with the given helper, and creates a history starting with it
+	 * 
+	 * @param <C> the configuration type
+	 * @param helper the configuration helper
+	 * @param capacity the maximum number of entries kept, including the current one
+	 * @return the history, whose handle holds the loaded config data
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 * @throws IllegalArgumentException if {@code capacity} is not positive
+	 */
+	public static <C> ConfigHistory<C> load(ConfigurationHelper<C> helper, int capacity)
+			throws IOException, InvalidConfigException {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive");
+		}
+		return new ConfigHistory<>(helper, capacity, loadEntry(helper));
+	}
+	
+	private static <C> Entry<C> loadEntry(ConfigurationHelper<C> helper) throws IOException, InvalidConfigException {
+		ConfigurationHelper.LoadedSource<C> loaded = helper.reloadConfigDataWithSource();
+		Instant loadedAt = Instant.now();
+		// The bytes which were parsed, rather than the file, which may have changed since
+		return new Entry<>(loaded.configData, loadedAt, toHex(SnapshotConfigurationFactory.sha256(loaded.source)));
+	}
+	
+	private static String toHex(byte[] hash) {
+		StringBuilder builder = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * Gets the handle to which this history publishes
+	 * 
+	 * @return the config handle
+	 */
+	public ConfigHandle<C> getHandle() {
+		return handle;
+	}
+	
+	/**
+	 * Gets the maximum number of entries kept
+	 * 
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return entries.length;
+	}
+	
+	/**
+	 * Gets the number of entries currently kept. This is at least 1
+	 * 
+	 * @return the number of entries
+	 */
+	public synchronized int size() {
+		return size;
+	}
+	
+	/**
+	 * Gets an entry, where 0 is the most recent entry, 1 the entry before it, and so on
+	 * 
+	 * @param n the number of entries back from the most recent
+	 * @return the entry
+	 * @throws IndexOutOfBoundsException if {@code n} is negative, or not less than {@link #size()}
+	 */
+	public synchronized Entry<C> get(int n) {
+		if (n < 0 || n >= size) {
+			throw new IndexOutOfBoundsException("Entry " + n + " out of " + size);
+		}
+		return entries[index(n)];
+	}
+	
+	/**
+	 * Gets all entries kept, from the most recent to the oldest
+	 * 
+	 * @return a new list of the entries
+	 */
+	public synchronized List<Entry<C>> getEntries() {
+		List<Entry<C>> result = new ArrayList<>(size);
+		for (int n = 0; n < size; n++) {
+			result.add(entries[index(n)]);
+		}
+		return result;
+	}
+	
+	private int index(int n) {
+		return Math.floorMod(head - n, entries.length);
+	}
+	
+	/**
+	 * Reloads the configuration data with the helper, publishes it to the handle, and records it as the most
+	 * recent entry. If full, the oldest entry is dropped. <br>
+	 * <br>
+	 * If other configuration data was published to the handle while reloading, such as by a concurrent rollback,
+	 * the reloaded data is discarded and not recorded.
+	 * 
+	 * @return true if the reloaded data was published, false if it was discarded
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 */
+	public boolean reload() throws IOException, InvalidConfigException {
+		long version = handle.version();
+		Entry<C> entry = loadEntry(helper);
+		synchronized (this) {
+			if (!handle.compareAndPublish(version, entry.configData)) {
+				return false;
+			}
+			head = (head + 1) % entries.length;
+			entries[head] = entry;
+			size = Math.min(size + 1, entries.length);
+		}
+		return true;
+	}
+	
+	/**
+	 * Rolls back by the given number of entries, and republishes the configuration data of the entry
+	 * rolled back to. The {@code n} most recent entries are discarded, so that the entry rolled back to
+	 * becomes the most recent. For example, {@code rollback(1)} restores the previous configuration. <br>
+	 * <br>
+	 * The configuration data is republished as is, without reading the configuration file.
+	 * 
+	 * @param n the number of entries to roll back
+	 * @return the entry rolled back to
+	 * @throws IndexOutOfBoundsException if {@code n} is negative, or not less than {@link #size()}
+	 */
+	public synchronized Entry<C> rollback(int n) {
+		Entry<C> entry = get(n);
+		for (int m = 0; m < n; m++) {
+			entries[index(m)] = null;
+		}
+		head = index(n);
+		size -= n;
+		handle.publish(entry.configData);
+		return entry;
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "ConfigHistory [handle=" + handle + ", entries=" + getEntries() + "]";
+	}
+	
+	/**
+	 * A configuration recorded in the history. Immutable.
+	 * 
+	 * @author A248
+	 *
+	 * @param <C> the configuration type
+	 */
+	public static final class Entry<C> {
+		
+		final C configData;
+		private final Instant loadedAt;
+		private final String sourceHash;
+		
+		Entry(C configData, Instant loadedAt, String sourceHash) {
+			this.configData = configData;
+			this.loadedAt = loadedAt;
+			this.sourceHash = sourceHash;
+		}
+		
+		/**
+		 * Gets the configuration data
+		 * 
+		 * @return the configuration data
+		 */
+		public C getConfigData() {
+			return configData;
+		}
+		
+		/**
+		 * Gets the time at which the configuration data was loaded
+		 * 
+		 * @return the load time
+		 */
+		public Instant getLoadedAt() {
+			return loadedAt;
+		}
+		
+		/**
+		 * Gets the SHA-256 hash, in lowercase hexadecimal, of the bytes from which the configuration
+		 * data was loaded
+		 * 
+		 * @return the hash of the source file
+		 */
+		public String getSourceHash() {
+			return sourceHash;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry [configData=" + configData + ", loadedAt=" + loadedAt + ", sourceHash=" + sourceHash + "]";
+		}
+		
+	}
+	
+}
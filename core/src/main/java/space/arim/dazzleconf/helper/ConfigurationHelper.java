@@ -19,14 +19,22 @@
 package space.arim.dazzleconf.helper;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import space.arim.dazzleconf.AuxiliaryKeys;
 import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.util.AsyncTasks;
 
 /**
  * Simple helper class designed to assist in reloading a configuration
@@ -40,6 +48,9 @@ public class ConfigurationHelper<C> {
 	private final Path configFolder;
 	private final String fileName;
 	private final ConfigurationFactory<C> factory;
+	/** Null if snapshots are disabled */
+	private final SnapshotCache<C> snapshotCache;
+	private final ReloadCoordinator<LoadedSource<C>> reloadCoordinator;
 
 	/**
 	 * Creates from an enclosing directory, filename within that directory, and {@code ConfigurationFactory}. <br>
@@ -54,6 +65,41 @@ public class ConfigurationHelper<C> {
 		this.configFolder = configFolder;
 		this.fileName = fileName;
 		this.factory = factory;
+		snapshotCache = null;
+		reloadCoordinator = new ReloadCoordinator<>(configFolder.resolve(fileName));
+	}
+	
+	/**
+	 * Creates from an enclosing directory, filename within that directory, {@code ConfigurationFactory},
+	 * and the filename of a snapshot cache within the same directory. <br>
+	 * <br>
+	 * After the configuration is successfully loaded, a snapshot of its values is stored in the snapshot file.
+	 * The snapshot is keyed by a hash of the configuration file and a fingerprint of the configuration
+	 * definition, including its keys, types and annotations. When reloading, if neither the configuration
+	 * file nor the definition has changed, the snapshot is loaded instead. This skips parsing the configuration
+	 * and applying validators, which the values passed when the snapshot was taken. <br>
+	 * <br>
+	 * Validators and serialisers in the configuration options are recognised only by the keys and types
+	 * to which they apply. If their implementation or behaviour changes, the snapshot file should be deleted. <br>
+	 * <br>
+	 * Snapshots are not used if lazy entries or lazy sub sections are enabled in the factory's options,
+	 * since taking a snapshot would convert every value and defeat lazy loading.
+	 * 
+	 * @param configFolder the enclosing directory
+	 * @param fileName the filename within the directory
+	 * @param factory the configuration factory
+	 * @param snapshotFileName the filename of the snapshot cache within the directory
+	 * @throws IllDefinedConfigException if a configuration entry is not defined properly
+	 */
+	public ConfigurationHelper(Path configFolder, String fileName, ConfigurationFactory<C> factory,
+			String snapshotFileName) {
+		this.configFolder = configFolder;
+		this.fileName = fileName;
+		this.factory = factory;
+		ConfigurationOptions options = factory.getOptions();
+		snapshotCache = (options.lazyEntries() || options.lazySubSections()) ? null
+				: new SnapshotCache<>(configFolder.resolve(snapshotFileName), factory);
+		reloadCoordinator = new ReloadCoordinator<>(configFolder.resolve(fileName));
 	}
 
 	/**
@@ -67,42 +113,213 @@ public class ConfigurationHelper<C> {
 
 	/**
 	 * Loads/reloads the configuration data. If necessary, updates the config on the
-	 * filesystem with the latest keys
+	 * filesystem with the latest keys. <br>
+	 * <br>
+	 * Concurrent reloads are coalesced. Only one reload runs at a time, and callers arriving while
+	 * it runs share its result or exception. If the configuration file was modified after the running
+	 * reload started, such callers instead share a single follow-up reload, which starts once the running
+	 * reload finishes. Modification is detected by the file's last modified time and size.
 	 * 
 	 * @throws IOException if an I/O exception occurred
 	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
 	 * @return the loaded config data
 	 */
 	public C reloadConfigData() throws IOException, InvalidConfigException {
+		return reloadConfigDataWithSource().configData;
+	}
+	
+	/**
+	 * Loads/reloads the configuration data, as with {@link #reloadConfigData()}, together with the bytes
+	 * from which it was loaded
+	 * 
+	 * @return the loaded config data and its source
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 */
+	LoadedSource<C> reloadConfigDataWithSource() throws IOException, InvalidConfigException {
+		return reloadCoordinator.reload(this::reloadConfigData0);
+	}
+	
+	private LoadedSource<C> reloadConfigData0() throws IOException, InvalidConfigException {
 
 		// Create parent directory if it does not exist
 		Files.createDirectories(configFolder);
 
-		C defaults = factory.loadDefaults();
-
 		Path configPath = configFolder.resolve(fileName);
 		if (!Files.exists(configPath)) {
+			C defaults = factory.loadDefaults();
 
 			// Copy default config data
-			try (FileChannel fileChannel = FileChannel.open(configPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
-				factory.write(defaults, fileChannel);
+			byte[] source = toByteArray(factory.write(defaults));
+			if (writeNewFile(configPath, source)) {
+				if (snapshotCache != null) {
+					snapshotCache.save(defaults, source);
+				}
+				// We just wrote the default values; loading them again would be pointless
+				return new LoadedSource<>(defaults, source);
 			}
-			// We just wrote the default values; loading them again would be pointless
-			return defaults;
+			// The file was created by someone else in the meantime, so load it instead
 		}
-
-		C loadedData;
-		try (FileChannel fileChannel = FileChannel.open(configPath, StandardOpenOption.READ)) {
-			loadedData = factory.load(fileChannel, defaults);
+		// Read onto the heap rather than through a memory mapping, since the file may be rewritten
+		byte[] source = Files.readAllBytes(configPath);
+		if (snapshotCache != null) {
+			C snapshot = snapshotCache.load(source);
+			if (snapshot != null) {
+				return new LoadedSource<>(snapshot, source);
+			}
 		}
-		if (loadedData instanceof AuxiliaryKeys) {
-			// Update config with latest keys
-			try (FileChannel fileChannel = FileChannel.open(configPath,
-					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
-				factory.write(loadedData, fileChannel);
+		// Parse the same bytes which were hashed, so that the snapshot is stored under the source it was taken of
+		C loadedData = factory.load(ByteBuffer.wrap(source), factory.loadDefaults());
+		if (snapshotCache != null) {
+			snapshotCache.save(loadedData, source);
+		}
+		writeAuxiliaryKeys(loadedData, configPath, source);
+		return new LoadedSource<>(loadedData, source);
+	}
+	
+	private static boolean writeNewFile(Path configPath, byte[] source) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(configPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.wrap(source);
+			while (buffer.hasRemaining()) {
+				fileChannel.write(buffer);
 			}
+			return true;
+		} catch (FileAlreadyExistsException ex) {
+			return false;
 		}
-		return loadedData;
 	}
-
+	
+	/**
+	 * Loads the configuration data, as with {@link #reloadConfigData()}, and creates a handle holding it.
+	 * The handle may be used to publish the configuration data to other threads, and reloaded with
+	 * {@link #reloadConfigData(ConfigHandle)}.
+	 * 
+	 * @return a handle holding the loaded config data
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 */
+	public ConfigHandle<C> createHandle() throws IOException, InvalidConfigException {
+		return new ConfigHandle<>(reloadConfigData());
+	}
+	
+	/**
+	 * Reloads the configuration data, as with {@link #reloadConfigData()}, and publishes it to the given
+	 * handle. If other configuration data was published to the handle while reloading, such as by a
+	 * concurrent reload, the reloaded data is discarded rather than replacing the newer data. <br>
+	 * <br>
+	 * Since concurrent reloads are coalesced, the reloaded data may be shared with another caller which
+	 * published it first. This method then returns true as well.
+	 * 
+	 * @param handle the handle to which to publish the reloaded data
+	 * @return true if the reloaded data was published, false if it was discarded
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 * @throws NullPointerException if {@code handle} is null
+	 */
+	public boolean reloadConfigData(ConfigHandle<C> handle) throws IOException, InvalidConfigException {
+		long version = handle.version();
+		C configData = reloadConfigData();
+		return handle.compareAndPublish(version, configData) || handle.current() == configData;
+	}
+	
+	/**
+	 * Creates a live view of the given handle, for the config interface of this helper's factory.
+	 * See {@link ConfigHandle#liveView(Class)}
+	 * 
+	 * @param handle the handle whose current configuration data the live view delegates to
+	 * @return a live view of the handle
+	 * @throws NullPointerException if {@code handle} is null
+	 */
+	public C createLiveView(ConfigHandle<C> handle) {
+		return handle.liveView(factory.getConfigClass());
+	}
+	
+	private void writeAuxiliaryKeys(C loadedData, Path configPath, byte[] source) throws IOException {
+		if (loadedData instanceof AuxiliaryKeys) {
+			// Update config with latest keys. The file was already read, so pass its content along
+			factory.writeAuxiliaryKeys(loadedData, configPath, ByteBuffer.wrap(source));
+		}
+	}
+	
+	private static byte[] toByteArray(ByteBuffer buffer) {
+		if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+				&& buffer.limit() == buffer.array().length) {
+			return buffer.array();
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+	
+	/**
+	 * Loads/reloads the configuration data asynchronously on the given executor.
+	 * See {@link #reloadConfigData()}. <br>
+	 * <br>
+	 * If reloading fails, the future is completed exceptionally with the {@code IOException} or
+	 * {@code InvalidConfigException} which was thrown.
+	 * 
+	 * @param executor the executor on which to reload
+	 * @return a future completed with the loaded config data
+	 * @throws NullPointerException if {@code executor} is null
+	 */
+	public CompletableFuture<C> reloadConfigDataAsync(Executor executor) {
+		return AsyncTasks.supply(this::reloadConfigData, executor);
+	}
+	
+	/**
+	 * Loads/reloads the configuration data asynchronously on the default executor, which uses
+	 * virtual threads where available. See {@link #reloadConfigDataAsync(Executor)}.
+	 * 
+	 * @return a future completed with the loaded config data
+	 */
+	public CompletableFuture<C> reloadConfigDataAsync() {
+		return reloadConfigDataAsync(AsyncTasks.defaultExecutor());
+	}
+	
+	/**
+	 * Reloads the configuration data and publishes it to the given handle, asynchronously on the given
+	 * executor. See {@link #reloadConfigData(ConfigHandle)}. <br>
+	 * <br>
+	 * If reloading fails, the future is completed exceptionally with the {@code IOException} or
+	 * {@code InvalidConfigException} which was thrown, and the handle is left unchanged.
+	 * 
+	 * @param handle the handle to which to publish the reloaded data
+	 * @param executor the executor on which to reload
+	 * @return a future completed with whether the reloaded data was published
+	 * @throws NullPointerException if {@code handle} or {@code executor} is null
+	 */
+	public CompletableFuture<Boolean> reloadConfigDataAsync(ConfigHandle<C> handle, Executor executor) {
+		Objects.requireNonNull(handle, "handle");
+		return AsyncTasks.supply(() -> reloadConfigData(handle), executor);
+	}
+	
+	/**
+	 * Reloads the configuration data and publishes it to the given handle, asynchronously on the default
+	 * executor. See {@link #reloadConfigDataAsync(ConfigHandle, Executor)}.
+	 * 
+	 * @param handle the handle to which to publish the reloaded data
+	 * @return a future completed with whether the reloaded data was published
+	 * @throws NullPointerException if {@code handle} is null
+	 */
+	public CompletableFuture<Boolean> reloadConfigDataAsync(ConfigHandle<C> handle) {
+		return reloadConfigDataAsync(handle, AsyncTasks.defaultExecutor());
+	}
+	
+	/**
+	 * Configuration data and the exact bytes from which it was loaded or written
+	 *
+	 * @param <C> the configuration type
+	 */
+	static final class LoadedSource<C> {
+		
+		final C configData;
+		final byte[] source;
+		
+		LoadedSource(C configData, byte[] source) {
+			this.configData = configData;
+			this.source = source;
+		}
+		
+	}
+	
 }
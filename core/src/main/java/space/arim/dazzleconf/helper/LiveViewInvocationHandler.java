@@ -0,0 +1,100 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Invocation handler of live views, delegating each call to the current data of a config handle
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+final class LiveViewInvocationHandler<C> implements InvocationHandler {
+
+	private final ConfigHandle<C> handle;
+	/**
+	 * The last delegate used. Racy, but safe since delegates are immutable,
+	 * and at worst a delegate is recreated.
+	 */
+	private Delegate delegate;
+	
+	LiveViewInvocationHandler(ConfigHandle<C> handle) {
+		this.handle = handle;
+	}
+	
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			return invokeObjectMethod(proxy, method, args);
+		}
+		Object configData = handle.current();
+		Delegate delegate = this.delegate;
+		if (delegate == null || delegate.configData != configData) {
+			this.delegate = delegate = new Delegate(configData);
+		}
+		return delegate.invoke(method, args);
+	}
+	
+	private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+		case "equals":
+			return proxy == args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "LiveView [current=" + handle.current() + "]";
+		default:
+			throw new UnsupportedOperationException("Unknown Object method " + method);
+		}
+	}
+	
+	private static final class Delegate {
+		
+		final Object configData;
+		/** Nonnull if configData is a proxy */
+		private final InvocationHandler proxyHandler;
+		
+		Delegate(Object configData) {
+			this.configData = configData;
+			if (Proxy.isProxyClass(configData.getClass())) {
+				proxyHandler = Proxy.getInvocationHandler(configData);
+			} else {
+				proxyHandler = null;
+			}
+		}
+		
+		Object invoke(Method method, Object[] args) throws Throwable {
+			if (proxyHandler != null) {
+				return proxyHandler.invoke(configData, method, args);
+			}
+			try {
+				return method.invoke(configData, args);
+			} catch (InvocationTargetException ex) {
+				Throwable cause = ex.getCause();
+				throw (cause != null) ? cause : ex;
+			}
+		}
+	}
+	
+}
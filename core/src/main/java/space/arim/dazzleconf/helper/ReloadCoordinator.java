@@ -0,0 +1,213 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.util.AsyncTasks;
+
+/**
+ * Coalesces concurrent reloads of a configuration file. One reload runs at a time. Callers arriving
+ * during a reload share its result, unless the file changed after that reload started, in which case
+ * they share a single follow-up reload. <br>
+ * <br>
+ * Whether the file changed is judged by its modification time and size.
+ * 
+ * @author A248
+ *
+ * @param <C> the result of a reload
+ */
+final class ReloadCoordinator<C> {
+
+	private final Path configPath;
+	
+	private final Object lock = new Object();
+	/** The running reload, or null if none. Guarded by lock */
+	private Flight<C> inFlight;
+	/** The follow-up reload, or null if none. Guarded by lock */
+	private Flight<C> queued;
+	
+	ReloadCoordinator(Path configPath) {
+		this.configPath = configPath;
+	}
+	
+	/**
+	 * Reloads using the given task, or shares the result of another reload
+	 * 
+	 * @param reloadTask the task which actually reloads
+	 * @return the reloaded config data
+	 * @throws IOException if an I/O exception occurred
+	 * @throws InvalidConfigException if the loaded configuration was not valid (user error)
+	 */
+	C reload(AsyncTasks.Task<C> reloadTask) throws IOException, InvalidConfigException {
+		FileStamp arrivalStamp = FileStamp.read(configPath);
+		Flight<C> flight;
+		Flight<C> previous = null;
+		boolean joining = false;
+		synchronized (lock) {
+			Flight<C> current = inFlight;
+			if (current == null) {
+				flight = inFlight = new Flight<>();
+				flight.stamp = arrivalStamp;
+
+			} else if (current.stamp == null || current.stamp.equals(arrivalStamp)) {
+				// The running reload has yet to read the file, or the file is unchanged
+				flight = current;
+				joining = true;
+
+			} else if (queued != null) {
+				flight = queued;
+				joining = true;
+
+			} else {
+				flight = queued = new Flight<>();
+				previous = current;
+			}
+		}
+		if (joining) {
+			return flight.await();
+		}
+		if (previous != null) {
+			// Run the follow-up reload once the running reload finishes
+			previous.awaitQuietly();
+			synchronized (lock) {
+				assert inFlight == flight;
+				// Read while holding the lock, so that callers never join after a change they saw
+				flight.stamp = FileStamp.read(configPath);
+			}
+		}
+		return run(flight, reloadTask);
+	}
+	
+	private C run(Flight<C> flight, AsyncTasks.Task<C> reloadTask) throws IOException, InvalidConfigException {
+		C configData;
+		try {
+			configData = reloadTask.call();
+		} catch (IOException | InvalidConfigException | RuntimeException | Error ex) {
+			finish();
+			flight.future.completeExceptionally(ex);
+			throw ex;
+		}
+		finish();
+		flight.future.complete(configData);
+		return configData;
+	}
+	
+	/*
+	 * Promotes the follow-up reload, if any, before the finished reload's future is completed
+	 */
+	private void finish() {
+		synchronized (lock) {
+			inFlight = queued;
+			queued = null;
+		}
+	}
+	
+	private static final class Flight<C> {
+		
+		final CompletableFuture<C> future = new CompletableFuture<>();
+		/** The file as of when this reload started, or null if not yet started. Guarded by lock */
+		FileStamp stamp;
+		
+		C await() throws IOException, InvalidConfigException {
+			try {
+				return future.join();
+			} catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				if (cause instanceof InvalidConfigException) {
+					throw (InvalidConfigException) cause;
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw ex;
+			}
+		}
+		
+		void awaitQuietly() {
+			try {
+				future.join();
+			} catch (CompletionException ignored) {
+				// The follow-up reload runs regardless
+			}
+		}
+	}
+	
+	private static final class FileStamp {
+		
+		private static final FileStamp MISSING = new FileStamp(null, -1L);
+		private static final FileStamp UNKNOWN = new FileStamp(null, -2L);
+		
+		private final FileTime lastModified;
+		private final long size;
+		
+		private FileStamp(FileTime lastModified, long size) {
+			this.lastModified = lastModified;
+			this.size = size;
+		}
+		
+		static FileStamp read(Path path) {
+			BasicFileAttributes attributes;
+			try {
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			} catch (NoSuchFileException ex) {
+				return MISSING;
+			} catch (IOException ex) {
+				return UNKNOWN;
+			}
+			return new FileStamp(attributes.lastModifiedTime(), attributes.size());
+		}
+		
+		@Override
+		public boolean equals(Object object) {
+			if (this == UNKNOWN || object == UNKNOWN) {
+				return false;
+			}
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof FileStamp)) {
+				return false;
+			}
+			FileStamp other = (FileStamp) object;
+			return size == other.size && Objects.equals(lastModified, other.lastModified);
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * Long.hashCode(size) + Objects.hashCode(lastModified);
+		}
+	}
+	
+}
@@ -0,0 +1,124 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.SnapshotConfigurationFactory;
+
+/**
+ * Snapshot of the last successfully loaded configuration, stored in a file. The snapshot
+ * is keyed by the hash of the configuration source and the fingerprint of its definition.
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+final class SnapshotCache<C> {
+
+	private static final byte[] MAGIC = {'D', 'Z', 'C', 'S'};
+	private static final byte VERSION = 1;
+	private static final int HASH_LENGTH = 32;
+	private static final int HEADER_LENGTH = MAGIC.length + 1 + 2 * HASH_LENGTH;
+	
+	private final Path snapshotPath;
+	private final SnapshotConfigurationFactory<C> snapshotFactory;
+	/** Lazily computed, may be computed more than once */
+	private volatile byte[] fingerprint;
+	
+	SnapshotCache(Path snapshotPath, ConfigurationFactory<C> factory) {
+		this.snapshotPath = snapshotPath;
+		snapshotFactory = new SnapshotConfigurationFactory<>(factory.getConfigClass(), factory.getOptions());
+	}
+	
+	private byte[] getFingerprint() {
+		byte[] fingerprint = this.fingerprint;
+		if (fingerprint == null) {
+			this.fingerprint = fingerprint = snapshotFactory.fingerprint();
+		}
+		return fingerprint;
+	}
+	
+	/**
+	 * Loads the snapshot if it was taken of the given source
+	 * 
+	 * @param source the bytes of the configuration source
+	 * @return the configuration, or {@code null} if there is no snapshot of the source
+	 */
+	C load(byte[] source) {
+		byte[] snapshot;
+		try {
+			snapshot = Files.readAllBytes(snapshotPath);
+		} catch (IOException ex) {
+			return null;
+		}
+		if (snapshot.length < HEADER_LENGTH
+				|| !Arrays.equals(MAGIC, Arrays.copyOf(snapshot, MAGIC.length))
+				|| snapshot[MAGIC.length] != VERSION) {
+			return null;
+		}
+		int hashStart = MAGIC.length + 1;
+		if (!Arrays.equals(SnapshotConfigurationFactory.sha256(source),
+				Arrays.copyOfRange(snapshot, hashStart, hashStart + HASH_LENGTH))
+				|| !Arrays.equals(getFingerprint(),
+						Arrays.copyOfRange(snapshot, hashStart + HASH_LENGTH, HEADER_LENGTH))) {
+			return null;
+		}
+		try {
+			return snapshotFactory.load(ByteBuffer.wrap(snapshot, HEADER_LENGTH, snapshot.length - HEADER_LENGTH));
+		} catch (IOException | InvalidConfigException ex) {
+			// Stale or corrupt snapshot. Load the source instead
+			return null;
+		}
+	}
+	
+	/**
+	 * Takes a snapshot of a configuration loaded from the given source. If the configuration cannot be
+	 * captured, any existing snapshot is deleted.
+	 * 
+	 * @param configData the configuration
+	 * @param source the bytes of the configuration source
+	 * @throws IOException if an I/O error occurs writing or deleting the snapshot
+	 */
+	void save(C configData, byte[] source) throws IOException {
+		ByteBuffer values;
+		try {
+			values = snapshotFactory.write(configData);
+		} catch (IOException ex) {
+			// Contains values which cannot be captured
+			Files.deleteIfExists(snapshotPath);
+			return;
+		}
+		byte[] snapshot = new byte[HEADER_LENGTH + values.remaining()];
+		System.arraycopy(MAGIC, 0, snapshot, 0, MAGIC.length);
+		snapshot[MAGIC.length] = VERSION;
+		int hashStart = MAGIC.length + 1;
+		System.arraycopy(SnapshotConfigurationFactory.sha256(source), 0, snapshot, hashStart, HASH_LENGTH);
+		System.arraycopy(getFingerprint(), 0, snapshot, hashStart + HASH_LENGTH, HASH_LENGTH);
+		values.get(snapshot, HEADER_LENGTH, values.remaining());
+		Files.write(snapshotPath, snapshot);
+	}
+	
+}
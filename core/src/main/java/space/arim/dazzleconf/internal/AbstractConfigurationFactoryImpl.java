@@ -21,20 +21,36 @@ package space.arim.dazzleconf.internal;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import space.arim.dazzleconf.ConfigurationLayer;
 import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.LayeredConfigurationFactory;
 import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
+import space.arim.dazzleconf.internal.deprocessor.EmittingDeprocessor;
 import space.arim.dazzleconf.internal.deprocessor.MapDeprocessor;
+import space.arim.dazzleconf.internal.deprocessor.WritePlan;
 import space.arim.dazzleconf.internal.processor.DefaultsProcessor;
 import space.arim.dazzleconf.internal.processor.ProcessorBase;
 import space.arim.dazzleconf.internal.processor.MapProcessor;
+import space.arim.dazzleconf.internal.util.CharSequenceReader;
 
-public abstract class AbstractConfigurationFactoryImpl<C> extends BaseConfigurationFactoryImpl<C> {
+public abstract class AbstractConfigurationFactoryImpl<C> extends BaseConfigurationFactoryImpl<C>
+		implements LayeredConfigurationFactory<C> {
 
 	private final ConfigurationInfo<C> definition;
+	/** Lazily computed, may be computed more than once */
+	private volatile WritePlan writePlan;
 	
 	protected AbstractConfigurationFactoryImpl(Class<C> configClass, ConfigurationOptions options) {
 		super(configClass, options);
@@ -71,6 +87,82 @@ public abstract class AbstractConfigurationFactoryImpl<C> extends BaseConfigurat
 		return fromRawMap(loadMapFromReader(reader), auxiliaryEntries);
 	}
 	
+	/**
+	 * Loads a raw map directly from bytes, or returns {@code null} to decode the bytes to characters
+	 * and use {@link #loadMapFromReader(Reader)}
+	 * 
+	 * @param buffer the bytes, which the implementation may retain
+	 * @return the raw map of values, or {@code null} to read characters
+	 * @throws IOException if an I/O error occurs
+	 * @throws ConfigFormatSyntaxException if the configuration format syntax is incorrect
+	 */
+	protected Map<String, Object> loadMapFromBytes(ByteBuffer buffer) throws IOException, ConfigFormatSyntaxException {
+		return null;
+	}
+	
+	@Override
+	public C load(ByteBuffer buffer) throws IOException, InvalidConfigException {
+		Map<String, Object> rawMap = loadMapFromBytes(buffer.duplicate());
+		if (rawMap == null) {
+			return super.load(buffer);
+		}
+		return fromRawMap(rawMap);
+	}
+	
+	@Override
+	public C load(ByteBuffer buffer, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		getConfigClass().cast(Objects.requireNonNull(auxiliaryEntries, "auxiliaryEntries"));
+		Map<String, Object> rawMap = loadMapFromBytes(buffer.duplicate());
+		if (rawMap == null) {
+			return super.load(buffer, auxiliaryEntries);
+		}
+		return fromRawMap(rawMap, auxiliaryEntries);
+	}
+	
+	@Override
+	public C loadLayered(List<ConfigurationLayer> layers) throws IOException, InvalidConfigException {
+		return loadLayered0(layers, null);
+	}
+	
+	@Override
+	public C loadLayered(List<ConfigurationLayer> layers, C auxiliaryEntries)
+			throws IOException, InvalidConfigException {
+		getConfigClass().cast(Objects.requireNonNull(auxiliaryEntries, "auxiliaryEntries"));
+		return loadLayered0(layers, auxiliaryEntries);
+	}
+	
+	private C loadLayered0(List<ConfigurationLayer> layers, C auxiliaryEntries)
+			throws IOException, InvalidConfigException {
+		if (layers.isEmpty()) { // Implicit null check
+			throw new IllegalArgumentException("No layers");
+		}
+		List<Map<String, Object>> rawMaps = new ArrayList<>(layers.size());
+		List<String> layerNames = new ArrayList<>(layers.size());
+		for (ConfigurationLayer layer : layers) {
+			rawMaps.add(loadLayerMap(layer));
+			layerNames.add(layer.getName());
+		}
+		return createConfig(new MapProcessor<>(getOptions(), definition, rawMaps, layerNames, auxiliaryEntries));
+	}
+	
+	private Map<String, Object> loadLayerMap(ConfigurationLayer layer) throws IOException, InvalidConfigException {
+		Map<String, Object> rawMap = layer.getRawMap();
+		if (rawMap != null) {
+			return rawMap;
+		}
+		if (layer.getPath() != null) {
+			ByteBuffer buffer = readFile(layer.getPath());
+			rawMap = loadMapFromBytes(buffer.duplicate());
+			if (rawMap == null) {
+				rawMap = loadMapFromReader(new CharSequenceReader(decode(buffer)));
+			}
+		} else {
+			rawMap = loadMapFromReader(new CharSequenceReader(layer.getContent()));
+		}
+		// An empty document defines no entries
+		return (rawMap == null) ? Collections.emptyMap() : rawMap;
+	}
+	
 	// Visible for use by testing (SerialisationFactory)
 	/*private*/ C fromRawMap(Map<String, Object> rawMap) throws InvalidConfigException {
 		return fromRawMap(rawMap, null);
@@ -78,7 +170,16 @@ public abstract class AbstractConfigurationFactoryImpl<C> extends BaseConfigurat
 
 	// Visible for use by testing (SerialisationFactory)
 	C fromRawMap(Map<String, Object> rawMap, C auxiliaryValues) throws InvalidConfigException {
-		return new MapProcessor<>(getOptions(), definition, rawMap, auxiliaryValues).createConfig();
+		return createConfig(new MapProcessor<>(getOptions(), definition, rawMap, auxiliaryValues));
+	}
+	
+	private static <C> C createConfig(MapProcessor<C> processor) throws InvalidConfigException {
+		try {
+			return processor.createConfig();
+		} catch (UncheckedInvalidConfigException ex) {
+			// Raw maps which decode values upon access report invalid content this way
+			throw ex.getCause();
+		}
 	}
 	
 	/*
@@ -87,9 +188,47 @@ public abstract class AbstractConfigurationFactoryImpl<C> extends BaseConfigurat
 	
 	protected abstract void writeMapToWriter(Map<String, Object> config, Writer writer) throws IOException;
 
+	/**
+	 * Creates an emitter to stream configuration entries to the writer, or returns {@code null}
+	 * to write a map using {@link #writeMapToWriter(Map, Writer)}
+	 * 
+	 * @param writer the writer
+	 * @return the emitter, or {@code null} to write a map
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected ConfigurationEmitter createEmitter(Writer writer) throws IOException {
+		return null;
+	}
+
 	@Override
 	protected void writeToWriter(C configData, Writer writer) throws IOException {
-		writeMapToWriter(toRawMap(configData), writer);
+		ConfigurationEmitter emitter = createEmitter(writer);
+		if (emitter == null) {
+			writeMapToWriter(toRawMap(configData), writer);
+			return;
+		}
+		new EmittingDeprocessor<>(getWritePlan(), configData).emitTo(emitter);
+	}
+	
+	/**
+	 * Emits only the entries and sections at the given paths, see
+	 * {@link EmittingDeprocessor#emitSelectedTo(ConfigurationEmitter, Set)}
+	 * 
+	 * @param configData the configuration data
+	 * @param paths the full keys of the entries and sections to emit
+	 * @param emitter the emitter
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void emitSelectedEntries(C configData, Set<String> paths, ConfigurationEmitter emitter) throws IOException {
+		new EmittingDeprocessor<>(getWritePlan(), configData).emitSelectedTo(emitter, paths);
+	}
+	
+	private WritePlan getWritePlan() {
+		WritePlan writePlan = this.writePlan;
+		if (writePlan == null) {
+			this.writePlan = writePlan = WritePlan.of(definition);
+		}
+		return writePlan;
 	}
 	
 	// Visible for use by testing (SerialisationFactory)
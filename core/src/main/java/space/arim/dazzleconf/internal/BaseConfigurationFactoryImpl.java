@@ -27,20 +27,35 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
+import java.util.Set;
 
+import space.arim.dazzleconf.AuxiliaryKeys;
 import space.arim.dazzleconf.ConfigurationFactory;
 import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.util.CharSequenceReader;
+import space.arim.dazzleconf.internal.util.StringBuilderWriter;
 
 public abstract class BaseConfigurationFactoryImpl<C> implements ConfigurationFactory<C> {
 
 	private final Class<C> configClass;
 	private final ConfigurationOptions options;
+	/** Size of the last configuration written in memory, used to presize the next */
+	private volatile int writeSizeHint = 1024;
 	
 	protected BaseConfigurationFactoryImpl(Class<C> configClass, ConfigurationOptions options) {
 		Objects.requireNonNull(configClass, "configClazz");
@@ -63,6 +78,14 @@ public abstract class BaseConfigurationFactoryImpl<C> implements ConfigurationFa
 	
 	protected abstract Charset charset();
 	
+	protected int bufferSize() {
+		return 8192;
+	}
+	
+	protected long memoryMapThreshold() {
+		return 1L << 20;
+	}
+	
 	// Reading
 	
 	protected abstract C loadFromReader(Reader reader) throws IOException, InvalidConfigException;
@@ -70,14 +93,14 @@ public abstract class BaseConfigurationFactoryImpl<C> implements ConfigurationFa
 	protected abstract C loadFromReader(Reader reader, C auxiliaryEntries) throws IOException, InvalidConfigException;
 	
 	private C loadConfig(Reader reader) throws IOException, InvalidConfigException {
-		try (Reader reader0 = reader; BufferedReader buffReader = new BufferedReader(reader)) {
+		try (Reader reader0 = reader; BufferedReader buffReader = new BufferedReader(reader, bufferSize())) {
 
 			return loadFromReader(buffReader);
 		}
 	}
 	
 	private C loadConfig(Reader reader, C auxiliaryEntries) throws IOException, InvalidConfigException {
-		try (Reader reader0 = reader; BufferedReader buffReader = new BufferedReader(reader)) {
+		try (Reader reader0 = reader; BufferedReader buffReader = new BufferedReader(reader, bufferSize())) {
 
 			return loadFromReader(buffReader, auxiliaryEntries);
 		}
@@ -113,12 +136,133 @@ public abstract class BaseConfigurationFactoryImpl<C> implements ConfigurationFa
 		return loadConfig(toReader(inputStream), auxiliaryEntries);
 	}
 	
+	// Reading in memory
+	
+	@Override
+	public C load(ByteBuffer buffer) throws IOException, InvalidConfigException {
+		return load(decode(buffer));
+	}
+	
+	@Override
+	public C load(ByteBuffer buffer, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return load(decode(buffer), auxiliaryEntries);
+	}
+	
+	/**
+	 * Reads configuration data from characters already decoded in memory
+	 * 
+	 * @param content the configuration content
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code content} is null
+	 */
+	public C load(CharSequence content) throws IOException, InvalidConfigException {
+		// No buffering is needed for content already in memory
+		return loadFromReader(new CharSequenceReader(content)); // CharSequenceReader performs null check
+	}
+	
+	/**
+	 * Reads configuration data from characters already decoded in memory with the given auxiliary configuration
+	 * instance. See {@link #load(InputStream, Object)} for a description of auxiliary entries.
+	 * 
+	 * @param content the configuration content
+	 * @param auxiliaryEntries the auxiliary configuration instance
+	 * @return the read config data
+	 * @throws IOException if an I/O error occurs
+	 * @throws InvalidConfigException if the configuration is invalid. Where possible, more specific subclasses are thrown
+	 * @throws NullPointerException if {@code content} or {@code auxiliaryEntries} is null
+	 */
+	public C load(CharSequence content, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		configClass.cast(Objects.requireNonNull(auxiliaryEntries, "auxiliaryEntries"));
+		return loadFromReader(new CharSequenceReader(content), auxiliaryEntries); // CharSequenceReader performs null check
+	}
+	
+	// Reading files
+	
+	@Override
+	public C load(Path path) throws IOException, InvalidConfigException {
+		return load(readFile(path));
+	}
+	
+	@Override
+	public C load(Path path, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		configClass.cast(Objects.requireNonNull(auxiliaryEntries, "auxiliaryEntries"));
+		return load(readFile(path), auxiliaryEntries);
+	}
+	
+	ByteBuffer readFile(Path path) throws IOException {
+		return readFile(path, true);
+	}
+	
+	private ByteBuffer readFile(Path path, boolean mayMap) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) { // FileChannel.open performs null check
+			long size = fileChannel.size();
+			if (size >= Integer.MAX_VALUE) {
+				throw new IOException("File " + path + " is too large to be read as a configuration");
+			}
+			if (mayMap && size >= memoryMapThreshold()) {
+				// Decoded in place. The mapping remains valid after the channel is closed
+				return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			return readFully(fileChannel, (int) size);
+		}
+	}
+	
+	private ByteBuffer readFully(FileChannel fileChannel, int size) throws IOException {
+		// One extra byte detects the end of the file without growing the buffer
+		// Some files, such as those of special filesystems, report a size of zero
+		ByteBuffer buffer = ByteBuffer.allocate((size == 0) ? bufferSize() : size + 1);
+		while (fileChannel.read(buffer) != -1) {
+			if (!buffer.hasRemaining()) {
+				// The file grew while being read, or its size was not known
+				ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+				((Buffer) buffer).flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+		}
+		((Buffer) buffer).flip();
+		return buffer;
+	}
+	
+	CharSequence decode(ByteBuffer buffer) throws CharacterCodingException {
+		Charset charset = charset();
+		ByteBuffer source = buffer.duplicate(); // Implicit null check
+		if (source.hasArray()) {
+			byte[] array = source.array();
+			int offset = source.arrayOffset() + source.position();
+			int length = source.remaining();
+			if (charset.equals(StandardCharsets.ISO_8859_1)
+					|| isAsciiSuperset(charset) && isAscii(array, offset, length)) {
+				// Every byte is exactly one character
+				return new String(array, offset, length, StandardCharsets.ISO_8859_1);
+			}
+		}
+		// Reports malformed input, like the decoder used for channels
+		return charset.newDecoder().decode(source);
+	}
+	
+	private static boolean isAsciiSuperset(Charset charset) {
+		return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+	}
+	
+	private static boolean isAscii(byte[] array, int offset, int length) {
+		int end = offset + length;
+		for (int n = offset; n < end; n++) {
+			if (array[n] < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	// Writing
 	
 	protected abstract void writeToWriter(C configData, Writer writer) throws IOException;
 	
 	private void writeConfig(C configData, Writer writer) throws IOException {
-		try (Writer writer0 = writer; BufferedWriter buffWriter = new BufferedWriter(writer)) {
+		try (Writer writer0 = writer; BufferedWriter buffWriter = new BufferedWriter(writer, bufferSize())) {
 
 			writeToWriter(configData, buffWriter);
 		}
@@ -136,4 +280,107 @@ public abstract class BaseConfigurationFactoryImpl<C> implements ConfigurationFa
 		writeConfig(configData, new OutputStreamWriter(outputStream, charset())); // OutputStreamWriter performs null check
 	}
 	
+	// Writing in memory
+	
+	@Override
+	public ByteBuffer write(C configData) throws IOException {
+		configClass.cast(Objects.requireNonNull(configData, "configData"));
+		StringBuilderWriter writer = new StringBuilderWriter(writeSizeHint);
+		writeToWriter(configData, writer);
+		StringBuilder output = writer.getBuilder();
+		writeSizeHint = output.length();
+		return encode(output);
+	}
+	
+	// Writing files
+	
+	@Override
+	public void write(C configData, Path path) throws IOException {
+		writeFile(path, write(configData));
+	}
+	
+	@Override
+	public void writeAuxiliaryKeys(C configData, Path path) throws IOException {
+		writeAuxiliaryKeys0(configData, path, null);
+	}
+	
+	@Override
+	public void writeAuxiliaryKeys(C configData, Path path, ByteBuffer source) throws IOException {
+		writeAuxiliaryKeys0(configData, path, Objects.requireNonNull(source, "source"));
+	}
+	
+	/*
+	 * Source is null if the file has yet to be read
+	 */
+	private void writeAuxiliaryKeys0(C configData, Path path, ByteBuffer source) throws IOException {
+		configClass.cast(Objects.requireNonNull(configData, "configData"));
+		if (configData instanceof AuxiliaryKeys) {
+			Set<String> paths = ((AuxiliaryKeys) configData).getAuxiliaryKeyPaths();
+			if (!paths.isEmpty() && (source != null || Files.exists(path))) {
+				// Not mapped, since a file which is still mapped cannot be truncated on some platforms
+				CharSequence document = decode((source == null) ? readFile(path, false) : source);
+				CharSequence patched = patchDocument(document, configData, paths);
+				if (patched != null) {
+					writeFile(path, encode(patched));
+					return;
+				}
+			}
+		}
+		write(configData, path);
+	}
+	
+	/**
+	 * Inserts the entries at the given paths into the existing text of a configuration, or returns
+	 * {@code null} if the whole configuration should be written instead
+	 * 
+	 * @param document the existing text
+	 * @param configData the configuration data
+	 * @param paths the full keys of the entries and sections to insert
+	 * @return the patched text, or {@code null} to write the whole configuration
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected CharSequence patchDocument(CharSequence document, C configData, Set<String> paths) throws IOException {
+		return null;
+	}
+	
+	private static void writeFile(Path path, ByteBuffer output) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(path, // FileChannel.open performs null check
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (output.hasRemaining()) {
+				fileChannel.write(output);
+			}
+		}
+	}
+	
+	private ByteBuffer encode(CharSequence output) throws CharacterCodingException {
+		Charset charset = charset();
+		int maxChar;
+		if (charset.equals(StandardCharsets.ISO_8859_1)) {
+			maxChar = 0xFF;
+		} else if (isAsciiSuperset(charset)) {
+			maxChar = 0x7F;
+		} else {
+			maxChar = -1;
+		}
+		if (maxChar != -1) {
+			int length = output.length();
+			byte[] bytes = new byte[length];
+			boolean direct = true;
+			for (int n = 0; n < length; n++) {
+				char ch = output.charAt(n);
+				if (ch > maxChar) {
+					direct = false;
+					break;
+				}
+				bytes[n] = (byte) ch;
+			}
+			if (direct) {
+				// Every character is exactly one byte
+				return ByteBuffer.wrap(bytes);
+			}
+		}
+		// Reports unmappable characters, like the encoder used for channels
+		return charset.newEncoder().encode(CharBuffer.wrap(output));
+	}
+	
 }
@@ -20,6 +20,10 @@ package space.arim.dazzleconf.internal;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import space.arim.dazzleconf.annote.ConfValidator;
 import space.arim.dazzleconf.annote.SubSection;
@@ -56,6 +60,13 @@ class ConfEntryCreation {
 	private ConfEntry create0() {
 		if (method.getAnnotation(SubSection.class) != null) {
 			Class<?> configClass = method.getReturnType();
+			if (configClass == List.class || configClass == Set.class || configClass == Collection.class
+					|| configClass == Map.class) {
+				// Collection or map of sections
+				TypeNode type = TypeNode.ofSectionsReturnType(method, getQualifiedMethodName(),
+						(sectionClass) -> reader.createNestedReader(sectionClass).read());
+				return new SingleConfEntry(method, getValidator(), type);
+			}
 			if (!configClass.isInterface()) {
 				throw new IllDefinedConfigException(configClass.getName() + " is not an interface");
 			}
@@ -63,7 +74,8 @@ class ConfEntryCreation {
 			return new NestedConfEntry<>(method, nestedReader.read());
 		}
 		ValueValidator validator = getValidator();
-		return new SingleConfEntry(method, validator);
+		TypeNode type = TypeNode.ofReturnType(method, getQualifiedMethodName());
+		return new SingleConfEntry(method, validator, type);
 	}
 
 	private ValueValidator getValidator() {
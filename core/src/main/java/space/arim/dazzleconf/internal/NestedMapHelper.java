@@ -107,7 +107,7 @@ public class NestedMapHelper {
 				currentMap.put(keyParts[lastIndex], toCombine);
 				combineWith = (Map<String, Object>) value;
 			}
-			toCombine.putAll(combineWith);
+			mergeMaps(toCombine, combineWith);
 
 		} else {
 			Object previous = currentMap.put(keyParts[lastIndex], value);
@@ -117,6 +117,35 @@ public class NestedMapHelper {
 		}
 	}
 	
+	/*
+	 * Merges deeply, so that sections present in both maps are combined rather than replaced
+	 */
+	private static void mergeMaps(Map<String, Object> target, Map<String, Object> source) {
+		for (Map.Entry<String, Object> entry : source.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			Object existing = target.get(key);
+			Map<String, Object> existingMap = unwrapMap(existing);
+			Map<String, Object> valueMap = unwrapMap(value);
+			if (existingMap == null || valueMap == null) {
+				target.put(key, value);
+				continue;
+			}
+			Map<String, Object> merged = new LinkedHashMap<>(existingMap);
+			mergeMaps(merged, valueMap);
+			CommentedWrapper commentsFrom = (value instanceof CommentedWrapper) ? (CommentedWrapper) value
+					: (existing instanceof CommentedWrapper) ? (CommentedWrapper) existing : null;
+			target.put(key, (commentsFrom == null) ? merged : new CommentedWrapper(commentsFrom.getComments(), merged));
+		}
+	}
+	
+	private static Map<String, Object> unwrapMap(Object value) {
+		if (value instanceof CommentedWrapper) {
+			value = ((CommentedWrapper) value).getValue();
+		}
+		return (value instanceof Map) ? (Map<String, Object>) value : null;
+	}
+	
 	private static Map<String, Object> computeMapOrFail(Map<String, Object> currentMap, String keyPart) {
 		Object shouldBeMap = currentMap.computeIfAbsent(keyPart, (k) -> new LinkedHashMap<>());
 		if (shouldBeMap instanceof CommentedWrapper) {
@@ -142,6 +171,20 @@ public class NestedMapHelper {
 	 * @throws MissingKeyException if the key is not present in the map
 	 */
 	public Object get(String key) throws MissingKeyException {
+		Object value = find(key);
+		if (value == null) {
+			throw MissingKeyException.forKey(key);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gets a nested object at the specified key, or {@code null} if the key is not present
+	 * 
+	 * @param key the key
+	 * @return the object or {@code null} if not present
+	 */
+	public Object find(String key) {
 		Map<String, Object> currentMap = topLevelMap;
 		String[] keyParts = PERIOD_PATTERN.split(key);
 		int lastIndex = keyParts.length - 1;
@@ -149,14 +192,10 @@ public class NestedMapHelper {
 			String keyPart = keyParts[n];
 			currentMap = (Map<String, Object>) currentMap.get(keyPart);
 			if (currentMap == null) {
-				throw MissingKeyException.forKey(key);
+				return null;
 			}
 		}
-		Object value = currentMap.get(keyParts[lastIndex]);
-		if (value == null) {
-			throw MissingKeyException.forKey(key);
-		}
-		return value;
+		return currentMap.get(keyParts[lastIndex]);
 	}
 	
 }
@@ -19,19 +19,18 @@
 package space.arim.dazzleconf.internal;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 
-import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.validator.ValueValidator;
 
 public class SingleConfEntry extends ConfEntry {
 	
 	private final ValueValidator validator;
+	private transient final TypeNode type;
 	
-	SingleConfEntry(Method method, ValueValidator validator) {
+	SingleConfEntry(Method method, ValueValidator validator, TypeNode type) {
 		super(method);
 		this.validator = validator;
+		this.type = type;
 	}
 	
 	public ValueValidator getValidator() {
@@ -39,48 +38,12 @@ public class SingleConfEntry extends ConfEntry {
 	}
 	
 	/**
-	 * Assuming this entry's return type is a collection, get the element type
+	 * Gets the type tree of this entry's return type, resolved when the entry was created
 	 * 
-	 * @return the element type
-	 * @throws IllDefinedConfigException if the element type cannot be determined
+	 * @return the type tree
 	 */
-	public Class<?> getCollectionElementType() {
-		return getGenericReturnParameter(0);
-	}
-	
-	/**
-	 * Assuming this entry's return type is a map, get the key type
-	 * 
-	 * @return the key type
-	 * @throws IllDefinedConfigException if the key type cannot be determined
-	 */
-	public Class<?> getMapKeyType() {
-		return getGenericReturnParameter(0);
-	}
-	
-	/**
-	 * Assuming this entry's return type is a map, get the value type
-	 * 
-	 * @return the value type
-	 * @throws IllDefinedConfigException if the value type cannot be determined
-	 */
-	public Class<?> getMapValueType() {
-		return getGenericReturnParameter(1);
-	}
-	
-	private Class<?> getGenericReturnParameter(int index) {
-		Type genericReturnType = getMethod().getGenericReturnType();
-		if (genericReturnType instanceof ParameterizedType) {
-			ParameterizedType paramType = (ParameterizedType) genericReturnType;
-			Type[] typeArguments = paramType.getActualTypeArguments();
-
-			Type genericReturnParameter;
-			if (typeArguments.length > index && (genericReturnParameter = typeArguments[index]) instanceof Class) {
-				return (Class<?>) genericReturnParameter;
-			}
-		}
-		throw new IllDefinedConfigException(
-					"Unable to determine return type's generic parameters in " + getQualifiedMethodName());
+	public TypeNode getType() {
+		return type;
 	}
 	
 }
@@ -0,0 +1,301 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.processor.MapProcessor;
+
+/**
+ * Factory for snapshots of already validated configurations. Snapshots hold the raw values of a
+ * configuration in a compact form, which is format independent and need not be parsed. <br>
+ * <br>
+ * Since snapshots are only taken of valid configurations, validators are not applied when
+ * loading them. Values are still converted, so they are not subject to serialisers changing.
+ * 
+ * @author A248
+ *
+ * @param <C> the configuration type
+ */
+public final class SnapshotConfigurationFactory<C> extends AbstractConfigurationFactoryImpl<C> {
+
+	private static final byte TAG_STRING = 1;
+	private static final byte TAG_TRUE = 2;
+	private static final byte TAG_FALSE = 3;
+	private static final byte TAG_BYTE = 4;
+	private static final byte TAG_SHORT = 5;
+	private static final byte TAG_INT = 6;
+	private static final byte TAG_LONG = 7;
+	private static final byte TAG_FLOAT = 8;
+	private static final byte TAG_DOUBLE = 9;
+	private static final byte TAG_LIST = 10;
+	private static final byte TAG_MAP = 11;
+	
+	public SnapshotConfigurationFactory(Class<C> configClass, ConfigurationOptions options) {
+		super(configClass, options);
+	}
+	
+	/**
+	 * Computes a fingerprint of the configuration definition, covering the keys, types and annotations,
+	 * such as defaults and validators, of every entry. The validators and serialisers in the configuration
+	 * options are identified by the keys and types to which they apply. Their implementation classes are
+	 * deliberately excluded, since the names of lambda and other generated classes differ between runs.
+	 * 
+	 * @return the SHA-256 fingerprint
+	 */
+	public byte[] fingerprint() {
+		StringBuilder builder = new StringBuilder();
+		appendDefinition(builder, getDefinition());
+
+		ConfigurationOptions options = getOptions();
+		Set<String> validatedKeys = new TreeSet<>(options.getValidators().keySet());
+		Set<String> serialisedTypes = new TreeSet<>();
+		for (Class<?> targetType : options.getSerialisers().asMap().keySet()) {
+			serialisedTypes.add(targetType.getName());
+		}
+		builder.append(validatedKeys).append(serialisedTypes);
+		return sha256(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/*
+	 * Entries and annotations are sorted, since the order of reflected methods and annotations is unspecified
+	 */
+	private static void appendDefinition(StringBuilder builder, ConfigurationDefinition<?> definition) {
+		builder.append(definition.getConfigClass().getName()).append('{');
+		List<String> entries = new ArrayList<>();
+		for (ConfEntry entry : definition.getEntries()) {
+			Method method = entry.getMethod();
+			List<String> annotations = new ArrayList<>();
+			for (Annotation annotation : method.getAnnotations()) {
+				annotations.add(annotation.toString());
+			}
+			Collections.sort(annotations);
+
+			StringBuilder entryBuilder = new StringBuilder();
+			entryBuilder.append(entry.getKey()).append(':').append(method.getGenericReturnType().getTypeName())
+					.append(annotations);
+			if (entry instanceof NestedConfEntry) {
+				appendDefinition(entryBuilder, ((NestedConfEntry<?>) entry).getDefinition());
+			} else {
+				appendSections(entryBuilder, ((SingleConfEntry) entry).getType());
+			}
+			entries.add(entryBuilder.toString());
+		}
+		Collections.sort(entries);
+		for (String entry : entries) {
+			builder.append(entry).append(';');
+		}
+		builder.append('}');
+	}
+	
+	private static void appendSections(StringBuilder builder, TypeNode type) {
+		if (type.isSection()) {
+			appendDefinition(builder, type.getSectionDefinition());
+		} else if (type.isCollection()) {
+			appendSections(builder, type.getElementType());
+		} else if (type.isMap()) {
+			appendSections(builder, type.getKeyType());
+			appendSections(builder, type.getValueType());
+		}
+	}
+	
+	/**
+	 * Computes the SHA-256 hash of the given bytes
+	 * 
+	 * @param bytes the bytes
+	 * @return the hash
+	 */
+	public static byte[] sha256(byte[] bytes) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(bytes);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 is required of every Java platform", ex);
+		}
+	}
+	
+	/*
+	 * Reading
+	 */
+	
+	@Override
+	C fromRawMap(Map<String, Object> rawMap, C auxiliaryValues) throws InvalidConfigException {
+		return new MapProcessor<>(getOptions(), getDefinition(), rawMap, auxiliaryValues, false).createConfig();
+	}
+	
+	@Override
+	protected Charset charset() {
+		// Each character is exactly one byte
+		return StandardCharsets.ISO_8859_1;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	protected Map<String, Object> loadMapFromBytes(ByteBuffer buffer) throws ConfigFormatSyntaxException {
+		try {
+			Object rawMap = readValue(buffer);
+			if (!(rawMap instanceof Map) || buffer.hasRemaining()) {
+				throw new ConfigFormatSyntaxException("Snapshot is corrupt");
+			}
+			return (Map<String, Object>) rawMap;
+		} catch (RuntimeException ex) {
+			throw new ConfigFormatSyntaxException("Snapshot is corrupt", ex);
+		}
+	}
+	
+	@Override
+	protected Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException {
+		StringBuilder content = new StringBuilder();
+		char[] chars = new char[bufferSize()];
+		int read;
+		while ((read = reader.read(chars)) != -1) {
+			content.append(chars, 0, read);
+		}
+		return loadMapFromBytes(StandardCharsets.ISO_8859_1.encode(content.toString()));
+	}
+	
+	private static Object readValue(ByteBuffer buffer) {
+		byte tag = buffer.get();
+		switch (tag) {
+		case TAG_STRING: {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+		case TAG_TRUE:
+			return Boolean.TRUE;
+		case TAG_FALSE:
+			return Boolean.FALSE;
+		case TAG_BYTE:
+			return buffer.get();
+		case TAG_SHORT:
+			return buffer.getShort();
+		case TAG_INT:
+			return buffer.getInt();
+		case TAG_LONG:
+			return buffer.getLong();
+		case TAG_FLOAT:
+			return buffer.getFloat();
+		case TAG_DOUBLE:
+			return buffer.getDouble();
+		case TAG_LIST: {
+			int size = buffer.getInt();
+			List<Object> list = new ArrayList<>(Math.min(size, buffer.remaining()));
+			for (int n = 0; n < size; n++) {
+				list.add(readValue(buffer));
+			}
+			return list;
+		}
+		case TAG_MAP: {
+			int size = buffer.getInt();
+			Map<Object, Object> map = new LinkedHashMap<>(Math.min(size, buffer.remaining()));
+			for (int n = 0; n < size; n++) {
+				Object key = readValue(buffer);
+				map.put(key, readValue(buffer));
+			}
+			return map;
+		}
+		default:
+			throw new IllegalArgumentException("Unknown tag " + tag);
+		}
+	}
+	
+	/*
+	 * Writing
+	 */
+	
+	@Override
+	protected void writeMapToWriter(Map<String, Object> config, Writer writer) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (DataOutputStream dataOutput = new DataOutputStream(output)) {
+			writeValue(dataOutput, config);
+		}
+		writer.write(new String(output.toByteArray(), StandardCharsets.ISO_8859_1));
+	}
+	
+	private static void writeValue(DataOutputStream output, Object value) throws IOException {
+		if (value instanceof String || value instanceof Character) {
+			byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+			output.writeByte(TAG_STRING);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		} else if (value instanceof Boolean) {
+			output.writeByte(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+		} else if (value instanceof Byte) {
+			output.writeByte(TAG_BYTE);
+			output.writeByte((Byte) value);
+		} else if (value instanceof Short) {
+			output.writeByte(TAG_SHORT);
+			output.writeShort((Short) value);
+		} else if (value instanceof Integer) {
+			output.writeByte(TAG_INT);
+			output.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			output.writeByte(TAG_LONG);
+			output.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			output.writeByte(TAG_FLOAT);
+			output.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			output.writeByte(TAG_DOUBLE);
+			output.writeDouble((Double) value);
+		} else if (value instanceof Collection) {
+			Collection<?> collection = (Collection<?>) value;
+			output.writeByte(TAG_LIST);
+			output.writeInt(collection.size());
+			for (Object element : collection) {
+				writeValue(output, element);
+			}
+		} else if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			output.writeByte(TAG_MAP);
+			output.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(output, entry.getKey());
+				writeValue(output, entry.getValue());
+			}
+		} else {
+			// Includes arbitrary precision numbers, whose exact type would be lost
+			throw new IOException("Cannot take a snapshot of value " + value + " of type "
+					+ ((value == null) ? null : value.getClass().getName()));
+		}
+	}
+	
+}
@@ -0,0 +1,243 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+
+/**
+ * Node in a tree of generic types, resolved once from the return type of a config entry.
+ * Collections and maps have child nodes for their type arguments. All other types are leaves. <br>
+ * <br>
+ * For collections and maps of {@code @SubSection}s, the leaves other than map keys are section nodes,
+ * each holding the configuration definition shared by all its elements.
+ * 
+ * @author A248
+ *
+ */
+public final class TypeNode {
+
+	private final Class<?> rawType;
+	private final TypeNode[] arguments;
+	/** Nonnull only for section nodes */
+	private final ConfigurationDefinition<?> sectionDefinition;
+	
+	private static final TypeNode[] NO_ARGUMENTS = new TypeNode[] {};
+	
+	private TypeNode(Class<?> rawType, TypeNode[] arguments, ConfigurationDefinition<?> sectionDefinition) {
+		this.rawType = rawType;
+		this.arguments = arguments;
+		this.sectionDefinition = sectionDefinition;
+	}
+	
+	private TypeNode(Class<?> rawType, TypeNode[] arguments) {
+		this(rawType, arguments, null);
+	}
+	
+	/**
+	 * Resolves the type tree of the return type of a method
+	 * 
+	 * @param method the method
+	 * @param qualifiedMethodName the qualified method name, used in exception messages
+	 * @return the type tree
+	 * @throws IllDefinedConfigException if the type arguments of a collection or map cannot be determined
+	 */
+	static TypeNode ofReturnType(Method method, String qualifiedMethodName) {
+		Type genericReturnType = method.getGenericReturnType();
+		if (genericReturnType instanceof ParameterizedType) {
+			return ofParameterizedType((ParameterizedType) genericReturnType, qualifiedMethodName, null);
+		}
+		return ofClass(method.getReturnType(), qualifiedMethodName, null);
+	}
+	
+	/**
+	 * Resolves the type tree of the return type of a method which is a collection or map of sections
+	 * 
+	 * @param method the method
+	 * @param qualifiedMethodName the qualified method name, used in exception messages
+	 * @param sectionReader reads the definition of each section type
+	 * @return the type tree
+	 * @throws IllDefinedConfigException if the return type is not a collection or map of config interfaces
+	 */
+	static TypeNode ofSectionsReturnType(Method method, String qualifiedMethodName,
+			Function<Class<?>, ConfigurationDefinition<?>> sectionReader) {
+		Type genericReturnType = method.getGenericReturnType();
+		if (argumentCount(method.getReturnType()) == 0 || !(genericReturnType instanceof ParameterizedType)) {
+			throw new IllDefinedConfigException(qualifiedMethodName + " is not a collection or map of sections");
+		}
+		return ofParameterizedType((ParameterizedType) genericReturnType, qualifiedMethodName, sectionReader);
+	}
+	
+	private static TypeNode ofType(Type type, String qualifiedMethodName,
+			Function<Class<?>, ConfigurationDefinition<?>> sectionReader) {
+		if (type instanceof Class) {
+			return ofClass((Class<?>) type, qualifiedMethodName, sectionReader);
+		}
+		if (type instanceof ParameterizedType) {
+			return ofParameterizedType((ParameterizedType) type, qualifiedMethodName, sectionReader);
+		}
+		throw new IllDefinedConfigException(
+				"Unable to determine return type's generic parameters in " + qualifiedMethodName
+				+ ", found unsupported type argument " + type);
+	}
+	
+	private static TypeNode ofClass(Class<?> clazz, String qualifiedMethodName,
+			Function<Class<?>, ConfigurationDefinition<?>> sectionReader) {
+		if (argumentCount(clazz) != 0) {
+			throw new IllDefinedConfigException(
+					"Unable to determine return type's generic parameters in " + qualifiedMethodName);
+		}
+		if (sectionReader != null) {
+			if (!clazz.isInterface()) {
+				throw new IllDefinedConfigException(
+						"Section type " + clazz.getName() + " in " + qualifiedMethodName + " is not an interface");
+			}
+			return new TypeNode(clazz, NO_ARGUMENTS, sectionReader.apply(clazz));
+		}
+		return new TypeNode(clazz, NO_ARGUMENTS);
+	}
+	
+	private static TypeNode ofParameterizedType(ParameterizedType paramType, String qualifiedMethodName,
+			Function<Class<?>, ConfigurationDefinition<?>> sectionReader) {
+		Class<?> rawType = (Class<?>) paramType.getRawType();
+		int argumentCount = argumentCount(rawType);
+		if (argumentCount == 0) {
+			if (sectionReader != null) {
+				throw new IllDefinedConfigException(
+						"Section type " + paramType + " in " + qualifiedMethodName + " may not be generic");
+			}
+			// Other generic types are left to value serialisers
+			return new TypeNode(rawType, NO_ARGUMENTS);
+		}
+		Type[] typeArguments = paramType.getActualTypeArguments();
+		TypeNode[] arguments = new TypeNode[argumentCount];
+		for (int n = 0; n < argumentCount; n++) {
+			// Map keys are never sections
+			boolean mapKey = argumentCount == 2 && n == 0;
+			arguments[n] = ofType(typeArguments[n], qualifiedMethodName, (mapKey) ? null : sectionReader);
+		}
+		return new TypeNode(rawType, arguments);
+	}
+	
+	private static int argumentCount(Class<?> rawType) {
+		if (rawType == List.class || rawType == Set.class || rawType == Collection.class) {
+			return 1;
+		}
+		if (rawType == Map.class) {
+			return 2;
+		}
+		return 0;
+	}
+	
+	/**
+	 * Gets the raw type of this node
+	 * 
+	 * @return the raw type
+	 */
+	public Class<?> getRawType() {
+		return rawType;
+	}
+	
+	/**
+	 * Whether this node is a {@code List}, {@code Set}, or {@code Collection}
+	 * 
+	 * @return true if a collection
+	 */
+	public boolean isCollection() {
+		return arguments.length == 1;
+	}
+	
+	/**
+	 * Whether this node is a {@code Map}
+	 * 
+	 * @return true if a map
+	 */
+	public boolean isMap() {
+		return arguments.length == 2;
+	}
+	
+	/**
+	 * Whether this node is a configuration section
+	 * 
+	 * @return true if a section
+	 */
+	public boolean isSection() {
+		return sectionDefinition != null;
+	}
+	
+	/**
+	 * Assuming this node is a section, gets the definition of the section
+	 * 
+	 * @return the section definition
+	 */
+	public ConfigurationDefinition<?> getSectionDefinition() {
+		return sectionDefinition;
+	}
+	
+	/**
+	 * Assuming this node is a collection, gets the element type
+	 * 
+	 * @return the element type
+	 */
+	public TypeNode getElementType() {
+		return arguments[0];
+	}
+	
+	/**
+	 * Assuming this node is a map, gets the key type
+	 * 
+	 * @return the key type
+	 */
+	public TypeNode getKeyType() {
+		return arguments[0];
+	}
+	
+	/**
+	 * Assuming this node is a map, gets the value type
+	 * 
+	 * @return the value type
+	 */
+	public TypeNode getValueType() {
+		return arguments[1];
+	}
+
+	@Override
+	public String toString() {
+		if (arguments.length == 0) {
+			return rawType.getName();
+		}
+		StringBuilder builder = new StringBuilder(rawType.getName()).append('<');
+		for (int n = 0; n < arguments.length; n++) {
+			if (n != 0) {
+				builder.append(", ");
+			}
+			builder.append(arguments[n]);
+		}
+		return builder.append('>').toString();
+	}
+	
+}
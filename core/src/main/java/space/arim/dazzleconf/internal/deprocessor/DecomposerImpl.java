@@ -67,18 +67,26 @@ class DecomposerImpl implements Decomposer {
 		if (clazz.isEnum()) {
 			return ((Enum<?>) value).name();
 		}
-		return fromSerialiser(getSerialiser(clazz), value);
+		return fromSerialiser(getSerialiser(clazz, value), value);
 	}
 	
-	private <T> ValueSerialiser<T> getSerialiser(Class<T> clazz) {
-		ValueSerialiser<T> serialiser  = serialisers.getSerialiser(clazz);
+	private <T> ValueSerialiser<? super T> getSerialiser(Class<T> clazz, T value) {
+		ValueSerialiser<? super T> serialiser = serialisers.getSerialiserForHierarchy(clazz);
+		if (serialiser == null) {
+			// The runtime type of the value may have a serialiser, even if the specified type does not
+			@SuppressWarnings("unchecked")
+			Class<T> runtimeType = (Class<T>) value.getClass();
+			if (runtimeType != clazz) {
+				serialiser = serialisers.getSerialiserForHierarchy(runtimeType);
+			}
+		}
 		if (serialiser == null) {
 			throw new IllDefinedConfigException("No ValueSerialiser for " + clazz + " at entry " + key);
 		}
 		return serialiser;
 	}
 	
-	private <T> Object fromSerialiser(ValueSerialiser<T> serialiser, T value) {
+	private <T> Object fromSerialiser(ValueSerialiser<? super T> serialiser, T value) {
 		Object serialised = serialiser.serialise(value, this);
 		if (serialised == null) {
 			throw new IllDefinedConfigException(
@@ -18,12 +18,15 @@
  */
 package space.arim.dazzleconf.internal.deprocessor;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
+import space.arim.dazzleconf.internal.ConfigurationDefinition;
 import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.internal.TypeNode;
 import space.arim.dazzleconf.serialiser.Decomposer;
 
 class Decomposition {
@@ -39,33 +42,53 @@ class Decomposition {
 	}
 	
 	Object deprocessObject() {
-		return deprocessObjectWithGoal(entry.getMethod().getReturnType());
+		return decompose(entry.getType(), value);
 	}
 	
-	private <G> Object deprocessObjectWithGoal(Class<G> goal) {
-		if (goal == List.class || goal == Set.class || goal == Collection.class) {
-			Class<?> elementType = entry.getCollectionElementType();
-			return decomposeCollectionCast(elementType);
+	/*
+	 * Walks the precomputed type tree, mirroring Composition
+	 */
+	
+	private Object decompose(TypeNode type, Object value) {
+		if (type.isSection()) {
+			return decomposeSection(type.getSectionDefinition(), value);
 		}
-		if (goal == Map.class) {
-			Class<?> keyType = entry.getMapKeyType();
-			Class<?> valueType = entry.getMapValueType();
-			return decomposeMapCast(keyType, valueType);
+		if (type.isCollection()) {
+			return decomposeCollection(type.getElementType(), (Collection<?>) value);
 		}
-
+		if (type.isMap()) {
+			return decomposeMap(type.getKeyType(), type.getValueType(), (Map<?, ?>) value);
+		}
+		return decomposeCast(type.getRawType(), value);
+	}
+	
+	private static <N> Map<String, Object> decomposeSection(ConfigurationDefinition<N> definition, Object value) {
+		N section = definition.getConfigClass().cast(value);
+		return new MapDeprocessor<>(definition, section).deprocessAndGetResult();
+	}
+	
+	private <G> Object decomposeCast(Class<G> goal, Object value) {
 		@SuppressWarnings("unchecked")
 		G castedValue = (G) value; // a class.cast call breaks primitives
 		return decomposer.decompose(goal, castedValue);
 	}
 	
-	@SuppressWarnings("unchecked")
-	private <E> Collection<Object> decomposeCollectionCast(Class<E> elementType) {
-		return decomposer.decomposeCollection(elementType, (Collection<E>) value);
+	private Collection<Object> decomposeCollection(TypeNode elementType, Collection<?> collection) {
+		List<Object> serialised = new ArrayList<>(collection.size());
+		for (Object element : collection) {
+			serialised.add(decompose(elementType, element));
+		}
+		return serialised;
 	}
 	
-	@SuppressWarnings("unchecked")
-	private <K, V> Map<Object, Object> decomposeMapCast(Class<K> keyType, Class<V> valueType) {
-		return decomposer.decomposeMap(keyType, valueType, (Map<K, V>) value);
+	private Map<Object, Object> decomposeMap(TypeNode keyType, TypeNode valueType, Map<?, ?> map) {
+		Map<Object, Object> serialised = new LinkedHashMap<>(map.size());
+		for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
+			serialised.put(
+					decompose(keyType, mapEntry.getKey()),
+					decompose(valueType, mapEntry.getValue()));
+		}
+		return serialised;
 	}
 	
 }
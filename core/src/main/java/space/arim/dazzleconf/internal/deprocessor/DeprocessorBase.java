@@ -48,11 +48,17 @@ abstract class DeprocessorBase<C> {
 	
 	void deprocess() {
 		for (ConfEntry entry : definition.getEntries()) {
-			Object value = configDataInvoker.getEntryValue(entry);
 			if (entry instanceof NestedConfEntry) {
-				continueNestedCast((NestedConfEntry<?>) entry, value);
+				continueNestedCast((NestedConfEntry<?>) entry, configDataInvoker.getEntryValue(entry));
+				continue;
+			}
+			SingleConfEntry singleEntry = (SingleConfEntry) entry;
+			Object sourceValue = configDataInvoker.getSourceValue(singleEntry);
+			if (sourceValue != null) {
+				// Unchanged since loading, so the source value can be written back as is
+				finishSingle(singleEntry, sourceValue);
 			} else {
-				deprocessSingleEntry((SingleConfEntry) entry, value);
+				deprocessSingleEntry(singleEntry, configDataInvoker.getEntryValue(entry));
 			}
 		}
 	}
@@ -0,0 +1,153 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.deprocessor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
+import space.arim.dazzleconf.internal.util.ConfigurationInvoker;
+
+/**
+ * Deprocessor which pushes entries directly to a {@link ConfigurationEmitter}, following a {@link WritePlan},
+ * instead of building a map
+ * 
+ * @author A248
+ *
+ * @param <C> the type of the configuration
+ */
+public class EmittingDeprocessor<C> {
+
+	private final WritePlan plan;
+	private final C configData;
+	
+	public EmittingDeprocessor(WritePlan plan, C configData) {
+		this.plan = plan;
+		this.configData = configData;
+	}
+	
+	/**
+	 * Emits all entries, then finishes the emitter
+	 * 
+	 * @param emitter the emitter
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void emitTo(ConfigurationEmitter emitter) throws IOException {
+		emitSteps(plan.steps(), new Invokers(plan.rootSource(), configData), emitter);
+		emitter.finish();
+	}
+	
+	/**
+	 * Emits only the entries and sections at the given paths, then finishes the emitter. Sections
+	 * containing selected entries are begun and ended around them, and the keys of other entries
+	 * and sections are passed to {@link ConfigurationEmitter#omitKey(String)}.
+	 * 
+	 * @param emitter the emitter
+	 * @param paths the full keys of the entries and sections to emit
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void emitSelectedTo(ConfigurationEmitter emitter, Set<String> paths) throws IOException {
+		emitSelectedSteps(plan.steps(), new Invokers(plan.rootSource(), configData), emitter, paths, "");
+		emitter.finish();
+	}
+	
+	private static void emitSelectedSteps(Iterable<WritePlan.Step> steps, Invokers invokers,
+			ConfigurationEmitter emitter, Set<String> paths, String prefix) throws IOException {
+		for (WritePlan.Step step : steps) {
+			if (step instanceof WritePlan.SingleStep) {
+				WritePlan.SingleStep single = (WritePlan.SingleStep) step;
+				if (paths.contains(prefix + single.simpleKey)) {
+					emitSteps(Collections.singletonList(single), invokers, emitter);
+				} else {
+					emitter.omitKey(single.simpleKey);
+				}
+			} else {
+				WritePlan.SectionStep section = (WritePlan.SectionStep) step;
+				String sectionPath = prefix + section.simpleKey;
+				if (paths.contains(sectionPath)) {
+					emitSteps(Collections.singletonList(section), invokers, emitter);
+				} else if (containsDescendant(paths, sectionPath + '.')) {
+					emitter.beginSection(section.simpleKey, section.comments);
+					emitSelectedSteps(section.steps, invokers, emitter, paths, sectionPath + '.');
+					emitter.endSection();
+				} else {
+					emitter.omitKey(section.simpleKey);
+				}
+			}
+		}
+	}
+	
+	private static boolean containsDescendant(Set<String> paths, String sectionPrefix) {
+		for (String path : paths) {
+			if (path.startsWith(sectionPrefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static void emitSteps(Iterable<WritePlan.Step> steps, Invokers invokers, ConfigurationEmitter emitter)
+			throws IOException {
+		for (WritePlan.Step step : steps) {
+			if (step instanceof WritePlan.SingleStep) {
+				WritePlan.SingleStep single = (WritePlan.SingleStep) step;
+				ConfigurationInvoker<?> invoker = invokers.get(single.source);
+				Object postValue = invoker.getSourceValue(single.entry);
+				if (postValue == null) {
+					Object value = invoker.getEntryValue(single.entry);
+					DecomposerImpl decomposer = new DecomposerImpl(single.entry.getKey(), single.source.serialisers);
+					postValue = new Decomposition(single.entry, value, decomposer).deprocessObject();
+				}
+				emitter.emitEntry(single.simpleKey, postValue, single.entry.getComments());
+
+			} else {
+				WritePlan.SectionStep section = (WritePlan.SectionStep) step;
+				emitter.beginSection(section.simpleKey, section.comments);
+				emitSteps(section.steps, invokers, emitter);
+				emitter.endSection();
+			}
+		}
+	}
+	
+	/**
+	 * Invokers of the configuration instances of each source, obtained once per emission
+	 */
+	private static final class Invokers {
+		
+		private final Map<WritePlan.Source, ConfigurationInvoker<?>> invokers = new IdentityHashMap<>();
+		
+		Invokers(WritePlan.Source rootSource, Object configData) {
+			invokers.put(rootSource, new ConfigurationInvoker<>(configData));
+		}
+		
+		ConfigurationInvoker<?> get(WritePlan.Source source) {
+			ConfigurationInvoker<?> invoker = invokers.get(source);
+			if (invoker == null) {
+				Object childConf = get(source.parent).getEntryValue(source.entry);
+				invoker = new ConfigurationInvoker<>(childConf);
+				invokers.put(source, invoker);
+			}
+			return invoker;
+		}
+	}
+	
+}
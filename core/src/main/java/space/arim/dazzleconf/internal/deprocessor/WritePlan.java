@@ -0,0 +1,216 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.deprocessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+import space.arim.dazzleconf.internal.ConfEntry;
+import space.arim.dazzleconf.internal.ConfigurationDefinition;
+import space.arim.dazzleconf.internal.NestedConfEntry;
+import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.internal.util.ImmutableCollections;
+import space.arim.dazzleconf.serialiser.ValueSerialiserMap;
+
+/**
+ * Order in which the entries of a configuration definition are emitted, precomputed so that entries
+ * whose keys share a parent (such as {@code section.first} and {@code section.second}) are grouped into
+ * a single section. This is the same grouping which {@link MapDeprocessor} achieves by merging maps. <br>
+ * <br>
+ * The entries of nested configurations are merged into the same tree, so that a nested section and
+ * the dotted keys of its parent which share a prefix are emitted as one section. Each entry records the
+ * {@link Source} configuration instance it is read from.
+ * 
+ * @author A248
+ *
+ */
+public final class WritePlan {
+
+	private final Source rootSource;
+	private final List<Step> steps;
+	
+	private static final Pattern PERIOD_PATTERN = Pattern.compile(".", Pattern.LITERAL);
+	
+	private WritePlan(Source rootSource, List<Step> steps) {
+		this.rootSource = rootSource;
+		this.steps = steps;
+	}
+	
+	/**
+	 * Computes the write plan for a configuration definition
+	 * 
+	 * @param definition the definition
+	 * @return the write plan
+	 * @throws IllDefinedConfigException if an entry's key conflicts with the parent key of another entry
+	 */
+	public static WritePlan of(ConfigurationDefinition<?> definition) {
+		GroupBuilder root = new GroupBuilder("");
+		Source rootSource = new Source(null, null, definition.getSerialisers());
+		addEntries(root, definition, rootSource);
+		return new WritePlan(rootSource, root.buildSteps());
+	}
+	
+	private static void addEntries(GroupBuilder group, ConfigurationDefinition<?> definition, Source source) {
+		for (ConfEntry entry : definition.getEntries()) {
+			String[] keyParts = PERIOD_PATTERN.split(entry.getKey());
+			int lastIndex = keyParts.length - 1;
+
+			GroupBuilder parentGroup = group;
+			for (int n = 0; n < lastIndex; n++) {
+				parentGroup = parentGroup.getOrCreateGroup(keyParts[n]);
+			}
+			String simpleKey = keyParts[lastIndex];
+			if (entry instanceof NestedConfEntry) {
+				NestedConfEntry<?> nestedEntry = (NestedConfEntry<?>) entry;
+				ConfigurationDefinition<?> nestedDefinition = nestedEntry.getDefinition();
+				GroupBuilder sectionGroup = parentGroup.getOrCreateGroup(simpleKey);
+				if (!entry.getComments().isEmpty()) {
+					sectionGroup.comments = entry.getComments();
+				}
+				addEntries(sectionGroup, nestedDefinition,
+						new Source(source, nestedEntry, nestedDefinition.getSerialisers()));
+			} else {
+				parentGroup.addSingle(simpleKey, (SingleConfEntry) entry, source);
+			}
+		}
+	}
+	
+	Source rootSource() {
+		return rootSource;
+	}
+	
+	List<Step> steps() {
+		return steps;
+	}
+	
+	private static final class GroupBuilder {
+		
+		final String simpleKey;
+		final List<Object> steps = new ArrayList<>(); // contains Step or GroupBuilder
+		List<String> comments = ImmutableCollections.emptyList();
+		
+		GroupBuilder(String simpleKey) {
+			this.simpleKey = simpleKey;
+		}
+		
+		GroupBuilder getOrCreateGroup(String simpleKey) {
+			for (Object step : steps) {
+				if (step instanceof GroupBuilder && ((GroupBuilder) step).simpleKey.equals(simpleKey)) {
+					return (GroupBuilder) step;
+				}
+				if (step instanceof SingleStep && ((SingleStep) step).simpleKey.equals(simpleKey)) {
+					throw conflictingKey(simpleKey);
+				}
+			}
+			GroupBuilder group = new GroupBuilder(simpleKey);
+			steps.add(group);
+			return group;
+		}
+		
+		void addSingle(String simpleKey, SingleConfEntry entry, Source source) {
+			for (Object step : steps) {
+				if (step instanceof GroupBuilder && ((GroupBuilder) step).simpleKey.equals(simpleKey)
+						|| step instanceof SingleStep && ((SingleStep) step).simpleKey.equals(simpleKey)) {
+					throw conflictingKey(simpleKey);
+				}
+			}
+			steps.add(new SingleStep(simpleKey, entry, source));
+		}
+		
+		private IllDefinedConfigException conflictingKey(String simpleKey) {
+			return new IllDefinedConfigException("Key " + simpleKey + " is used more than once, "
+					+ "or both for a value and a section");
+		}
+		
+		List<Step> buildSteps() {
+			List<Step> built = new ArrayList<>(steps.size());
+			for (Object step : steps) {
+				if (step instanceof GroupBuilder) {
+					GroupBuilder group = (GroupBuilder) step;
+					built.add(new SectionStep(group.simpleKey, group.comments, group.buildSteps()));
+				} else {
+					built.add((Step) step);
+				}
+			}
+			return ImmutableCollections.listOf(built);
+		}
+	}
+	
+	/**
+	 * The configuration instance from which entries are read: either the root instance, or a nested
+	 * instance obtained from an entry of its parent source
+	 */
+	static final class Source {
+		
+		/** Null for the root */
+		final Source parent;
+		/** Null for the root */
+		final NestedConfEntry<?> entry;
+		final ValueSerialiserMap serialisers;
+		
+		Source(Source parent, NestedConfEntry<?> entry, ValueSerialiserMap serialisers) {
+			this.parent = parent;
+			this.entry = entry;
+			this.serialisers = serialisers;
+		}
+	}
+	
+	/*
+	 * Steps
+	 */
+	
+	abstract static class Step {
+		
+	}
+	
+	/**
+	 * Emits a single entry
+	 */
+	static final class SingleStep extends Step {
+		
+		final String simpleKey;
+		final SingleConfEntry entry;
+		final Source source;
+		
+		SingleStep(String simpleKey, SingleConfEntry entry, Source source) {
+			this.simpleKey = simpleKey;
+			this.entry = entry;
+			this.source = source;
+		}
+	}
+	
+	/**
+	 * Emits a section, whose contents are given by further steps
+	 */
+	static final class SectionStep extends Step {
+		
+		final String simpleKey;
+		final List<String> comments;
+		final List<Step> steps;
+		
+		SectionStep(String simpleKey, List<String> comments, List<Step> steps) {
+			this.simpleKey = simpleKey;
+			this.comments = comments;
+			this.steps = steps;
+		}
+	}
+	
+}
@@ -19,26 +19,45 @@
 package space.arim.dazzleconf.internal.processor;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
+
+import space.arim.dazzleconf.ConfigurationOptions;
 
 import space.arim.dazzleconf.annote.CollectionSize;
+import space.arim.dazzleconf.annote.CompactCollection;
 import space.arim.dazzleconf.annote.IntegerRange;
 import space.arim.dazzleconf.annote.NumericRange;
 import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+import space.arim.dazzleconf.internal.ConfigurationDefinition;
 import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.internal.TypeNode;
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 import space.arim.dazzleconf.serialiser.FlexibleType;
 import space.arim.dazzleconf.serialiser.FlexibleTypeFunction;
 
 class Composition {
 
+	private final ConfigurationOptions options;
 	private final SingleConfEntry entry;
 	private final FlexibleType flexType;
 	
-	Composition(SingleConfEntry entry, FlexibleType flexType) {
+	/**
+	 * Below this many section elements, parallel processing is not worth the overhead
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+	
+	Composition(ConfigurationOptions options, SingleConfEntry entry, FlexibleType flexType) {
+		this.options = options;
 		this.entry = entry;
 		this.flexType = flexType;
 	}
@@ -72,47 +91,162 @@ class Composition {
 		 * Same goes for Collections and Maps with @CollectionSize.
 		 * Collections and Maps also need to call getList/getSet/getCollection/getMap.
 		 */
-		if (goal == List.class || goal == Set.class || goal == Collection.class) {
-			Class<?> elementType = entry.getCollectionElementType();
-			return getCollection(goal, elementType);
+		TypeNode type = entry.getType();
+		if (type.isCollection()) {
+			Collection<Object> collection;
+			if (method().isAnnotationPresent(CompactCollection.class) && flexType instanceof FlexibleTypeImpl) {
+				collection = getCompactCollection((FlexibleTypeImpl) flexType, type);
+			} else {
+				collection = getCollection(flexType, type);
+			}
+			checkSize(collection.size());
+			return collection;
 		}
-		if (goal == Map.class) {
-			Class<?> keyType = entry.getMapKeyType();
-			Class<?> valueType = entry.getMapValueType();
-			return getMap(keyType, valueType);
+		if (type.isMap()) {
+			Map<Object, Object> map = getMap(flexType, type);
+			checkSize(map.size());
+			return map;
 		}
 
 		// Everything else
 		return flexType.getObject(goal);
 	}
 	
-	private <E> Collection<E> getCollection(Class<?> goal, Class<E> elementType)
+	/*
+	 * Nested elements are converted by walking the precomputed type tree.
+	 * Size and range checks apply only to the top-level value.
+	 */
+	
+	private Object getElement(FlexibleType flexType, TypeNode type) throws BadValueException {
+		if (type.isSection()) {
+			return getSection(flexType, type.getSectionDefinition());
+		}
+		if (type.isCollection()) {
+			return getCollection(flexType, type);
+		}
+		if (type.isMap()) {
+			return getMap(flexType, type);
+		}
+		return flexType.getObject(type.getRawType());
+	}
+	
+	private FlexibleTypeFunction<Object> elementFunction(TypeNode type) {
+		if (type.isSection() || type.isCollection() || type.isMap()) {
+			return (element) -> getElement(element, type);
+		}
+		Class<?> rawType = type.getRawType();
+		return (element) -> element.getObject(rawType);
+	}
+	
+	private Collection<Object> getCollection(FlexibleType flexType, TypeNode type)
 			throws BadValueException {
 
-		FlexibleTypeFunction<E> function = (element) -> element.getObject(elementType);
-		Collection<E> collection;
+		TypeNode elementType = type.getElementType();
+		Class<?> goal = type.getRawType();
+		if (elementType.isSection() && options.parallelSectionElements()) {
+			return getSectionCollectionInParallel(flexType, goal, elementType.getSectionDefinition());
+		}
+		FlexibleTypeFunction<Object> function = elementFunction(elementType);
 		if (goal == List.class) {
-			collection = flexType.getList(function);
+			return flexType.getList(function);
 		} else if (goal == Set.class) {
-			collection = flexType.getSet(function);
+			return flexType.getSet(function);
 		} else if (goal == Collection.class) { 
-			collection = flexType.getCollection(function);
+			return flexType.getCollection(function);
 		} else {
 			throw new IllegalArgumentException("Internal error: Unknown goal " + goal + ", expected List/Set/Collection");
 		}
-		checkSize(collection.size());
-		return collection;
 	}
 	
-	private <K, V> Map<K, V> getMap(Class<K> keyType, Class<V> valueType)
+	private Collection<Object> getCompactCollection(FlexibleTypeImpl flexType, TypeNode type)
 			throws BadValueException {
-		Map<K, V> map = flexType.getMap((flexibleKey, flexibleValue) -> {
-			K key = flexibleKey.getObject(keyType);
-			V value = flexibleValue.getObject(valueType);
+		FlexibleTypeFunction<Object> function = elementFunction(type.getElementType());
+		return flexType.getCompactCollection(type.getRawType() == List.class, function);
+	}
+	
+	private Map<Object, Object> getMap(FlexibleType flexType, TypeNode type)
+			throws BadValueException {
+		TypeNode valueType = type.getValueType();
+		if (valueType.isSection() && options.parallelSectionElements()) {
+			return getSectionMapInParallel(flexType, type.getKeyType(), valueType.getSectionDefinition());
+		}
+		FlexibleTypeFunction<Object> keyFunction = elementFunction(type.getKeyType());
+		FlexibleTypeFunction<Object> valueFunction = elementFunction(valueType);
+		return flexType.getMap((flexibleKey, flexibleValue) -> {
+			Object key = keyFunction.getResult(flexibleKey);
+			Object value = valueFunction.getResult(flexibleValue);
 			return ImmutableCollections.mapEntryOf(key, value);
 		});
-		checkSize(map.size());
-		return map;
+	}
+	
+	/*
+	 * Sections as elements of collections and maps
+	 */
+	
+	@SuppressWarnings("unchecked")
+	private <N> N getSection(FlexibleType flexType, ConfigurationDefinition<N> definition)
+			throws BadValueException {
+		Object rawSection = flexType.getObject(Object.class);
+		if (!(rawSection instanceof Map)) {
+			throw flexType.badValueExceptionBuilder()
+					.message("Object " + rawSection + " is not a configuration section").build();
+		}
+		try {
+			return new MapProcessor<>(options, definition, (Map<String, Object>) rawSection, null).createConfig();
+		} catch (InvalidConfigException ex) {
+			throw flexType.badValueExceptionBuilder()
+					.message("Invalid section element: " + ex.getMessage()).cause(ex).build();
+		}
+	}
+	
+	private Collection<Object> getSectionCollectionInParallel(FlexibleType flexType, Class<?> goal,
+			ConfigurationDefinition<?> definition) throws BadValueException {
+		// Raw elements are not deduplicated, since distinct raw elements may yield equal sections
+		Object[] sections = getSectionsInParallel(flexType.getList(), definition);
+		List<Object> sectionList = Arrays.asList(sections);
+		return (goal == List.class) ? ImmutableCollections.listOf(sectionList)
+				: ImmutableCollections.setOf(new HashSet<>(sectionList));
+	}
+	
+	private Map<Object, Object> getSectionMapInParallel(FlexibleType flexType, TypeNode keyType,
+			ConfigurationDefinition<?> definition) throws BadValueException {
+		Map<FlexibleType, FlexibleType> flexMap = flexType.getMap();
+		FlexibleTypeFunction<Object> keyFunction = elementFunction(keyType);
+		List<Object> keys = new ArrayList<>(flexMap.size());
+		List<FlexibleType> values = new ArrayList<>(flexMap.size());
+		for (Map.Entry<FlexibleType, FlexibleType> flexEntry : flexMap.entrySet()) {
+			keys.add(keyFunction.getResult(flexEntry.getKey()));
+			values.add(flexEntry.getValue());
+		}
+		Object[] sections = getSectionsInParallel(values, definition);
+		Map<Object, Object> result = new HashMap<>(sections.length);
+		for (int n = 0; n < sections.length; n++) {
+			result.put(keys.get(n), sections[n]);
+		}
+		return ImmutableCollections.mapOf(result);
+	}
+	
+	private Object[] getSectionsInParallel(List<FlexibleType> elements, ConfigurationDefinition<?> definition)
+			throws BadValueException {
+		Object[] sections = new Object[elements.size()];
+		if (sections.length < PARALLEL_THRESHOLD) {
+			for (int n = 0; n < sections.length; n++) {
+				sections[n] = getSection(elements.get(n), definition);
+			}
+			return sections;
+		}
+		try {
+			IntStream.range(0, sections.length).parallel().forEach((n) -> {
+				try {
+					sections[n] = getSection(elements.get(n), definition);
+				} catch (BadValueException ex) {
+					throw new UncheckedInvalidConfigException(ex);
+				}
+			});
+		} catch (UncheckedInvalidConfigException ex) {
+			throw (BadValueException) ex.getCause();
+		}
+		return sections;
 	}
 	
 	private void checkSize(int size) throws BadValueException {
@@ -22,25 +22,65 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.LayeredKeys;
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 
 class ConfigInvocationHandler implements InvocationHandler {
 
 	private final Map<String, Object> configMap;
+	/** Raw values of entries as loaded from the source, null if not retained */
+	private final Map<String, Object> sourceValues;
+	/** Paths of entries filled from auxiliary values, empty if none */
+	private final Set<String> auxiliaryKeyPaths;
+	/** Paths of entries mapped to the layers which supplied them, empty if not loaded from layers */
+	private final Map<String, String> keyLayers;
 	
-	ConfigInvocationHandler(Map<String, Object> configMap) {
+	ConfigInvocationHandler(Map<String, Object> configMap, Map<String, Object> sourceValues,
+			Set<String> auxiliaryKeyPaths, Map<String, String> keyLayers) {
 		this.configMap = ImmutableCollections.mapOf(configMap);
+		this.sourceValues = (sourceValues == null) ? null : ImmutableCollections.mapOf(sourceValues);
+		// Copied, since a processor may be reused
+		this.auxiliaryKeyPaths = (auxiliaryKeyPaths.isEmpty()) ? Collections.emptySet()
+				: Collections.unmodifiableSet(new LinkedHashSet<>(auxiliaryKeyPaths));
+		this.keyLayers = (keyLayers.isEmpty()) ? Collections.emptyMap()
+				: Collections.unmodifiableMap(new LinkedHashMap<>(keyLayers));
+	}
+	
+	/**
+	 * Gets the raw source value of an entry, if retained
+	 * 
+	 * @param methodName the method name of the entry
+	 * @return the source value, or null if not retained
+	 */
+	Object getSourceValue(String methodName) {
+		return (sourceValues == null) ? null : sourceValues.get(methodName);
 	}
 	
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-		if (method.getDeclaringClass() == Object.class) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (declaringClass == Object.class) {
 			return invokeMethodOnSelf(method, args);
 		}
+		if (declaringClass == AuxiliaryKeys.class) {
+			return auxiliaryKeyPaths;
+		}
+		if (declaringClass == LayeredKeys.class) {
+			return keyLayers;
+		}
 		assert args == null : Arrays.deepToString(args);
-		return configMap.get(method.getName());
+		Object value = configMap.get(method.getName());
+		if (value instanceof LazyValue) {
+			return ((LazyValue) value).get();
+		}
+		return value;
 	}
 	
 	private Object invokeMethodOnSelf(Method method, Object[] args) throws Throwable {
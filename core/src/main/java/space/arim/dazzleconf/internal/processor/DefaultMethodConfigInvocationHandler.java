@@ -24,6 +24,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.LayeredKeys;
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 import space.arim.dazzleconf.internal.util.MethodUtil;
 
@@ -31,8 +33,9 @@ class DefaultMethodConfigInvocationHandler extends ConfigInvocationHandler {
 
 	private Map<Method, MethodHandle> defaultMethodsMap;
 	
-	DefaultMethodConfigInvocationHandler(Map<String, Object> configMap) {
-		super(configMap);
+	DefaultMethodConfigInvocationHandler(Map<String, Object> configMap, Map<String, Object> sourceValues,
+			Set<String> auxiliaryKeyPaths, Map<String, String> keyLayers) {
+		super(configMap, sourceValues, auxiliaryKeyPaths, keyLayers);
 	}
 	
 	void initDefaultMethods(Object proxy, Set<Method> defaultMethods) {
@@ -50,7 +53,9 @@ class DefaultMethodConfigInvocationHandler extends ConfigInvocationHandler {
 	
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-		if (method.getDeclaringClass() != Object.class && MethodUtil.isDefault(method)) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (declaringClass != Object.class && declaringClass != AuxiliaryKeys.class
+				&& declaringClass != LayeredKeys.class && MethodUtil.isDefault(method)) {
 			return defaultMethodsMap.get(method).invokeWithArguments(args);
 		}
 		return super.invoke(proxy, method, args);
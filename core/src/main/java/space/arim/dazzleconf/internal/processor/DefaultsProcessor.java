@@ -26,6 +26,7 @@ import java.util.Map;
 
 import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.annote.ConfDefault.*;
+import space.arim.dazzleconf.annote.SubSection;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.error.ImproperEntryException;
 import space.arim.dazzleconf.error.MissingKeyException;
@@ -49,6 +50,23 @@ public class DefaultsProcessor<C> extends ProcessorBase<C> {
 		return new DefaultsProcessor<>(options, childEntry.getDefinition());
 	}
 
+	@Override
+	boolean lazyEntries() {
+		// Defaults are typically written out in full, so there is nothing to gain
+		return false;
+	}
+
+	@Override
+	boolean lazySubSections() {
+		return false;
+	}
+
+	@Override
+	boolean retainSourceValues() {
+		// Default annotation values are not necessarily in their serialised form
+		return false;
+	}
+
 	@Override
 	Object getValueFromSources(SingleConfEntry entry) throws MissingKeyException {
 		Method method = entry.getMethod();
@@ -97,6 +115,10 @@ public class DefaultsProcessor<C> extends ProcessorBase<C> {
 		if (ofMap != null) {
 			return toMap(entry, ofMap.value());
 		}
+		if (method.getAnnotation(SubSection.class) != null) {
+			// Collections and maps of sections default to empty
+			return (entry.getType().isMap()) ? ImmutableCollections.emptyMap() : ImmutableCollections.emptyList();
+		}
 		throw new IllDefinedConfigException("No default value annotation present on " + entry.getQualifiedMethodName());
 	}
 	
@@ -32,6 +32,7 @@ import java.util.Set;
 import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.error.BadValueException;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
+import space.arim.dazzleconf.internal.util.CompactSet;
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 import space.arim.dazzleconf.serialiser.FlexibleType;
 import space.arim.dazzleconf.serialiser.FlexibleTypeFunction;
@@ -210,6 +211,39 @@ class FlexibleTypeImpl implements FlexibleType {
 		return (ordered) ? ImmutableCollections.listOf(result) : ImmutableCollections.setOf(result);
 	}
 	
+	/**
+	 * Gets a collection like {@link #getList(FlexibleTypeFunction)} or {@link #getSet(FlexibleTypeFunction)},
+	 * converting each element directly into the final immutable collection. Lists wrap an exactly sized
+	 * array, and sets are {@link CompactSet}s.
+	 * 
+	 * @param <E> the element type
+	 * @param ordered whether to create a list rather than a set
+	 * @param elementProcessor the element processor
+	 * @return the immutable collection
+	 * @throws BadValueException if the value is not a collection or an element could not be converted
+	 */
+	<E> Collection<E> getCompactCollection(boolean ordered, FlexibleTypeFunction<? extends E> elementProcessor)
+			throws BadValueException {
+		if (!(value instanceof List)) {
+			return getCollection0(ordered, elementProcessor);
+		}
+		List<?> list = (List<?>) value;
+		if (ordered) {
+			Object[] elements = new Object[list.size()];
+			int n = 0;
+			for (Object element : list) {
+				elements[n++] = Objects.requireNonNull(
+						elementProcessor.getResult(deriveFlexibleObject(element)), "element");
+			}
+			return ImmutableCollections.listWrapping(elements);
+		}
+		CompactSet.Builder<E> builder = new CompactSet.Builder<>(list.size());
+		for (Object element : list) {
+			builder.add(elementProcessor.getResult(deriveFlexibleObject(element)));
+		}
+		return builder.build();
+	}
+	
 	@Override
 	public Map<FlexibleType, FlexibleType> getMap() throws BadValueException {
 		return getMap(ImmutableCollections::mapEntryOf);
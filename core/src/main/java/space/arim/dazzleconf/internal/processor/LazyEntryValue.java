@@ -0,0 +1,70 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.processor;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.serialiser.ValueSerialiserMap;
+
+/**
+ * Single config entry which is converted upon first access
+ * 
+ * @author A248
+ *
+ */
+final class LazyEntryValue extends LazyValue {
+
+	private final ConfigurationOptions options;
+	private final ValueSerialiserMap serialisers;
+	private final SingleConfEntry entry;
+	private final Object preValue;
+	/** Whether to apply the validator upon conversion. False if the value was already validated */
+	private final boolean validate;
+	
+	LazyEntryValue(ConfigurationOptions options, ValueSerialiserMap serialisers, SingleConfEntry entry,
+			Object preValue, boolean validate) {
+		this.options = options;
+		this.serialisers = serialisers;
+		this.entry = entry;
+		this.preValue = preValue;
+		this.validate = validate;
+	}
+	
+	Object getPreValue() {
+		return preValue;
+	}
+	
+	@Override
+	Object compute() throws BadValueException {
+		return ProcessorBase.processSingleValue(options, serialisers, entry, preValue, validate);
+	}
+	
+	@Override
+	String describe() {
+		return "value of " + entry.getQualifiedMethodName();
+	}
+
+	@Override
+	public String toString() {
+		Object value = getIfComputed();
+		return "LazyEntryValue [" + ((value == null) ? "preValue=" + preValue : "value=" + value) + "]";
+	}
+	
+}
@@ -0,0 +1,66 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.processor;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.NestedConfEntry;
+
+/**
+ * Nested configuration section which is created upon first access. Retains the child processor,
+ * and thereby the raw child section, until then. If the section was validated eagerly, the child
+ * processor also holds the processed entries, which are used to create the section.
+ * 
+ * @author A248
+ *
+ */
+final class LazySubSection extends LazyValue {
+
+	private final NestedConfEntry<?> entry;
+	private final ProcessorBase<?> childProcessor;
+	
+	LazySubSection(NestedConfEntry<?> entry, ProcessorBase<?> childProcessor) {
+		this.entry = entry;
+		this.childProcessor = childProcessor;
+	}
+	
+	/*
+	 * The child processor is not thread safe, so it must not be used concurrently
+	 */
+	@Override
+	synchronized Object compute() throws InvalidConfigException {
+		Object value = getIfComputed();
+		if (value != null) {
+			// Another thread created the section while this one waited
+			return value;
+		}
+		return childProcessor.createConfig();
+	}
+	
+	@Override
+	String describe() {
+		return "section " + entry.getQualifiedMethodName();
+	}
+
+	@Override
+	public String toString() {
+		Object value = getIfComputed();
+		return "LazySubSection [" + ((value == null) ? "childProcessor=" + childProcessor : "value=" + value) + "]";
+	}
+	
+}
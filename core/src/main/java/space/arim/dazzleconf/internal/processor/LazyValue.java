@@ -0,0 +1,80 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.processor;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+
+/**
+ * Publish-once slot for a config value which is computed upon first access. Multiple threads may race
+ * to compute the value, but only the first result is ever published and returned.
+ * 
+ * @author A248
+ *
+ */
+abstract class LazyValue {
+
+	private volatile Object value;
+	
+	private static final AtomicReferenceFieldUpdater<LazyValue, Object> VALUE_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(LazyValue.class, Object.class, "value");
+	
+	/**
+	 * Computes the value
+	 * 
+	 * @return the value, nonnull
+	 * @throws InvalidConfigException if the underlying config value is invalid
+	 */
+	abstract Object compute() throws InvalidConfigException;
+	
+	/**
+	 * Describes the value computed, for use in exception messages
+	 * 
+	 * @return a description of the value
+	 */
+	abstract String describe();
+	
+	Object get() {
+		Object value = this.value;
+		if (value != null) {
+			return value;
+		}
+		try {
+			value = compute();
+		} catch (InvalidConfigException ex) {
+			throw new UncheckedInvalidConfigException("Lazily loaded " + describe() + " is invalid", ex);
+		}
+		if (VALUE_UPDATER.compareAndSet(this, null, value)) {
+			return value;
+		}
+		return this.value;
+	}
+	
+	/**
+	 * Gets the value if it has already been computed
+	 * 
+	 * @return the value or {@code null} if not yet computed
+	 */
+	Object getIfComputed() {
+		return value;
+	}
+	
+}
@@ -18,6 +18,8 @@
  */
 package space.arim.dazzleconf.internal.processor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import space.arim.dazzleconf.ConfigurationOptions;
@@ -31,33 +33,104 @@ import space.arim.dazzleconf.internal.SingleConfEntry;
 
 public class MapProcessor<C> extends ProcessorBase<C> {
 
-	private final NestedMapHelper mapHelper;
+	/** The source maps, in order of precedence */
+	private final NestedMapHelper[] layers;
+	/** The names of each layer, null unless loading from layers */
+	private final String[] layerNames;
+	private final boolean validateValues;
 	
 	public MapProcessor(ConfigurationOptions options, ConfigurationDefinition<C> definition,
 			Map<String, Object> sourceMap, C auxiliaryValues) {
-		this(options, definition, new NestedMapHelper(sourceMap), auxiliaryValues);
+		this(options, definition, sourceMap, auxiliaryValues, true);
+	}
+	
+	/**
+	 * Creates a map processor which may skip validators, for a source map known to have
+	 * passed validation before
+	 * 
+	 * @param options the config options
+	 * @param definition the config definition
+	 * @param sourceMap the source map
+	 * @param auxiliaryValues the auxiliary config, null for none
+	 * @param validateValues whether to apply validators to converted values
+	 */
+	public MapProcessor(ConfigurationOptions options, ConfigurationDefinition<C> definition,
+			Map<String, Object> sourceMap, C auxiliaryValues, boolean validateValues) {
+		this(options, definition, new NestedMapHelper[] {new NestedMapHelper(sourceMap)}, null,
+				auxiliaryValues, validateValues);
+	}
+	
+	/**
+	 * Creates a map processor which resolves each entry through layers of source maps. The maps
+	 * are used directly, and the layer which supplies each entry is recorded.
+	 * 
+	 * @param options the config options
+	 * @param definition the config definition
+	 * @param sourceMaps the source maps, in order of precedence
+	 * @param layerNames the name of each layer
+	 * @param auxiliaryValues the auxiliary config, null for none
+	 */
+	public MapProcessor(ConfigurationOptions options, ConfigurationDefinition<C> definition,
+			List<Map<String, Object>> sourceMaps, List<String> layerNames, C auxiliaryValues) {
+		this(options, definition, toHelpers(sourceMaps), layerNames.toArray(new String[0]), auxiliaryValues, true);
 	}
 	
 	private MapProcessor(ConfigurationOptions options, ConfigurationDefinition<C> definition,
-			NestedMapHelper mapHelper, C auxiliaryValues) {
+			NestedMapHelper[] layers, String[] layerNames, C auxiliaryValues, boolean validateValues) {
 		super(options, definition, auxiliaryValues);
-		this.mapHelper = mapHelper;
+		this.layers = layers;
+		this.layerNames = layerNames;
+		this.validateValues = validateValues;
+	}
+	
+	private static NestedMapHelper[] toHelpers(List<Map<String, Object>> sourceMaps) {
+		NestedMapHelper[] helpers = new NestedMapHelper[sourceMaps.size()];
+		for (int n = 0; n < helpers.length; n++) {
+			helpers[n] = new NestedMapHelper(sourceMaps.get(n));
+		}
+		return helpers;
 	}
 	
 	@Override
 	<N> ProcessorBase<N> continueNested(ConfigurationOptions options, NestedConfEntry<N> childEntry,
 			N nestedAuxiliaryValues) throws ImproperEntryException {
-		Map<String, Object> childMap = getChildMapFromSources(childEntry, mapHelper);
-		return new MapProcessor<>(options, childEntry.getDefinition(), childMap, nestedAuxiliaryValues);
+		if (layerNames == null) {
+			Map<String, Object> childMap = getChildMapFromSources(childEntry, layers[0].get(childEntry.getKey()));
+			return new MapProcessor<>(options, childEntry.getDefinition(), childMap, nestedAuxiliaryValues,
+					validateValues);
+		}
+		// Overlay the section from each layer which defines it
+		List<NestedMapHelper> childLayers = new ArrayList<>(layers.length);
+		List<String> childLayerNames = new ArrayList<>(layers.length);
+		for (int n = 0; n < layers.length; n++) {
+			Object childObject = layers[n].find(childEntry.getKey());
+			if (childObject != null) {
+				childLayers.add(new NestedMapHelper(getChildMapFromSources(childEntry, childObject)));
+				childLayerNames.add(layerNames[n]);
+			}
+		}
+		if (childLayers.isEmpty()) {
+			throw MissingKeyException.forKey(childEntry.getKey());
+		}
+		return new MapProcessor<>(options, childEntry.getDefinition(), childLayers.toArray(new NestedMapHelper[0]),
+				childLayerNames.toArray(new String[0]), nestedAuxiliaryValues, validateValues);
+	}
+	
+	@Override
+	boolean validateValues() {
+		return validateValues;
+	}
+	
+	@Override
+	boolean recordsKeyLayers() {
+		return layerNames != null;
 	}
 	
 	@SuppressWarnings("unchecked")
-	private static Map<String, Object> getChildMapFromSources(NestedConfEntry<?> entry, NestedMapHelper mapHelper)
+	private static Map<String, Object> getChildMapFromSources(NestedConfEntry<?> entry, Object childObject)
 			throws ImproperEntryException {
-		String key = entry.getKey();
-		Object childObject = mapHelper.get(key);
 		if (!(childObject instanceof Map)) {
-			throw new BadValueException.Builder().key(key)
+			throw new BadValueException.Builder().key(entry.getKey())
 					.message("Object " + childObject + " is not a configuration section").build();
 		}
 		return (Map<String, Object>) childObject;
@@ -65,7 +138,18 @@ public class MapProcessor<C> extends ProcessorBase<C> {
 	
 	@Override
 	Object getValueFromSources(SingleConfEntry entry) throws MissingKeyException {
-		return mapHelper.get(entry.getKey());
+		String key = entry.getKey();
+		if (layerNames == null) {
+			return layers[0].get(key);
+		}
+		for (int n = 0; n < layers.length; n++) {
+			Object value = layers[n].find(key);
+			if (value != null) {
+				recordKeyLayer(key, layerNames[n]);
+				return value;
+			}
+		}
+		throw MissingKeyException.forKey(key);
 	}
 	
 }
@@ -19,11 +19,18 @@
 package space.arim.dazzleconf.internal.processor;
 
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import space.arim.dazzleconf.AuxiliaryKeys;
 import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.LayeredKeys;
+import space.arim.dazzleconf.error.BadValueException;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.error.ImproperEntryException;
 import space.arim.dazzleconf.error.InvalidConfigException;
@@ -35,6 +42,7 @@ import space.arim.dazzleconf.internal.NestedConfEntry;
 import space.arim.dazzleconf.internal.SingleConfEntry;
 import space.arim.dazzleconf.internal.util.ConfigurationInvoker;
 import space.arim.dazzleconf.serialiser.FlexibleType;
+import space.arim.dazzleconf.serialiser.ValueSerialiserMap;
 import space.arim.dazzleconf.validator.ValueValidator;
 
 public abstract class ProcessorBase<C> {
@@ -46,7 +54,14 @@ public abstract class ProcessorBase<C> {
 	private final ConfigurationInvoker<C> auxiliaryValues;
 	
 	private final Map<String, Object> result = new HashMap<>();
-	private boolean usedAuxiliary;
+	/** Null unless source values are retained */
+	private Map<String, Object> sourceValues;
+	/** Paths, relative to this processor, of entries filled from auxiliary values */
+	private final Set<String> auxiliaryKeyPaths = new LinkedHashSet<>();
+	/** Paths, relative to this processor, of entries mapped to the layers which supplied them */
+	private final Map<String, String> keyLayers = new LinkedHashMap<>();
+	/** Whether the entries have been processed successfully, such that the config may be created */
+	private boolean processed;
 	
 	/**
 	 * Creates from options, definition, and auxiliary config values
@@ -71,28 +86,41 @@ public abstract class ProcessorBase<C> {
 	 * @throws InvalidConfigException if the input to this processor is invalid for the configuration
 	 */
 	public C createConfig() throws InvalidConfigException {
-		process();
+		if (!processed) {
+			process();
+		}
 
 		Class<C> configClass = definition.getConfigClass();
-		Class<?>[] intf;
-		if (usedAuxiliary) {
-			intf = new Class<?>[] {configClass, AuxiliaryKeys.class};
-		} else {
-			intf = new Class<?>[] {configClass};
+		List<Class<?>> intf = new ArrayList<>(3);
+		intf.add(configClass);
+		if (!auxiliaryKeyPaths.isEmpty()) {
+			intf.add(AuxiliaryKeys.class);
+		}
+		if (recordsKeyLayers()) {
+			intf.add(LayeredKeys.class);
 		}
+		Class<?>[] intfArray = intf.toArray(new Class<?>[0]);
 		ClassLoader classLoader = configClass.getClassLoader();
 		Object proxy;
 		if (definition.hasDefaultMethods()) {
-			DefaultMethodConfigInvocationHandler handler = new DefaultMethodConfigInvocationHandler(result);
-			proxy = Proxy.newProxyInstance(classLoader, intf, handler);
+			DefaultMethodConfigInvocationHandler handler = new DefaultMethodConfigInvocationHandler(
+					result, sourceValues, auxiliaryKeyPaths, keyLayers);
+			proxy = Proxy.newProxyInstance(classLoader, intfArray, handler);
 			handler.initDefaultMethods(proxy, definition.getDefaultMethods());
 		} else {
-			proxy = Proxy.newProxyInstance(classLoader, intf, new ConfigInvocationHandler(result));
+			proxy = Proxy.newProxyInstance(classLoader, intfArray,
+					new ConfigInvocationHandler(result, sourceValues, auxiliaryKeyPaths, keyLayers));
 		}
 		return configClass.cast(proxy);
 	}
 	
 	private void process() throws InvalidConfigException {
+		// A lazily created section may be processed again after a failed attempt
+		processed = false;
+		result.clear();
+		auxiliaryKeyPaths.clear();
+		keyLayers.clear();
+		sourceValues = (retainSourceValues()) ? new HashMap<>() : null;
 		for (ConfEntry entry : definition.getEntries()) {
 			String methodName = entry.getMethod().getName();
 			Object value;
@@ -106,9 +134,10 @@ public abstract class ProcessorBase<C> {
 				throw new IllDefinedConfigException("Duplicate method name " + methodName);
 			}
 		}
+		processed = true;
 	}
 	
-	private <N> N getNestedSection(NestedConfEntry<N> nestedEntry) throws InvalidConfigException {
+	private <N> Object getNestedSection(NestedConfEntry<N> nestedEntry) throws InvalidConfigException {
 		N nestedAuxiliary = (auxiliaryValues == null) ? null
 				: getNestedAuxiliaryValue(nestedEntry); // Pass along auxiliary entries
 
@@ -119,15 +148,66 @@ public abstract class ProcessorBase<C> {
 			if (auxiliaryValues == null) {
 				throw mke;
 			}
+			auxiliaryKeyPaths.add(nestedEntry.getKey());
 			return nestedAuxiliary;
 		}
-		N nestedSection = childProcessor.createConfig();
-		if (childProcessor.usedAuxiliary) {
-			usedAuxiliary = true; // propagate auxiliary usage flag upward
+		if (lazySubSections()) {
+			if (options.eagerlyValidateLazyValues()) {
+				// Validate by processing the entries, which are kept for when the section is created
+				childProcessor.process();
+				propagateKeys(nestedEntry, childProcessor);
+
+			} else if (nestedAuxiliary != null || recordsKeyLayers()) {
+				// propagate auxiliary usage and key layers upward
+				childProcessor.collectKeys(nestedEntry.getKey() + '.', auxiliaryKeyPaths, keyLayers);
+			}
+			return new LazySubSection(nestedEntry, childProcessor);
 		}
+		N nestedSection = childProcessor.createConfig();
+		propagateKeys(nestedEntry, childProcessor);
 		return nestedSection;
 	}
 	
+	private void propagateKeys(NestedConfEntry<?> nestedEntry, ProcessorBase<?> childProcessor) {
+		// propagate auxiliary usage upward
+		for (String childPath : childProcessor.auxiliaryKeyPaths) {
+			auxiliaryKeyPaths.add(nestedEntry.getKey() + '.' + childPath);
+		}
+		for (Map.Entry<String, String> childLayer : childProcessor.keyLayers.entrySet()) {
+			keyLayers.put(nestedEntry.getKey() + '.' + childLayer.getKey(), childLayer.getValue());
+		}
+	}
+	
+	/**
+	 * Collects the paths of keys missing from the sources of this processor, and the layers supplying
+	 * the other keys, without converting any values
+	 * 
+	 * @param prefix the prefix to prepend to each path
+	 * @param paths the set to which to add the paths of missing keys
+	 * @param layers the map to which to add the paths of present keys and their layers
+	 * @throws InvalidConfigException if a nested section is not a configuration section
+	 */
+	private void collectKeys(String prefix, Set<String> paths, Map<String, String> layers)
+			throws InvalidConfigException {
+		keyLayers.clear();
+		for (ConfEntry entry : definition.getEntries()) {
+			String key = entry.getKey();
+			try {
+				if (entry instanceof NestedConfEntry) {
+					ProcessorBase<?> childProcessor = continueNested(options, (NestedConfEntry<?>) entry, null);
+					childProcessor.collectKeys(prefix + key + '.', paths, layers);
+				} else {
+					getValueFromSources((SingleConfEntry) entry);
+				}
+			} catch (MissingKeyException mke) {
+				paths.add(prefix + key);
+			}
+		}
+		for (Map.Entry<String, String> keyLayer : keyLayers.entrySet()) {
+			layers.put(prefix + keyLayer.getKey(), keyLayer.getValue());
+		}
+	}
+	
 	private Object getSingleValue(SingleConfEntry entry) throws InvalidConfigException {
 		// Get pre value; if missing and auxiliary entries are provided, return auxiliary value
 		Object preValue;
@@ -137,16 +217,60 @@ public abstract class ProcessorBase<C> {
 			if (auxiliaryValues == null) {
 				throw mke;
 			}
+			auxiliaryKeyPaths.add(entry.getKey());
 			return getAuxiliaryValue(entry);
 		}
-		String key = entry.getKey();
 		if (preValue == null) {
-			throw MissingValueException.forKey(key);
+			throw MissingValueException.forKey(entry.getKey());
 		}
+		ValueSerialiserMap serialisers = definition.getSerialisers();
+		if (lazyEntries()) {
+			if (!options.eagerlyValidateLazyValues()) {
+				// Not yet converted or validated, so the raw value cannot be written back as is
+				return new LazyEntryValue(options, serialisers, entry, preValue, validateValues());
+			}
+			// Validate now, but retain only the raw value. Since it is valid, it need not be validated again
+			processSingleValue(options, serialisers, entry, preValue, validateValues());
+			retainSourceValue(entry, preValue);
+			return new LazyEntryValue(options, serialisers, entry, preValue, false);
+		}
+		Object value = processSingleValue(options, serialisers, entry, preValue, validateValues());
+		retainSourceValue(entry, preValue);
+		return value;
+	}
+	
+	/*
+	 * Only called once the value has passed conversion and validation
+	 */
+	private void retainSourceValue(SingleConfEntry entry, Object preValue) {
+		if (sourceValues != null) {
+			Object sourceValue = SourceValues.copyIfRetainable(preValue);
+			if (sourceValue != null) {
+				sourceValues.put(entry.getMethod().getName(), sourceValue);
+			}
+		}
+	}
+	
+	/**
+	 * Converts the pre processing value of a config entry, optionally applying its validator
+	 * 
+	 * @param options the config options
+	 * @param serialisers the value serialisers
+	 * @param entry the config entry
+	 * @param preValue the pre processed value, nonnull
+	 * @param validate whether to apply the validator of the entry
+	 * @return the processed value
+	 * @throws BadValueException if the value could not be converted or failed validation
+	 */
+	static Object processSingleValue(ConfigurationOptions options, ValueSerialiserMap serialisers,
+			SingleConfEntry entry, Object preValue, boolean validate) throws BadValueException {
+		String key = entry.getKey();
+		FlexibleType flexType = new FlexibleTypeImpl(key, preValue, options, serialisers);
+		Object value = new Composition(options, entry, flexType).processObject();
 
-		FlexibleType flexType = new FlexibleTypeImpl(key, preValue, options, definition.getSerialisers());
-		Object value = new Composition(entry, flexType).processObject();
-
+		if (!validate) {
+			return value;
+		}
 		ValueValidator validator = entry.getValidator();
 		if (validator == null) {
 			validator = options.getValidators().get(key);
@@ -157,10 +281,63 @@ public abstract class ProcessorBase<C> {
 		return value;
 	}
 	
+	/**
+	 * Whether single entries should be lazily converted upon first access
+	 * 
+	 * @return true if entries are lazily converted
+	 */
+	boolean lazyEntries() {
+		return options.lazyEntries();
+	}
+	
+	/**
+	 * Whether nested sections should be lazily created upon first access
+	 * 
+	 * @return true if nested sections are lazily created
+	 */
+	boolean lazySubSections() {
+		return options.lazySubSections();
+	}
+	
+	/**
+	 * Whether validators should be applied to converted values
+	 * 
+	 * @return true if values are validated
+	 */
+	boolean validateValues() {
+		return true;
+	}
+	
+	/**
+	 * Whether this processor records the layers supplying each entry, via {@link #recordKeyLayer(String, String)}
+	 * 
+	 * @return true if key layers are recorded
+	 */
+	boolean recordsKeyLayers() {
+		return false;
+	}
+	
+	/**
+	 * Records the layer which supplied the value of an entry
+	 * 
+	 * @param key the key of the entry
+	 * @param layer the name of the layer
+	 */
+	void recordKeyLayer(String key, String layer) {
+		keyLayers.put(key, layer);
+	}
+	
+	/**
+	 * Whether the raw source values of single entries should be retained, for reuse when writing
+	 * 
+	 * @return true if source values are retained
+	 */
+	boolean retainSourceValues() {
+		return options.retainSourceValues();
+	}
+	
 	private Object getAuxiliaryValue(ConfEntry entry) {
-		Object auxiliaryValue = auxiliaryValues.getEntryValue(entry);
-		usedAuxiliary = true;
-		return auxiliaryValue;
+		return auxiliaryValues.getEntryValue(entry);
 	}
 	
 	private <N> N getNestedAuxiliaryValue(NestedConfEntry<N> nestedEntry) {
@@ -0,0 +1,100 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.processor;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.internal.util.ImmutableCollections;
+
+/**
+ * Access to the raw source values retained by configuration instances created by a processor
+ * 
+ * @author A248
+ *
+ */
+public final class SourceValues {
+
+	private SourceValues() {}
+	
+	/**
+	 * Copies a raw value for retention. Only values in the simple forms which configuration formats
+	 * are required to write (strings, numbers, booleans, and lists and maps thereof) are retained,
+	 * since a format may load other kinds of objects which it cannot write back. <br>
+	 * <br>
+	 * Lists and maps are copied deeply into immutable collections, since the loaded collections
+	 * belong to the format and may be mutable.
+	 * 
+	 * @param value the raw value
+	 * @return an immutable copy of the value, or {@code null} if not retainable
+	 */
+	static Object copyIfRetainable(Object value) {
+		if (value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character) {
+			return value;
+		}
+		if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			List<Object> copy = new ArrayList<>(list.size());
+			for (Object element : list) {
+				Object elementCopy = copyIfRetainable(element);
+				if (elementCopy == null) {
+					return null;
+				}
+				copy.add(elementCopy);
+			}
+			return ImmutableCollections.listOf(copy);
+		}
+		if (value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) value;
+			Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				Object keyCopy = copyIfRetainable(entry.getKey());
+				Object valueCopy = copyIfRetainable(entry.getValue());
+				if (keyCopy == null || valueCopy == null) {
+					return null;
+				}
+				copy.put(keyCopy, valueCopy);
+			}
+			return Collections.unmodifiableMap(copy);
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the raw source value of a single entry, if the configuration instance's proxy handler retained it.
+	 * Such a value is already in serialised form and was valid for the entry when loaded.
+	 * 
+	 * @param proxyHandler the invocation handler of the configuration instance
+	 * @param entry the config entry
+	 * @return the source value, or {@code null} if not retained
+	 */
+	public static Object getSourceValue(InvocationHandler proxyHandler, SingleConfEntry entry) {
+		if (proxyHandler instanceof ConfigInvocationHandler) {
+			return ((ConfigInvocationHandler) proxyHandler).getSourceValue(entry.getMethod().getName());
+		}
+		return null;
+	}
+	
+}
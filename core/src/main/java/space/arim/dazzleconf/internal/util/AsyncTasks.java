@@ -0,0 +1,118 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.util;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public final class AsyncTasks {
+
+	private AsyncTasks() {}
+	
+	/**
+	 * A blocking configuration task
+	 *
+	 * @param <T> the result type
+	 */
+	public interface Task<T> {
+		
+		T call() throws IOException, InvalidConfigException;
+		
+	}
+	
+	/**
+	 * Runs a task on the given executor. The returned future is completed exceptionally with
+	 * the exception thrown by the task itself, rather than a wrapper.
+	 * 
+	 * @param <T> the result type
+	 * @param task the task
+	 * @param executor the executor
+	 * @return a future completed with the result of the task
+	 */
+	public static <T> CompletableFuture<T> supply(Task<T> task, Executor executor) {
+		Objects.requireNonNull(task, "task");
+		Objects.requireNonNull(executor, "executor");
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(task.call());
+				} catch (Throwable ex) {
+					future.completeExceptionally(ex);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+	
+	/**
+	 * Gets the default executor for blocking configuration tasks. Uses a new virtual thread per task
+	 * if virtual threads are available, otherwise a shared pool of daemon threads.
+	 * 
+	 * @return the default executor
+	 */
+	public static Executor defaultExecutor() {
+		return DefaultExecutor.INSTANCE;
+	}
+	
+	private static final class DefaultExecutor {
+		
+		static final Executor INSTANCE = create();
+		
+		private static Executor create() {
+			ThreadFactory virtualThreadFactory = virtualThreadFactory();
+			if (virtualThreadFactory != null) {
+				return (command) -> virtualThreadFactory.newThread(command).start();
+			}
+			AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newCachedThreadPool((runnable) -> {
+				Thread thread = new Thread(runnable, "DazzleConf-async-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		
+		/*
+		 * Virtual threads are located reflectively so that the same jar runs on Java 8
+		 */
+		private static ThreadFactory virtualThreadFactory() {
+			try {
+				Method ofVirtual = Thread.class.getMethod("ofVirtual");
+				Object builder = ofVirtual.invoke(null);
+				Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+				return (ThreadFactory) factory.invoke(builder);
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				// Not available, or a preview feature not enabled
+				return null;
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,81 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.util;
+
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream over the remaining bytes of a byte buffer. Reads from a duplicate of the buffer,
+ * so that the position of the original buffer is unaffected.
+ * 
+ * @author A248
+ *
+ */
+public final class ByteBufferInputStream extends InputStream {
+
+	private final ByteBuffer buffer;
+	
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate(); // Implicit null check
+	}
+	
+	@Override
+	public int read() {
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		return buffer.get() & 0xFF;
+	}
+	
+	@Override
+	public int read(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || length > bytes.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (length == 0) {
+			return 0;
+		}
+		int remaining = buffer.remaining();
+		if (remaining == 0) {
+			return -1;
+		}
+		int read = Math.min(length, remaining);
+		buffer.get(bytes, offset, read);
+		return read;
+	}
+	
+	@Override
+	public long skip(long count) {
+		if (count <= 0) {
+			return 0;
+		}
+		int skipped = (int) Math.min(count, buffer.remaining());
+		// Cast to Buffer for compatibility with Java 8
+		((Buffer) buffer).position(buffer.position() + skipped);
+		return skipped;
+	}
+	
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+	
+}
@@ -0,0 +1,112 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.util;
+
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Unsynchronized reader over a {@code CharSequence}. Unlike {@code StringReader}, requires no copying
+ * to a string and no locking.
+ * 
+ * @author A248
+ *
+ */
+public final class CharSequenceReader extends Reader {
+
+	private final CharSequence content;
+	private final int length;
+	private int position;
+	private int mark;
+	
+	public CharSequenceReader(CharSequence content) {
+		this.content = Objects.requireNonNull(content, "content");
+		length = content.length();
+	}
+	
+	@Override
+	public int read() {
+		if (position >= length) {
+			return -1;
+		}
+		return content.charAt(position++);
+	}
+	
+	@Override
+	public int read(char[] buffer, int offset, int count) {
+		if (offset < 0 || count < 0 || count > buffer.length - offset) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (count == 0) {
+			return 0;
+		}
+		if (position >= length) {
+			return -1;
+		}
+		int end = Math.min(length, position + count);
+		int read = end - position;
+		if (content instanceof String) {
+			((String) content).getChars(position, end, buffer, offset);
+		} else if (content instanceof StringBuilder) {
+			((StringBuilder) content).getChars(position, end, buffer, offset);
+		} else {
+			for (int n = 0; n < read; n++) {
+				buffer[offset + n] = content.charAt(position + n);
+			}
+		}
+		position = end;
+		return read;
+	}
+	
+	@Override
+	public long skip(long count) {
+		if (count <= 0) {
+			return 0;
+		}
+		int skipped = (int) Math.min(count, length - position);
+		position += skipped;
+		return skipped;
+	}
+	
+	@Override
+	public boolean ready() {
+		return true;
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+	
+	@Override
+	public void mark(int readAheadLimit) {
+		mark = position;
+	}
+	
+	@Override
+	public void reset() {
+		position = mark;
+	}
+	
+	@Override
+	public void close() {
+		
+	}
+	
+}
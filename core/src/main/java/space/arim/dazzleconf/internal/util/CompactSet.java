@@ -0,0 +1,161 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Immutable set stored in a single open addressed table, using linear probing. Built by adding
+ * elements directly, without an intermediate collection.
+ * 
+ * @author A248
+ *
+ * @param <E> the element type
+ */
+public final class CompactSet<E> extends AbstractSet<E> {
+
+	private final Object[] table;
+	private final int size;
+	
+	private CompactSet(Object[] table, int size) {
+		this.table = table;
+		this.size = size;
+	}
+	
+	private static int indexFor(Object element, int mask) {
+		int hash = element.hashCode();
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+	
+	@Override
+	public boolean contains(Object o) {
+		if (o == null) {
+			return false;
+		}
+		int mask = table.length - 1;
+		for (int index = indexFor(o, mask);; index = (index + 1) & mask) {
+			Object element = table[index];
+			if (element == null) {
+				return false;
+			}
+			if (element.equals(o)) {
+				return true;
+			}
+		}
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int index = advance(0);
+			
+			private int advance(int from) {
+				while (from < table.length && table[from] == null) {
+					from++;
+				}
+				return from;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return index < table.length;
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public E next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				E element = (E) table[index];
+				index = advance(index + 1);
+				return element;
+			}
+		};
+	}
+	
+	/**
+	 * Builder of a {@link CompactSet}, which may be used once
+	 * 
+	 * @param <E> the element type
+	 */
+	public static final class Builder<E> {
+		
+		private Object[] table;
+		private int size;
+		
+		/**
+		 * Creates a builder for at most the given amount of elements
+		 * 
+		 * @param maxSize the maximum amount of elements
+		 */
+		public Builder(int maxSize) {
+			// Keeps the load factor at most one half
+			int capacity = Integer.highestOneBit(Math.max(maxSize, 1) * 2 - 1) << 1;
+			table = new Object[capacity];
+		}
+		
+		/**
+		 * Adds an element, unless an equal element was already added
+		 * 
+		 * @param element the element
+		 * @throws NullPointerException if the element is null
+		 * @throws IllegalStateException if more elements are added than the maximum size
+		 */
+		public void add(E element) {
+			Objects.requireNonNull(element, "element");
+			int mask = table.length - 1;
+			for (int index = indexFor(element, mask);; index = (index + 1) & mask) {
+				Object existing = table[index];
+				if (existing == null) {
+					if (2 * (size + 1) > table.length) {
+						throw new IllegalStateException("Exceeded maximum size");
+					}
+					table[index] = element;
+					size++;
+					return;
+				}
+				if (existing.equals(element)) {
+					return;
+				}
+			}
+		}
+		
+		/**
+		 * Builds the set. The builder may not be used afterward.
+		 * 
+		 * @return the set
+		 */
+		public CompactSet<E> build() {
+			CompactSet<E> set = new CompactSet<>(table, size);
+			table = null;
+			return set;
+		}
+	}
+	
+}
@@ -23,6 +23,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
 import space.arim.dazzleconf.internal.ConfEntry;
+import space.arim.dazzleconf.internal.SingleConfEntry;
+import space.arim.dazzleconf.internal.processor.SourceValues;
 
 /**
  * Wrapper around configuration instances supporting more efficient reflective invocation
@@ -47,6 +49,19 @@ public class ConfigurationInvoker<C> {
 		}
 	}
 	
+	/**
+	 * Gets the raw source value of a single entry, if it was retained when the configuration was loaded
+	 * 
+	 * @param entry the config entry
+	 * @return the source value, or {@code null} if not retained
+	 */
+	public Object getSourceValue(SingleConfEntry entry) {
+		if (proxyHandler == null) {
+			return null;
+		}
+		return SourceValues.getSourceValue(proxyHandler, entry);
+	}
+	
 	public Object getEntryValue(ConfEntry entry) {
 		Object value;
 		Method method = entry.getMethod();
@@ -79,6 +79,18 @@ public final class ImmutableCollections {
 		return List.copyOf(coll);
 	}
 	
+	/**
+	 * Wraps an array in an unmodifiable list, without copying it. The array must not be modified afterward.
+	 * 
+	 * @param <E> the element type
+	 * @param elements the elements, none of which may be null
+	 * @return the unmodifiable list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<E> listWrapping(Object[] elements) {
+		return (List<E>) Collections.unmodifiableList(Arrays.asList(elements));
+	}
+	
 	public static <E> Set<E> emptySet() {
 		if (PRE_JAVA_10) {
 			return Collections.emptySet();
@@ -0,0 +1,94 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal.util;
+
+import java.io.Writer;
+
+/**
+ * Unsynchronized writer to a {@code StringBuilder}. Unlike {@code StringWriter}, uses no locking.
+ * 
+ * @author A248
+ *
+ */
+public final class StringBuilderWriter extends Writer {
+
+	private final StringBuilder builder;
+	
+	public StringBuilderWriter(int initialCapacity) {
+		builder = new StringBuilder(initialCapacity);
+	}
+	
+	public StringBuilder getBuilder() {
+		return builder;
+	}
+	
+	@Override
+	public void write(int ch) {
+		builder.append((char) ch);
+	}
+	
+	@Override
+	public void write(char[] buffer, int offset, int count) {
+		builder.append(buffer, offset, count);
+	}
+	
+	@Override
+	public void write(String string) {
+		builder.append(string);
+	}
+	
+	@Override
+	public void write(String string, int offset, int count) {
+		builder.append(string, offset, offset + count);
+	}
+	
+	@Override
+	public Writer append(CharSequence sequence) {
+		builder.append(sequence);
+		return this;
+	}
+	
+	@Override
+	public Writer append(CharSequence sequence, int start, int end) {
+		builder.append(sequence, start, end);
+		return this;
+	}
+	
+	@Override
+	public Writer append(char ch) {
+		builder.append(ch);
+		return this;
+	}
+	
+	@Override
+	public void flush() {
+		
+	}
+	
+	@Override
+	public void close() {
+		
+	}
+	
+	@Override
+	public String toString() {
+		return builder.toString();
+	}
+	
+}
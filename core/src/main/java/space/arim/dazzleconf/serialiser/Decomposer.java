@@ -60,7 +60,9 @@ public interface Decomposer {
 	<K, V> Map<Object, Object> decomposeMap(Class<K> keyType, Class<V> valueType, Map<? extends K, ? extends V> map);
 	
 	/**
-	 * Decomposes an object of a certain type, using a value serialiser if necessary
+	 * Decomposes an object of a certain type, using a value serialiser if necessary. If there is no value
+	 * serialiser for the type itself, the serialiser for its nearest supertype is used, as determined by
+	 * {@link ValueSerialiserMap#getSerialiserForHierarchy(Class)}
 	 * 
 	 * @param <T> the type according to which to serialise
 	 * @param type the type of the object according to which to serialise
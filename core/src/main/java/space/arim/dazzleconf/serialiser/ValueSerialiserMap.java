@@ -18,10 +18,17 @@
  */
 package space.arim.dazzleconf.serialiser;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import space.arim.dazzleconf.internal.util.ImmutableCollections;
 
@@ -34,6 +41,12 @@ import space.arim.dazzleconf.internal.util.ImmutableCollections;
 public final class ValueSerialiserMap {
 
 	private final Map<Class<?>, ValueSerialiser<?>> map;
+	/**
+	 * Memoises the results of hierarchy lookups per class. Held by this instance rather than by the classes
+	 * looked up, so that a serialiser does not keep its class loader reachable after this map is discarded
+	 */
+	private transient final ConcurrentMap<Class<?>, Optional<ValueSerialiser<?>>> hierarchyLookups =
+			new ConcurrentHashMap<>();
 
 	private static final ValueSerialiserMap EMPTY = new ValueSerialiserMap();
 	
@@ -119,6 +132,57 @@ public final class ValueSerialiserMap {
 		return serialiser;
 	}
 	
+	/**
+	 * Gets the value serialiser for a given type, or for the nearest of its supertypes if there is no
+	 * value serialiser for the type itself. This allows a single serialiser to apply to all subtypes
+	 * of some type, for example all implementations of an interface. <br>
+	 * <br>
+	 * Supertypes are searched breadth first, starting with the type's superclass followed by its directly
+	 * implemented interfaces, in declaration order. The result is memoised per class, so repeated lookups
+	 * do not repeat the search.
+	 * 
+	 * @param <T> the type
+	 * @param type the type class
+	 * @return the value serialiser for the type or one of its supertypes, or {@code null} if there is none
+	 */
+	public <T> ValueSerialiser<? super T> getSerialiserForHierarchy(Class<T> type) {
+		ValueSerialiser<?> exactSerialiser = map.get(type);
+		if (exactSerialiser == null) {
+			if (map.isEmpty()) {
+				return null;
+			}
+			exactSerialiser = hierarchyLookups.computeIfAbsent(type,
+					(lookupType) -> Optional.ofNullable(findInHierarchy(lookupType))).orElse(null);
+		}
+		@SuppressWarnings("unchecked")
+		ValueSerialiser<? super T> serialiser = (ValueSerialiser<? super T>) exactSerialiser;
+		return serialiser;
+	}
+	
+	private ValueSerialiser<?> findInHierarchy(Class<?> type) {
+		Set<Class<?>> visited = new HashSet<>();
+		Queue<Class<?>> toVisit = new ArrayDeque<>();
+		toVisit.add(type);
+		Class<?> current;
+		while ((current = toVisit.poll()) != null) {
+			if (!visited.add(current)) {
+				continue;
+			}
+			ValueSerialiser<?> serialiser = map.get(current);
+			if (serialiser != null) {
+				return serialiser;
+			}
+			Class<?> superclass = current.getSuperclass();
+			if (superclass != null) {
+				toVisit.add(superclass);
+			}
+			for (Class<?> superinterface : current.getInterfaces()) {
+				toVisit.add(superinterface);
+			}
+		}
+		return null;
+	}
+	
 	/**
 	 * Gets this value serialiser map as a {@link Map}. This map is immutable.
 	 * 
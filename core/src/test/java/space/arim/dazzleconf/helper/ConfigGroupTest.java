@@ -0,0 +1,99 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.SerialisationFactory;
+
+public class ConfigGroupTest {
+
+	@TempDir
+	public Path tempDir;
+
+	private ConfigurationHelper<DummyConfig> first;
+	private ConfigurationHelper<DummyConfig> second;
+
+	private final DummyConfigDefaults defaults = new DummyConfigDefaults();
+
+	@BeforeEach
+	public void setup() {
+		first = new ConfigurationHelper<>(tempDir, "first.yml",
+				new SerialisationFactory<>(DummyConfig.class, ConfigurationOptions.defaults()));
+		second = new ConfigurationHelper<>(tempDir, "second.yml",
+				new SerialisationFactory<>(DummyConfig.class, ConfigurationOptions.defaults()));
+	}
+
+	@Test
+	public void testLoadAndReload() throws IOException, InvalidConfigException, ExecutionException, InterruptedException {
+		ConfigGroup group = ConfigGroup.load(List.of(first, second));
+		ConfigGroup.Snapshot initial = group.current();
+		defaults.assertDefaultValues(initial.get(first));
+		defaults.assertDefaultValues(initial.get(second));
+		assertNotSame(initial.get(first), initial.get(second));
+
+		assertTrue(group.reload());
+		assertEquals(1L, group.version());
+		assertNotSame(initial, group.current());
+
+		assertTrue(group.reloadAsync().get());
+		assertEquals(2L, group.version());
+		defaults.assertDefaultValues(group.current().get(second));
+	}
+
+	@Test
+	public void testFailedMemberKeepsSnapshot() throws IOException, InvalidConfigException, InterruptedException {
+		ConfigGroup group = ConfigGroup.load(List.of(first, second));
+		ConfigGroup.Snapshot initial = group.current();
+
+		Files.write(tempDir.resolve("second.yml"), new byte[] {1, 2, 3});
+		assertThrows(IOException.class, group::reload);
+		ExecutionException ex = assertThrows(ExecutionException.class, () -> group.reloadAsync().get());
+		assertTrue(ex.getCause() instanceof IOException, "Cause should be unwrapped " + ex.getCause());
+
+		assertSame(initial, group.current());
+		assertEquals(0L, group.version());
+	}
+
+	@Test
+	public void testNotMember() throws IOException, InvalidConfigException {
+		ConfigGroup group = ConfigGroup.load(List.of(first));
+		assertThrows(IllegalArgumentException.class, () -> group.current().get(second));
+		assertThrows(IllegalArgumentException.class, () -> ConfigGroup.load(List.of(first, first)));
+	}
+
+}
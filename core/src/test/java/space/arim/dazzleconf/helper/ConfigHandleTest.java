@@ -0,0 +1,169 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.SerialisationFactory;
+
+public class ConfigHandleTest {
+
+	@TempDir
+	public Path tempDir;
+
+	@Test
+	public void testPublish() {
+		ConfigHandle<String> handle = new ConfigHandle<>("initial");
+		assertEquals("initial", handle.current());
+		assertEquals(0L, handle.version());
+
+		assertEquals(1L, handle.publish("second"));
+		assertEquals("second", handle.current());
+		ConfigHandle.Versioned<String> versioned = handle.versioned();
+		assertEquals("second", versioned.getConfigData());
+		assertEquals(1L, versioned.getVersion());
+	}
+
+	@Test
+	public void testCompareAndPublish() {
+		ConfigHandle<String> handle = new ConfigHandle<>("initial");
+		long version = handle.version();
+		assertTrue(handle.compareAndPublish(version, "first reload"));
+		assertFalse(handle.compareAndPublish(version, "stale reload"));
+		assertEquals("first reload", handle.current());
+		assertEquals(version + 1, handle.version());
+	}
+
+	@Test
+	public void testConcurrentPublish() throws InterruptedException {
+		ConfigHandle<Integer> handle = new ConfigHandle<>(0);
+		int threadCount = 4;
+		int publishesPerThread = 1000;
+		Thread[] threads = new Thread[threadCount];
+		for (int n = 0; n < threadCount; n++) {
+			threads[n] = new Thread(() -> {
+				for (int m = 0; m < publishesPerThread; m++) {
+					handle.publish(m);
+				}
+			});
+			threads[n].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(threadCount * publishesPerThread, handle.version());
+	}
+
+	@Test
+	public void testReloadIntoHandle() throws IOException, InvalidConfigException, ExecutionException, InterruptedException {
+		ConfigurationHelper<DummyConfig> helper = new ConfigurationHelper<>(tempDir, "config.yml",
+				new SerialisationFactory<>(DummyConfig.class, ConfigurationOptions.defaults()));
+		DummyConfigDefaults defaults = new DummyConfigDefaults();
+
+		ConfigHandle<DummyConfig> handle = helper.createHandle();
+		DummyConfig initialData = handle.current();
+		defaults.assertDefaultValues(initialData);
+
+		assertTrue(helper.reloadConfigData(handle));
+		assertEquals(1L, handle.version());
+		assertNotSame(initialData, handle.current());
+		defaults.assertDefaultValues(handle.current());
+
+		assertTrue(helper.reloadConfigDataAsync(handle).get());
+		assertEquals(2L, handle.version());
+
+		// Data published during a reload is not replaced
+		DummyConfig publishedData = handle.current();
+		ConfigurationHelper<DummyConfig> racingHelper = new ConfigurationHelper<>(tempDir, "config.yml",
+				new SerialisationFactory<DummyConfig>(DummyConfig.class, ConfigurationOptions.defaults()) {
+					@Override
+					public DummyConfig load(ByteBuffer buffer, DummyConfig auxiliaryEntries) throws IOException, InvalidConfigException {
+						handle.publish(publishedData);
+						return super.load(buffer, auxiliaryEntries);
+					}
+				});
+		assertFalse(racingHelper.reloadConfigData(handle));
+		assertSame(publishedData, handle.current());
+		assertEquals(3L, handle.version());
+	}
+
+	public interface Settings {
+
+		String name();
+
+		default String greeting() {
+			return "Hello " + name();
+		}
+
+	}
+
+	private static Settings settings(String name) {
+		return new Settings() {
+			@Override
+			public String name() {
+				return name;
+			}
+		};
+	}
+
+	@Test
+	public void testLiveView() {
+		ConfigHandle<Settings> handle = new ConfigHandle<>(settings("first"));
+		Settings liveView = handle.liveView(Settings.class);
+		assertEquals("first", liveView.name());
+		assertEquals("Hello first", liveView.greeting());
+
+		handle.publish(settings("second"));
+		assertEquals("second", liveView.name());
+		assertEquals("Hello second", liveView.greeting());
+		assertEquals(liveView, liveView);
+		assertNotEquals(liveView, handle.current());
+	}
+
+	@Test
+	public void testLiveViewOfLoadedConfig() throws IOException, InvalidConfigException {
+		ConfigurationHelper<DummyConfig> helper = new ConfigurationHelper<>(tempDir, "config.yml",
+				new SerialisationFactory<>(DummyConfig.class, ConfigurationOptions.defaults()));
+		ConfigHandle<DummyConfig> handle = helper.createHandle();
+		DummyConfig liveView = helper.createLiveView(handle);
+		new DummyConfigDefaults().assertDefaultValues(liveView);
+		assertSame(handle.current().subSection(), liveView.subSection());
+
+		helper.reloadConfigData(handle);
+		assertSame(handle.current().subSection(), liveView.subSection());
+	}
+
+}
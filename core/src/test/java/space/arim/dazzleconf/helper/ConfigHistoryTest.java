@@ -0,0 +1,135 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.internal.SerialisationFactory;
+
+public class ConfigHistoryTest {
+
+	@TempDir
+	public Path tempDir;
+
+	private ConfigurationHelper<DummyConfig> helper;
+
+	@BeforeEach
+	public void setup() {
+		helper = new ConfigurationHelper<>(tempDir, "config.yml",
+				new SerialisationFactory<>(DummyConfig.class, ConfigurationOptions.defaults()));
+	}
+
+	@Test
+	public void testRecordReloads() throws IOException, InvalidConfigException {
+		ConfigHistory<DummyConfig> history = ConfigHistory.load(helper, 3);
+		new DummyConfigDefaults().assertDefaultValues(history.getHandle().current());
+		assertEquals(1, history.size());
+		String initialHash = history.get(0).getSourceHash();
+		assertEquals(64, initialHash.length());
+
+		Path configPath = tempDir.resolve("config.yml");
+		byte[] source = Files.readAllBytes(configPath);
+		Files.write(configPath, Arrays.copyOf(source, source.length + 1));
+		assertTrue(history.reload());
+		assertEquals(2, history.size());
+		assertSame(history.get(0).getConfigData(), history.getHandle().current());
+		assertNotEquals(initialHash, history.get(0).getSourceHash());
+		assertEquals(initialHash, history.get(1).getSourceHash());
+
+		assertTrue(history.reload());
+		assertTrue(history.reload());
+		assertEquals(3, history.size(), "Oldest entry should be dropped");
+		assertEquals(3, history.getEntries().size());
+		assertEquals(3L, history.getHandle().version());
+	}
+
+	@Test
+	public void testHashOfParsedSource() throws IOException, InvalidConfigException, NoSuchAlgorithmException {
+		Path configPath = tempDir.resolve("config.yml");
+		ConfigurationHelper<DummyConfig> changingHelper = new ConfigurationHelper<>(tempDir, "config.yml",
+				new SerialisationFactory<DummyConfig>(DummyConfig.class, ConfigurationOptions.defaults()) {
+					@Override
+					public DummyConfig load(ByteBuffer buffer, DummyConfig auxiliaryEntries) throws IOException, InvalidConfigException {
+						// The file changes while the previous version is parsed
+						byte[] source = Files.readAllBytes(configPath);
+						Files.write(configPath, Arrays.copyOf(source, source.length + 1));
+						return super.load(buffer, auxiliaryEntries);
+					}
+				});
+		ConfigHistory<DummyConfig> history = ConfigHistory.load(changingHelper, 2);
+		assertEquals(sha256Hex(Files.readAllBytes(configPath)), history.get(0).getSourceHash(),
+				"Written defaults should be hashed");
+
+		byte[] parsedSource = Files.readAllBytes(configPath);
+		assertTrue(history.reload());
+		assertEquals(sha256Hex(parsedSource), history.get(0).getSourceHash());
+	}
+
+	private static String sha256Hex(byte[] source) throws NoSuchAlgorithmException {
+		StringBuilder builder = new StringBuilder();
+		for (byte b : MessageDigest.getInstance("SHA-256").digest(source)) {
+			builder.append(String.format("%02x", b));
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testRollback() throws IOException, InvalidConfigException {
+		ConfigHistory<DummyConfig> history = ConfigHistory.load(helper, 4);
+		DummyConfig initial = history.getHandle().current();
+		history.reload();
+		DummyConfig second = history.getHandle().current();
+		history.reload();
+
+		assertSame(second, history.rollback(1).getConfigData());
+		assertSame(second, history.getHandle().current());
+		assertEquals(2, history.size());
+		assertEquals(3L, history.getHandle().version());
+
+		assertSame(initial, history.rollback(1).getConfigData());
+		assertSame(initial, history.getHandle().current());
+		assertEquals(1, history.size());
+		assertThrows(IndexOutOfBoundsException.class, () -> history.rollback(1));
+
+		history.reload();
+		assertEquals(2, history.size());
+		assertSame(initial, history.get(1).getConfigData());
+	}
+
+}
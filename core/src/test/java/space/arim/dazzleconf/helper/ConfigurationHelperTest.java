@@ -19,7 +19,26 @@
 package space.arim.dazzleconf.helper;
 
 import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +48,9 @@ import org.junit.jupiter.api.io.TempDir;
 import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.DummyConfig;
 import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.BadValueException;
 import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
 import space.arim.dazzleconf.internal.SerialisationFactory;
 
 public class ConfigurationHelperTest {
@@ -76,5 +97,241 @@ public class ConfigurationHelperTest {
 		}
 		defaults.assertDefaultValues(reloadedData);
 	}
+	
+	@Test
+	public void testReloadAsync() throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			defaults.assertDefaultValues(helper.reloadConfigDataAsync(executor).get());
+			defaults.assertDefaultValues(helper.reloadConfigDataAsync().get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testLoadAsyncFailure() throws InterruptedException {
+		CompletableFuture<DummyConfig> future = helper.getFactory().loadAsync(tempDir.resolve("nonexistent.yml"));
+		ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+		assertTrue(ex.getCause() instanceof NoSuchFileException, "Cause should be unwrapped " + ex.getCause());
+	}
+	
+	@Test
+	public void testSnapshotCache() throws IOException, InvalidConfigException {
+		AtomicInteger loads = new AtomicInteger();
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class,
+				ConfigurationOptions.defaults()) {
+			@Override
+			public DummyConfig load(ByteBuffer buffer, DummyConfig auxiliaryEntries) throws IOException, InvalidConfigException {
+				loads.incrementAndGet();
+				return super.load(buffer, auxiliaryEntries);
+			}
+		};
+		ConfigurationHelper<DummyConfig> snapshotHelper = new ConfigurationHelper<>(tempDir, "config.yml",
+				factory, "config.snapshot");
+		Path configPath = tempDir.resolve("config.yml");
+		Path snapshotPath = tempDir.resolve("config.snapshot");
+
+		defaults.assertDefaultValues(snapshotHelper.reloadConfigData());
+		assertTrue(Files.exists(snapshotPath));
+		defaults.assertDefaultValues(snapshotHelper.reloadConfigData());
+		assertEquals(0, loads.get(), "Unchanged configuration should be loaded from snapshot");
+
+		// A changed source invalidates the snapshot
+		byte[] source = Files.readAllBytes(configPath);
+		byte[] changedSource = Arrays.copyOf(source, source.length + 1);
+		Files.write(configPath, changedSource);
+		defaults.assertDefaultValues(snapshotHelper.reloadConfigData());
+		assertEquals(1, loads.get());
+		defaults.assertDefaultValues(snapshotHelper.reloadConfigData());
+		assertEquals(1, loads.get(), "Snapshot should be retaken");
+
+		// A corrupt snapshot is ignored
+		Files.write(snapshotPath, new byte[] {1, 2, 3});
+		defaults.assertDefaultValues(snapshotHelper.reloadConfigData());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testSnapshotOfParsedSource() throws IOException, InvalidConfigException {
+		Path configPath = tempDir.resolve("config.yml");
+		AtomicInteger loads = new AtomicInteger();
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class,
+				ConfigurationOptions.defaults()) {
+			@Override
+			public DummyConfig load(ByteBuffer buffer, DummyConfig auxiliaryEntries) throws IOException, InvalidConfigException {
+				if (loads.incrementAndGet() == 1) {
+					// The file changes while the previous version is parsed
+					byte[] source = Files.readAllBytes(configPath);
+					Files.write(configPath, Arrays.copyOf(source, source.length + 1));
+				}
+				return super.load(buffer, auxiliaryEntries);
+			}
+		};
+		ConfigurationHelper<DummyConfig> snapshotHelper = new ConfigurationHelper<>(tempDir, "config.yml",
+				factory, "config.snapshot");
+		snapshotHelper.reloadConfigData(); // Writes the file
+		// Changed, so that the snapshot of the defaults does not apply
+		byte[] written = Files.readAllBytes(configPath);
+		Files.write(configPath, Arrays.copyOf(written, written.length + 1));
+
+		snapshotHelper.reloadConfigData();
+		assertEquals(1, loads.get());
+		snapshotHelper.reloadConfigData();
+		assertEquals(2, loads.get(), "Snapshot must not be stored under the hash of the changed file");
+		snapshotHelper.reloadConfigData();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testSnapshotCacheWithLazyEntries() throws IOException, InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class,
+				new ConfigurationOptions.Builder().setLazyEntries(true).addValidator("myInteger", (key, value) -> {
+					if ((Integer) value > 10) {
+						throw new BadValueException.Builder().key(key).message("Out of range").build();
+					}
+				}).build());
+		DummyConfig defaultData = factory.loadDefaults();
+		DummyConfig outOfRange = (DummyConfig) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {DummyConfig.class},
+				(proxy, method, args) -> (method.getName().equals("myInteger")) ? 50 : method.invoke(defaultData, args));
+		Files.write(tempDir.resolve("config.yml"), toByteArray(factory.write(outOfRange)));
+		ConfigurationHelper<DummyConfig> snapshotHelper = new ConfigurationHelper<>(tempDir, "config.yml",
+				factory, "config.snapshot");
+
+		// Taking a snapshot would convert the invalid value
+		DummyConfig configData = snapshotHelper.reloadConfigData();
+		assertFalse(Files.exists(tempDir.resolve("config.snapshot")));
+		assertEquals("let's see", configData.myString());
+		assertThrows(UncheckedInvalidConfigException.class, configData::myInteger);
+	}
+
+	@Test
+	public void testDefaultsNotWrittenOverCreatedFile() throws IOException, InvalidConfigException {
+		Path configPath = tempDir.resolve("config.yml");
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class,
+				ConfigurationOptions.defaults());
+		// Trailing byte distinguishes the created file from the written defaults
+		byte[] defaultSource = toByteArray(factory.write(factory.loadDefaults()));
+		byte[] createdSource = Arrays.copyOf(defaultSource, defaultSource.length + 1);
+
+		SerialisationFactory<DummyConfig> racingFactory = new SerialisationFactory<>(DummyConfig.class,
+				ConfigurationOptions.defaults()) {
+			@Override
+			public ByteBuffer write(DummyConfig configData) throws IOException {
+				if (!Files.exists(configPath)) {
+					// The file is created while the defaults are being written
+					Files.write(configPath, createdSource);
+				}
+				return super.write(configData);
+			}
+		};
+		ConfigurationHelper<DummyConfig> racingHelper = new ConfigurationHelper<>(tempDir, "config.yml", racingFactory);
+		defaults.assertDefaultValues(racingHelper.reloadConfigData());
+		assertArrayEquals(createdSource, Files.readAllBytes(configPath));
+	}
+
+	private static byte[] toByteArray(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private static final class BlockingFactory extends SerialisationFactory<DummyConfig> {
+
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch firstLoadStarted = new CountDownLatch(1);
+
+		BlockingFactory() {
+			super(DummyConfig.class, ConfigurationOptions.defaults());
+		}
+
+		@Override
+		public DummyConfig load(ByteBuffer buffer, DummyConfig auxiliaryEntries) throws IOException, InvalidConfigException {
+			loads.incrementAndGet();
+			firstLoadStarted.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				throw new IOException(ex);
+			}
+			return super.load(buffer, auxiliaryEntries);
+		}
+	}
+
+	private static void awaitWaiting(Thread thread) throws InterruptedException {
+		long deadline = System.nanoTime() + 10_000_000_000L;
+		while (thread.getState() != Thread.State.WAITING) {
+			assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + thread);
+			Thread.sleep(1L);
+		}
+	}
+
+	private Thread startReload(ConfigurationHelper<DummyConfig> helper, DummyConfig[] results, int index) {
+		Thread thread = new Thread(() -> {
+			try {
+				results[index] = helper.reloadConfigData();
+			} catch (IOException | InvalidConfigException ex) {
+				throw new RuntimeException(ex);
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	@Test
+	public void testCoalesceConcurrentReloads() throws IOException, InvalidConfigException, InterruptedException {
+		BlockingFactory factory = new BlockingFactory();
+		ConfigurationHelper<DummyConfig> helper = new ConfigurationHelper<>(tempDir, "config.yml", factory);
+		helper.reloadConfigData(); // Writes the file
+
+		DummyConfig[] results = new DummyConfig[3];
+		Thread first = startReload(helper, results, 0);
+		factory.firstLoadStarted.await();
+		Thread second = startReload(helper, results, 1);
+		Thread third = startReload(helper, results, 2);
+		awaitWaiting(second);
+		awaitWaiting(third);
+
+		factory.release.countDown();
+		first.join();
+		second.join();
+		third.join();
+		assertEquals(1, factory.loads.get(), "Concurrent reloads should share one load");
+		defaults.assertDefaultValues(results[0]);
+		assertSame(results[0], results[1]);
+		assertSame(results[0], results[2]);
+	}
+
+	@Test
+	public void testFollowUpReloadIfChanged() throws IOException, InvalidConfigException, InterruptedException {
+		BlockingFactory factory = new BlockingFactory();
+		ConfigurationHelper<DummyConfig> helper = new ConfigurationHelper<>(tempDir, "config.yml", factory);
+		helper.reloadConfigData(); // Writes the file
+
+		DummyConfig[] results = new DummyConfig[3];
+		Thread first = startReload(helper, results, 0);
+		factory.firstLoadStarted.await();
+
+		// Changed after the running reload started
+		Path configPath = tempDir.resolve("config.yml");
+		byte[] source = Files.readAllBytes(configPath);
+		Files.write(configPath, Arrays.copyOf(source, source.length + 1));
+
+		Thread second = startReload(helper, results, 1);
+		Thread third = startReload(helper, results, 2);
+		awaitWaiting(second);
+		awaitWaiting(third);
+
+		factory.release.countDown();
+		first.join();
+		second.join();
+		third.join();
+		assertEquals(2, factory.loads.get(), "Changed file should be reloaded once more");
+		defaults.assertDefaultValues(results[1]);
+		assertNotSame(results[0], results[1]);
+		assertSame(results[1], results[2]);
+	}
 
 }
@@ -0,0 +1,76 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.sorter.AnnotationBasedSorter;
+
+public class AuxiliaryKeyPathsTest {
+
+	// Sorts keys alphabetically, so that definition order is known
+	private final SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class,
+			new ConfigurationOptions.Builder().sorter(new AnnotationBasedSorter()).build());
+	
+	@Test
+	public void testNoAuxiliaryKeys() throws InvalidConfigException {
+		DummyConfig defaults = factory.loadDefaults();
+		DummyConfig config = factory.fromRawMap(factory.toRawMap(defaults), defaults);
+		assertFalse(config instanceof AuxiliaryKeys);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testPathsInDefinitionOrder() throws InvalidConfigException {
+		DummyConfig defaults = factory.loadDefaults();
+		Map<String, Object> rawMap = factory.toRawMap(defaults);
+		((Map<String, Object>) rawMap.get("subSection")).remove("nestedValue");
+		rawMap.remove("myString");
+
+		DummyConfig config = factory.fromRawMap(rawMap, defaults);
+		assertTrue(config instanceof AuxiliaryKeys);
+		assertEquals(List.of("myString", "subSection.nestedValue"),
+				List.copyOf(((AuxiliaryKeys) config).getAuxiliaryKeyPaths()));
+		new DummyConfigDefaults().assertDefaultValues(config);
+	}
+	
+	@Test
+	public void testMissingSection() throws InvalidConfigException {
+		DummyConfig defaults = factory.loadDefaults();
+		Map<String, Object> rawMap = factory.toRawMap(defaults);
+		rawMap.remove("subSection");
+
+		DummyConfig config = factory.fromRawMap(rawMap, defaults);
+		// The additional key is defined separately, but shares the section
+		assertEquals(List.of("subSection", "subSection.additional-key"), List.copyOf(((AuxiliaryKeys) config).getAuxiliaryKeyPaths()));
+	}
+	
+}
@@ -0,0 +1,98 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.CollectionSize;
+import space.arim.dazzleconf.annote.CompactCollection;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class CompactCollectionTest {
+
+	public interface ListsConfig {
+
+		@CompactCollection
+		List<String> allowList();
+
+		@CompactCollection
+		@CollectionSize(max = 5000)
+		Set<Integer> denyList();
+
+	}
+
+	private final SerialisationFactory<ListsConfig> factory = new SerialisationFactory<>(ListsConfig.class,
+			ConfigurationOptions.defaults());
+	
+	@Test
+	public void testLargeCollections() throws InvalidConfigException {
+		List<Object> allowList = new ArrayList<>();
+		List<Object> denyList = new ArrayList<>();
+		for (int n = 0; n < 5000; n++) {
+			allowList.add("user-" + n);
+			// Includes duplicates, given as strings
+			denyList.add(Integer.toString(n % 2500));
+		}
+		ListsConfig config = factory.fromRawMap(Map.of("allowList", allowList, "denyList", denyList));
+
+		assertEquals(allowList, config.allowList());
+		Set<Integer> expectedDenyList = new HashSet<>();
+		for (int n = 0; n < 2500; n++) {
+			expectedDenyList.add(n);
+		}
+		assertEquals(expectedDenyList, config.denyList());
+		assertEquals(config.denyList(), expectedDenyList);
+		assertEquals(expectedDenyList.hashCode(), config.denyList().hashCode());
+		assertFalse(config.denyList().contains(2500));
+		assertFalse(config.denyList().contains(null));
+
+		assertThrows(UnsupportedOperationException.class, () -> config.allowList().set(0, "other"));
+		assertThrows(UnsupportedOperationException.class, () -> config.denyList().remove(0));
+	}
+	
+	@Test
+	public void testSingleElementsAndSizes() throws InvalidConfigException {
+		ListsConfig config = factory.fromRawMap(Map.of("allowList", List.of(), "denyList", List.of(7)));
+		assertTrue(config.allowList().isEmpty());
+		assertEquals(Set.of(7), config.denyList());
+
+		List<Object> tooLarge = new ArrayList<>();
+		for (int n = 0; n < 5001; n++) {
+			tooLarge.add(n);
+		}
+		assertThrows(BadValueException.class,
+				() -> factory.fromRawMap(Map.of("allowList", List.of(), "denyList", tooLarge)));
+		assertThrows(BadValueException.class,
+				() -> factory.fromRawMap(Map.of("allowList", List.of(), "denyList", List.of("not a number"))));
+	}
+	
+}
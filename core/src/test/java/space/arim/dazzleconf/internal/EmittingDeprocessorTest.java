@@ -0,0 +1,124 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
+import space.arim.dazzleconf.annote.ConfKey;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
+import space.arim.dazzleconf.internal.deprocessor.EmittingDeprocessor;
+import space.arim.dazzleconf.internal.deprocessor.WritePlan;
+
+public class EmittingDeprocessorTest {
+
+	private final SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(
+			DummyConfig.class, ConfigurationOptions.defaults());
+
+	@Test
+	public void testEmitSameAsMap() throws IOException {
+		DummyConfig defaults = factory.loadDefaults();
+		MapBuildingEmitter emitter = new MapBuildingEmitter();
+		new EmittingDeprocessor<>(WritePlan.of(factory.getDefinition()), defaults).emitTo(emitter);
+
+		assertTrue(emitter.finished);
+		assertEquals(factory.toRawMap(defaults), emitter.sections.pop());
+	}
+
+	public interface SharedPrefixConfig {
+
+		@ConfKey("sub.x.b")
+		@DefaultInteger(2)
+		int dottedValue();
+
+		@SubSection
+		SubConfig sub();
+
+		interface SubConfig {
+
+			@ConfKey("x.a")
+			@DefaultInteger(1)
+			int nestedValue();
+
+		}
+
+	}
+
+	@Test
+	public void testDottedKeyAndSectionWithSharedPrefix() throws IOException {
+		SerialisationFactory<SharedPrefixConfig> sharedPrefixFactory = new SerialisationFactory<>(
+				SharedPrefixConfig.class, ConfigurationOptions.defaults());
+		SharedPrefixConfig defaults = sharedPrefixFactory.loadDefaults();
+		MapBuildingEmitter emitter = new MapBuildingEmitter();
+		new EmittingDeprocessor<>(WritePlan.of(sharedPrefixFactory.getDefinition()), defaults).emitTo(emitter);
+
+		Map<String, Object> expected = Map.of("sub", Map.of("x", Map.of("a", 1, "b", 2)));
+		assertEquals(expected, emitter.sections.pop());
+		assertEquals(expected, sharedPrefixFactory.toRawMap(defaults));
+	}
+
+	private static class MapBuildingEmitter implements ConfigurationEmitter {
+
+		final Deque<Map<String, Object>> sections = new ArrayDeque<>();
+		boolean finished;
+
+		MapBuildingEmitter() {
+			sections.push(new LinkedHashMap<>());
+		}
+
+		@Override
+		public void beginSection(String key, List<String> comments) {
+			Map<String, Object> section = new LinkedHashMap<>();
+			// Sections are grouped, so a key is never begun twice
+			assertEquals(null, sections.peek().put(key, section));
+			sections.push(section);
+		}
+
+		@Override
+		public void endSection() {
+			sections.pop();
+		}
+
+		@Override
+		public void emitEntry(String key, Object value, List<String> comments) {
+			assertEquals(null, sections.peek().put(key, value));
+		}
+
+		@Override
+		public void finish() {
+			assertEquals(1, sections.size());
+			finished = true;
+		}
+
+	}
+
+}
@@ -0,0 +1,39 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import java.util.function.Supplier;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+
+/**
+ * Computes a snapshot fingerprint using a lambda validator. Loaded in a separate class loader
+ * by {@link SnapshotFingerprintTest}, where the lambda has a different class name.
+ */
+public class LambdaValidatorFingerprint implements Supplier<byte[]> {
+
+	@Override
+	public byte[] get() {
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.addValidator("myString", (key, value) -> {}).build();
+		return new SnapshotConfigurationFactory<>(DummyConfig.class, options).fingerprint();
+	}
+
+}
@@ -0,0 +1,113 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.ConfigurationLayer;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.LayeredKeys;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.MissingKeyException;
+
+public class LayeredSourcesTest {
+
+	private static SerialisationFactory<DummyConfig> createFactory(boolean lazySubSections) {
+		ConfigurationOptions options = new ConfigurationOptions.Builder().setLazySubSections(lazySubSections).build();
+		return new SerialisationFactory<>(DummyConfig.class, options);
+	}
+	
+	private static List<ConfigurationLayer> layers(SerialisationFactory<DummyConfig> factory) {
+		Map<String, Object> env = new HashMap<>();
+		env.put("myInteger", 7);
+		env.put("subSection", Map.of("nestedValue", "from env"));
+		return List.of(
+				ConfigurationLayer.ofRawMap("overrides", Map.of("myString", "overridden")),
+				ConfigurationLayer.ofRawMap("env", env),
+				ConfigurationLayer.ofRawMap("base", factory.toRawMap(factory.loadDefaults())));
+	}
+	
+	private static void testOverlay(boolean lazySubSections) throws IOException, InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(lazySubSections);
+		DummyConfig config = factory.loadLayered(layers(factory));
+		assertEquals("overridden", config.myString());
+		assertEquals(7, config.myInteger());
+		assertEquals("from env", config.subSection().nestedValue());
+		assertEquals(Set.of("1string", "2string", "3string"), config.subSection().someStringsForYou());
+		assertFalse(config instanceof AuxiliaryKeys);
+
+		Map<String, String> keyLayers = ((LayeredKeys) config).getKeyLayers();
+		assertEquals("overrides", keyLayers.get("myString"));
+		assertEquals("env", keyLayers.get("myInteger"));
+		assertEquals("env", keyLayers.get("subSection.nestedValue"));
+		assertEquals("base", keyLayers.get("subSection.ordered123"));
+		assertEquals("base", keyLayers.get("configBool"));
+	}
+	
+	@Test
+	public void testOverlay() throws IOException, InvalidConfigException {
+		testOverlay(false);
+	}
+	
+	@Test
+	public void testOverlayLazySections() throws IOException, InvalidConfigException {
+		testOverlay(true);
+	}
+	
+	@Test
+	public void testOnlyWinningValueConverted() throws IOException, InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		Map<String, Object> base = factory.toRawMap(factory.loadDefaults());
+		base.put("myInteger", "not a number");
+		DummyConfig config = factory.loadLayered(List.of(
+				ConfigurationLayer.ofRawMap("overrides", Map.of("myInteger", 4)),
+				ConfigurationLayer.ofRawMap("base", base)));
+		assertEquals(4, config.myInteger());
+	}
+	
+	@Test
+	public void testMissingFromAllLayers() throws IOException, InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		DummyConfig defaults = factory.loadDefaults();
+		Map<String, Object> base = factory.toRawMap(defaults);
+		base.remove("configBool");
+		List<ConfigurationLayer> layers = List.of(
+				ConfigurationLayer.ofRawMap("overrides", Map.of()), ConfigurationLayer.ofRawMap("base", base));
+
+		assertThrows(MissingKeyException.class, () -> factory.loadLayered(layers));
+		DummyConfig config = factory.loadLayered(layers, defaults);
+		assertEquals(Set.of("configBool"), ((AuxiliaryKeys) config).getAuxiliaryKeyPaths());
+		assertTrue(config.configBool());
+		assertFalse(((LayeredKeys) config).getKeyLayers().containsKey("configBool"));
+	}
+	
+}
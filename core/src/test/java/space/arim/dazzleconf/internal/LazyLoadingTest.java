@@ -0,0 +1,161 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+
+public class LazyLoadingTest {
+
+	private static SerialisationFactory<DummyConfig> createFactory(boolean eagerlyValidate) {
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.setLazyEntries(true).setLazySubSections(true).setEagerlyValidateLazyValues(eagerlyValidate).build();
+		return new SerialisationFactory<>(DummyConfig.class, options);
+	}
+	
+	@Test
+	public void testLoadLazily() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		new DummyConfigDefaults().assertDefaultValues(factory.fromRawMap(rawMap));
+	}
+	
+	@Test
+	public void testInvalidValueDetectedOnAccess() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		rawMap.put("myInteger", "not a number");
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		assertEquals("let's see", config.myString());
+		UncheckedInvalidConfigException ex = assertThrows(UncheckedInvalidConfigException.class, config::myInteger);
+		assertEquals("myInteger", ((BadValueException) ex.getCause()).getKey());
+	}
+	
+	@Test
+	public void testInvalidValueDetectedEagerly() {
+		SerialisationFactory<DummyConfig> factory = createFactory(true);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		rawMap.put("myInteger", "not a number");
+
+		assertThrows(BadValueException.class, () -> factory.fromRawMap(rawMap));
+	}
+	
+	@Test
+	public void testEagerlyValidatedValueNotValidatedAgain() throws InvalidConfigException {
+		AtomicInteger validations = new AtomicInteger();
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.setLazyEntries(true).setEagerlyValidateLazyValues(true)
+				.addValidator("myInteger", (key, value) -> validations.incrementAndGet()).build();
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class, options);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		validations.set(0);
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		assertEquals(1, validations.get());
+		config.myInteger();
+		assertEquals(1, validations.get(), "Value validated at load time should not be validated upon access");
+	}
+	
+	@Test
+	public void testLazySnapshotValueNotValidated() throws IOException, InvalidConfigException {
+		AtomicInteger validations = new AtomicInteger();
+		ConfigurationOptions options = new ConfigurationOptions.Builder().setLazyEntries(true)
+				.addValidator("myInteger", (key, value) -> validations.incrementAndGet()).build();
+		SnapshotConfigurationFactory<DummyConfig> factory = new SnapshotConfigurationFactory<>(DummyConfig.class, options);
+		ByteBuffer snapshot = factory.write(factory.loadDefaults());
+		validations.set(0);
+
+		new DummyConfigDefaults().assertDefaultValues(factory.load(snapshot));
+		assertEquals(0, validations.get(), "Snapshots are of valid values and should not be validated again");
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getSubSection(Map<String, Object> rawMap) {
+		return (Map<String, Object>) rawMap.get("subSection");
+	}
+	
+	@Test
+	public void testInvalidSectionDetectedOnAccess() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		getSubSection(rawMap).put("numericPair", "not a pair");
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		assertEquals("let's see", config.myString());
+		assertThrows(UncheckedInvalidConfigException.class, () -> config.subSection().numericPair());
+	}
+	
+	@Test
+	public void testInvalidSectionDetectedEagerly() {
+		SerialisationFactory<DummyConfig> factory = createFactory(true);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		getSubSection(rawMap).put("numericPair", "not a pair");
+
+		assertThrows(BadValueException.class, () -> factory.fromRawMap(rawMap));
+	}
+	
+	@Test
+	public void testEagerlyValidatedSectionNotProcessedAgain() throws InvalidConfigException {
+		AtomicInteger validations = new AtomicInteger();
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.setLazySubSections(true).setEagerlyValidateLazyValues(true)
+				.addValidator("nestedValue", (key, value) -> validations.incrementAndGet()).build();
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class, options);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		validations.set(0);
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		assertEquals(1, validations.get());
+		new DummyConfigDefaults().assertDefaultValues(config);
+		assertEquals(1, validations.get(), "Section validated at load time should not be processed again");
+	}
+	
+	@Test
+	public void testMissingKeyInLazySection() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		DummyConfig defaults = factory.loadDefaults();
+		Map<String, Object> rawMap = factory.toRawMap(defaults);
+		getSubSection(rawMap).remove("nestedValue");
+
+		assertThrows(UncheckedInvalidConfigException.class, factory.fromRawMap(rawMap)::subSection);
+		DummyConfig withAuxiliary = factory.fromRawMap(rawMap, defaults);
+		assertTrue(withAuxiliary instanceof AuxiliaryKeys);
+		assertEquals(Set.of("subSection.nestedValue"), ((AuxiliaryKeys) withAuxiliary).getAuxiliaryKeyPaths());
+		new DummyConfigDefaults().assertDefaultValues(withAuxiliary);
+	}
+	
+}
@@ -0,0 +1,98 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class NestedGenericsTest {
+
+	public interface NestedGenericsConfig {
+
+		Map<String, List<Integer>> listsByName();
+
+		List<Set<String>> groups();
+
+	}
+
+	public interface WildcardConfig {
+
+		List<? extends Number> numbers();
+
+	}
+
+	private final SerialisationFactory<NestedGenericsConfig> factory = new SerialisationFactory<>(
+			NestedGenericsConfig.class, ConfigurationOptions.defaults());
+
+	private static Map<String, Object> createRawMap() {
+		Map<String, Object> listsByName = new LinkedHashMap<>();
+		listsByName.put("first", Arrays.asList(1, 2, 3));
+		listsByName.put("second", Arrays.asList(4));
+		Map<String, Object> rawMap = new LinkedHashMap<>();
+		rawMap.put("listsByName", listsByName);
+		rawMap.put("groups", Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")));
+		return rawMap;
+	}
+
+	@Test
+	public void testLoadNested() throws InvalidConfigException {
+		NestedGenericsConfig config = factory.fromRawMap(createRawMap());
+		assertEquals(Arrays.asList(1, 2, 3), config.listsByName().get("first"));
+		assertEquals(Arrays.asList(4), config.listsByName().get("second"));
+		assertEquals(Arrays.asList(
+				new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(Arrays.asList("c"))),
+				config.groups());
+	}
+
+	@Test
+	public void testRoundTripNested() throws InvalidConfigException {
+		NestedGenericsConfig config = factory.fromRawMap(createRawMap());
+		NestedGenericsConfig reloaded = factory.fromRawMap(factory.toRawMap(config));
+		assertEquals(config.listsByName(), reloaded.listsByName());
+		assertEquals(config.groups(), reloaded.groups());
+	}
+
+	@Test
+	public void testInvalidNestedElement() {
+		Map<String, Object> rawMap = createRawMap();
+		rawMap.put("groups", Arrays.asList(Arrays.asList("a"), "not a list"));
+		assertThrows(BadValueException.class, () -> factory.fromRawMap(rawMap));
+	}
+
+	@Test
+	public void testWildcardIllDefined() {
+		assertThrows(IllDefinedConfigException.class,
+				() -> new SerialisationFactory<>(WildcardConfig.class, ConfigurationOptions.defaults()));
+	}
+
+}
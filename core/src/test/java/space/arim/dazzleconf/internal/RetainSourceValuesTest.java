@@ -0,0 +1,109 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.DummyConfig;
+import space.arim.dazzleconf.DummyConfigDefaults;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.error.UncheckedInvalidConfigException;
+
+public class RetainSourceValuesTest {
+
+	private static SerialisationFactory<DummyConfig> createFactory(boolean retainSourceValues) {
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.setRetainSourceValues(retainSourceValues).build();
+		return new SerialisationFactory<>(DummyConfig.class, options);
+	}
+
+	@Test
+	public void testSourceValueReused() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(true);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		rawMap.put("myInteger", "3");
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		new DummyConfigDefaults().assertDefaultValues(config);
+		// Written in the form it was loaded
+		assertEquals("3", factory.toRawMap(config).get("myInteger"));
+	}
+
+	@Test
+	public void testSourceValueNotRetained() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(false);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		rawMap.put("myInteger", "3");
+
+		assertEquals(3, factory.toRawMap(factory.fromRawMap(rawMap)).get("myInteger"));
+	}
+
+	@Test
+	public void testAuxiliaryEntriesSerialised() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(true);
+		DummyConfig defaults = factory.loadDefaults();
+		Map<String, Object> rawMap = factory.toRawMap(defaults);
+		rawMap.remove("myInteger");
+
+		DummyConfig config = factory.fromRawMap(rawMap, defaults);
+		assertEquals(3, factory.toRawMap(config).get("myInteger"));
+	}
+
+	@Test
+	public void testLazyUnvalidatedValueNotWrittenBack() throws InvalidConfigException {
+		ConfigurationOptions options = new ConfigurationOptions.Builder()
+				.setRetainSourceValues(true).setLazyEntries(true).setEagerlyValidateLazyValues(false).build();
+		SerialisationFactory<DummyConfig> factory = new SerialisationFactory<>(DummyConfig.class, options);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+
+		rawMap.put("myInteger", "3");
+		assertEquals(3, factory.toRawMap(factory.fromRawMap(rawMap)).get("myInteger"),
+				"Value should be converted rather than written in its unvalidated form");
+
+		rawMap.put("myInteger", "not a number");
+		DummyConfig invalidConfig = factory.fromRawMap(rawMap);
+		assertThrows(UncheckedInvalidConfigException.class, () -> factory.toRawMap(invalidConfig));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testSourceCollectionCopied() throws InvalidConfigException {
+		SerialisationFactory<DummyConfig> factory = createFactory(true);
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		Map<String, Object> rawSection = new LinkedHashMap<>((Map<String, Object>) rawMap.get("subSection"));
+		List<String> rawStrings = new ArrayList<>(List.of("first", "second"));
+		rawSection.put("someStringsForYou", rawStrings);
+		rawMap.put("subSection", rawSection);
+
+		DummyConfig config = factory.fromRawMap(rawMap);
+		rawStrings.clear();
+		Map<String, Object> writtenSection = (Map<String, Object>) factory.toRawMap(config).get("subSection");
+		assertEquals(List.of("first", "second"), writtenSection.get("someStringsForYou"));
+	}
+
+}
@@ -0,0 +1,186 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.IllDefinedConfigException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class SectionCollectionsTest {
+
+	public interface ShardSection {
+
+		String host();
+
+		@DefaultInteger(1)
+		int weight();
+
+	}
+
+	public interface ShardsConfig {
+
+		@SubSection
+		Map<String, ShardSection> shardsByName();
+
+		@SubSection
+		List<ShardSection> shardList();
+
+	}
+
+	public interface ShardSetConfig {
+
+		@SubSection
+		Set<ShardSection> shardSet();
+
+	}
+
+	public interface NotSectionsConfig {
+
+		@SubSection
+		List<String> strings();
+
+	}
+
+	private static Map<String, Object> rawShard(String host, int weight) {
+		Map<String, Object> shard = new HashMap<>();
+		shard.put("host", host);
+		shard.put("weight", weight);
+		return shard;
+	}
+
+	private static Map<String, Object> createRawMap(int count) {
+		Map<String, Object> shardsByName = new HashMap<>();
+		List<Object> shardList = new ArrayList<>();
+		for (int n = 0; n < count; n++) {
+			shardsByName.put("shard-" + n, rawShard("host-" + n, n));
+			shardList.add(rawShard("listed-" + n, n));
+		}
+		Map<String, Object> rawMap = new HashMap<>();
+		rawMap.put("shardsByName", shardsByName);
+		rawMap.put("shardList", shardList);
+		return rawMap;
+	}
+
+	private static SerialisationFactory<ShardsConfig> createFactory(boolean parallel) {
+		return new SerialisationFactory<>(ShardsConfig.class,
+				new ConfigurationOptions.Builder().setParallelSectionElements(parallel).build());
+	}
+
+	private static void assertShards(ShardsConfig config, int count) {
+		assertEquals(count, config.shardsByName().size());
+		assertEquals(count, config.shardList().size());
+		for (int n = 0; n < count; n++) {
+			ShardSection mapped = config.shardsByName().get("shard-" + n);
+			assertEquals("host-" + n, mapped.host());
+			assertEquals(n, mapped.weight());
+			ShardSection listed = config.shardList().get(n);
+			assertEquals("listed-" + n, listed.host());
+			assertEquals(n, listed.weight());
+		}
+	}
+
+	@Test
+	public void testLoadSections() throws InvalidConfigException {
+		assertShards(createFactory(false).fromRawMap(createRawMap(5)), 5);
+	}
+
+	@Test
+	public void testLoadSectionsInParallel() throws InvalidConfigException {
+		assertShards(createFactory(true).fromRawMap(createRawMap(500)), 500);
+	}
+
+	@Test
+	public void testRoundTripSections() throws InvalidConfigException {
+		SerialisationFactory<ShardsConfig> factory = createFactory(false);
+		ShardsConfig config = factory.fromRawMap(createRawMap(5));
+		assertShards(factory.fromRawMap(factory.toRawMap(config)), 5);
+	}
+
+	@Test
+	public void testSectionSetSameInParallel() throws InvalidConfigException {
+		List<Object> shardSet = new ArrayList<>();
+		for (int n = 0; n < 100; n++) {
+			// Equal raw elements, and raw elements which differ only before conversion
+			shardSet.add(rawShard("host-" + (n / 2), n / 2));
+			Map<String, Object> stringWeight = rawShard("host-" + (n / 2), 0);
+			stringWeight.put("weight", Integer.toString(n / 2));
+			shardSet.add(stringWeight);
+		}
+		Map<String, Object> rawMap = new HashMap<>();
+		rawMap.put("shardSet", shardSet);
+
+		List<String> sequential = describeShards(new SerialisationFactory<>(ShardSetConfig.class,
+				ConfigurationOptions.defaults()).fromRawMap(rawMap).shardSet());
+		List<String> parallel = describeShards(new SerialisationFactory<>(ShardSetConfig.class,
+				new ConfigurationOptions.Builder().setParallelSectionElements(true).build()).fromRawMap(rawMap).shardSet());
+		assertEquals(sequential, parallel);
+	}
+
+	private static List<String> describeShards(Set<ShardSection> shards) {
+		List<String> descriptions = new ArrayList<>();
+		for (ShardSection shard : shards) {
+			descriptions.add(shard.host() + ':' + shard.weight());
+		}
+		Collections.sort(descriptions);
+		return descriptions;
+	}
+
+	@Test
+	public void testDefaultsAreEmpty() {
+		ShardsConfig defaults = createFactory(false).loadDefaults();
+		assertTrue(defaults.shardsByName().isEmpty());
+		assertTrue(defaults.shardList().isEmpty());
+	}
+
+	@Test
+	public void testInvalidSectionElement() {
+		for (boolean parallel : new boolean[] {false, true}) {
+			Map<String, Object> rawMap = createRawMap(100);
+			@SuppressWarnings("unchecked")
+			List<Object> shardList = (List<Object>) rawMap.get("shardList");
+			Map<String, Object> badShard = rawShard("bad-weight", 0);
+			badShard.put("weight", "not a number");
+			shardList.set(70, badShard);
+			assertThrows(BadValueException.class, () -> createFactory(parallel).fromRawMap(rawMap));
+		}
+	}
+
+	@Test
+	public void testNonInterfaceElementIllDefined() {
+		assertThrows(IllDefinedConfigException.class,
+				() -> new SerialisationFactory<>(NotSectionsConfig.class, ConfigurationOptions.defaults()));
+	}
+
+}
@@ -18,6 +18,8 @@
  */
 package space.arim.dazzleconf.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -25,10 +27,13 @@ import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 import space.arim.dazzleconf.ConfigurationOptions;
@@ -75,6 +80,44 @@ public class SerialisationFactory<C> extends AbstractConfigurationFactoryImpl<C>
 		}
 	}
 	
+	@Override
+	public C load(ByteBuffer buffer) throws IOException, InvalidConfigException {
+		return load(toInputStream(buffer));
+	}
+
+	@Override
+	public C load(ByteBuffer buffer, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		return load(toInputStream(buffer), auxiliaryEntries);
+	}
+
+	private static InputStream toInputStream(ByteBuffer buffer) {
+		ByteBuffer source = buffer.duplicate();
+		byte[] bytes = new byte[source.remaining()];
+		source.get(bytes);
+		return new ByteArrayInputStream(bytes);
+	}
+
+	@Override
+	public C load(Path path) throws IOException, InvalidConfigException {
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			return load(inputStream);
+		}
+	}
+
+	@Override
+	public C load(Path path, C auxiliaryEntries) throws IOException, InvalidConfigException {
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			return load(inputStream, auxiliaryEntries);
+		}
+	}
+	
+	@Override
+	public void write(C configData, Path path) throws IOException {
+		try (OutputStream outputStream = Files.newOutputStream(path)) {
+			write(configData, outputStream);
+		}
+	}
+	
 	@Override
 	public void write(C configData, WritableByteChannel writableChannel) throws IOException {
 		try (OutputStream outputStream = Channels.newOutputStream(writableChannel)) {
@@ -89,6 +132,13 @@ public class SerialisationFactory<C> extends AbstractConfigurationFactoryImpl<C>
 		}
 	}
 
+	@Override
+	public ByteBuffer write(C configData) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		write(configData, outputStream);
+		return ByteBuffer.wrap(outputStream.toByteArray());
+	}
+
 	@Override
 	protected void writeMapToWriter(Map<String, Object> config, Writer writer) throws IOException {
 		throw new UnsupportedOperationException();
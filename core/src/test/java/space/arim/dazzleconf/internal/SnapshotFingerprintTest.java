@@ -0,0 +1,52 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+
+public class SnapshotFingerprintTest {
+
+	private static URL locationOf(Class<?> clazz) {
+		return clazz.getProtectionDomain().getCodeSource().getLocation();
+	}
+
+	@Test
+	public void testLambdaValidatorFingerprintStable() throws Exception {
+		byte[] fingerprint = new LambdaValidatorFingerprint().get();
+
+		URL[] classpath = {locationOf(ConfigurationOptions.class), locationOf(LambdaValidatorFingerprint.class)};
+		try (URLClassLoader freshLoader = new URLClassLoader(classpath, null)) {
+			Class<?> freshClass = freshLoader.loadClass(LambdaValidatorFingerprint.class.getName());
+			assertNotSame(LambdaValidatorFingerprint.class, freshClass);
+			@SuppressWarnings("unchecked")
+			Supplier<byte[]> freshSupplier = (Supplier<byte[]>) freshClass.getDeclaredConstructor().newInstance();
+			assertArrayEquals(fingerprint, freshSupplier.get());
+		}
+	}
+
+}
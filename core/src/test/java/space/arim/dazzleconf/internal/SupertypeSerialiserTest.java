@@ -0,0 +1,100 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.NumericPair;
+import space.arim.dazzleconf.NumericPairSerialiser;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
+import space.arim.dazzleconf.error.BadValueException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.serialiser.Decomposer;
+import space.arim.dazzleconf.serialiser.FlexibleType;
+import space.arim.dazzleconf.serialiser.ValueSerialiser;
+
+public class SupertypeSerialiserTest {
+
+	public static final class LabelledPair extends NumericPair {
+
+		public LabelledPair(int value1, int value2) {
+			super(value1, value2);
+		}
+
+	}
+
+	public static final class PairHolder {
+
+		final LabelledPair pair;
+
+		PairHolder(LabelledPair pair) {
+			this.pair = pair;
+		}
+
+	}
+
+	/**
+	 * Decomposes the held pair by its subclass, for which only the superclass has a serialiser
+	 *
+	 */
+	public static final class PairHolderSerialiser implements ValueSerialiser<PairHolder> {
+
+		@Override
+		public Class<PairHolder> getTargetClass() {
+			return PairHolder.class;
+		}
+
+		@Override
+		public PairHolder deserialise(FlexibleType flexibleType) throws BadValueException {
+			NumericPair pair = flexibleType.getObject(NumericPair.class);
+			return new PairHolder(new LabelledPair(pair.getValue1(), pair.getValue2()));
+		}
+
+		@Override
+		public Object serialise(PairHolder value, Decomposer decomposer) {
+			return decomposer.decompose(LabelledPair.class, value.pair);
+		}
+
+	}
+
+	public interface HolderConfig {
+
+		@DefaultString("1:2")
+		PairHolder holder();
+
+	}
+
+	@Test
+	public void testRoundTripSubclassValue() throws InvalidConfigException {
+		SerialisationFactory<HolderConfig> factory = new SerialisationFactory<>(HolderConfig.class,
+				new ConfigurationOptions.Builder()
+						.addSerialisers(new NumericPairSerialiser(), new PairHolderSerialiser()).build());
+		Map<String, Object> rawMap = factory.toRawMap(factory.loadDefaults());
+		assertEquals("1:2", rawMap.get("holder"));
+
+		HolderConfig reloaded = factory.fromRawMap(rawMap);
+		assertEquals(new NumericPair(1, 2), reloaded.holder().pair);
+	}
+
+}
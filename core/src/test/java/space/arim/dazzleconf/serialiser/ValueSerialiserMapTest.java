@@ -0,0 +1,70 @@
+/* 
+ * DazzleConf-core
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-core is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-core is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-core. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.serialiser;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.error.BadValueException;
+
+public class ValueSerialiserMapTest {
+
+	public interface Shape {}
+	
+	public static class Circle implements Shape {}
+	
+	public static class LargeCircle extends Circle {}
+	
+	private static class ShapeSerialiser implements ValueSerialiser<Shape> {
+
+		@Override
+		public Class<Shape> getTargetClass() {
+			return Shape.class;
+		}
+
+		@Override
+		public Shape deserialise(FlexibleType flexibleType) throws BadValueException {
+			return new Circle();
+		}
+
+		@Override
+		public Object serialise(Shape value, Decomposer decomposer) {
+			return "circle";
+		}
+	}
+	
+	@Test
+	public void testGetSerialiserForHierarchy() {
+		ValueSerialiser<Shape> shapeSerialiser = new ShapeSerialiser();
+		ValueSerialiserMap serialisers = ValueSerialiserMap.of(List.of(shapeSerialiser));
+
+		assertNull(serialisers.getSerialiser(Circle.class));
+		assertSame(shapeSerialiser, serialisers.getSerialiserForHierarchy(Shape.class));
+		assertSame(shapeSerialiser, serialisers.getSerialiserForHierarchy(Circle.class));
+		assertSame(shapeSerialiser, serialisers.getSerialiserForHierarchy(LargeCircle.class));
+		// Memoised result
+		assertSame(shapeSerialiser, serialisers.getSerialiserForHierarchy(LargeCircle.class));
+		assertNull(serialisers.getSerialiserForHierarchy(String.class));
+	}
+	
+}
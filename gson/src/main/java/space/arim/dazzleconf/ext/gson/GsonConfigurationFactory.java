@@ -25,7 +25,6 @@ import java.nio.charset.Charset;
 import java.util.Map;
 import java.util.Objects;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
@@ -38,6 +37,7 @@ import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.factory.AbstractConfigurationFactory;
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
 
 /**
  * A {@link ConfigurationFactory} implementation using Gson to load a json configuration
@@ -49,6 +49,8 @@ import space.arim.dazzleconf.factory.AbstractConfigurationFactory;
 public class GsonConfigurationFactory<C> extends AbstractConfigurationFactory<C> {
 
 	private final GsonOptions gsonOptions;
+	/** Cached, since Gson adapters are thread safe */
+	private final TypeAdapter<Map<String, Object>> mapAdapter;
 	
 	/**
 	 * Creates from a configuration class, config options, and {@link GsonOptions}
@@ -63,6 +65,7 @@ public class GsonConfigurationFactory<C> extends AbstractConfigurationFactory<C>
 	public GsonConfigurationFactory(Class<C> configClazz, ConfigurationOptions options, GsonOptions gsonOptions) {
 		super(configClazz, options);
 		this.gsonOptions = Objects.requireNonNull(gsonOptions, "gsonOptions");
+		mapAdapter = gsonOptions.gson().getAdapter(new TypeToken<Map<String, Object>>() {});
 	}
 	
 	/**
@@ -84,13 +87,24 @@ public class GsonConfigurationFactory<C> extends AbstractConfigurationFactory<C>
 		return gsonOptions.charset();
 	}
 
+	@Override
+	protected int bufferSize() {
+		return gsonOptions.bufferSize();
+	}
+	
+	@Override
+	protected long memoryMapThreshold() {
+		return gsonOptions.memoryMapThreshold();
+	}
+
 	@Override
 	protected Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException {
-		Gson gson = gsonOptions.gson();
-		TypeAdapter<Map<String, Object>> adapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
-		JsonReader jsonReader = gson.newJsonReader(reader);
+		JsonReader jsonReader = gsonOptions.gson().newJsonReader(reader);
 		try {
-			return adapter.read(jsonReader);
+			if (gsonOptions.useStreamingReader()) {
+				return new JsonTreeReader(jsonReader).readTopLevel();
+			}
+			return mapAdapter.read(jsonReader);
 		} catch (JsonIOException ex) {
 			Throwable cause = ex.getCause();
 			if (cause instanceof IOException) {
@@ -102,6 +116,14 @@ public class GsonConfigurationFactory<C> extends AbstractConfigurationFactory<C>
 		}
 	}
 
+	@Override
+	protected ConfigurationEmitter createEmitter(Writer writer) throws IOException {
+		if (!gsonOptions.useStreamingWriter()) {
+			return null;
+		}
+		return new JsonEmitter(gsonOptions.gson(), writer, pseudoCommentsSuffix());
+	}
+
 	@Override
 	protected void writeMapToWriter(Map<String, Object> rawMap, Writer writer) throws IOException {
 		try {
@@ -35,7 +35,11 @@ public final class GsonOptions {
 
 	private final Gson gson;
 	private final boolean pseudoComments;
+	private final boolean useStreamingWriter;
+	private final boolean useStreamingReader;
 	private final Charset charset;
+	private final int bufferSize;
+	private final long memoryMapThreshold;
 	
 	GsonOptions(Builder builder) {
 		Gson gson = builder.gson;
@@ -43,8 +47,16 @@ public final class GsonOptions {
 
 		this.pseudoComments = builder.pseudoComments;
 
+		Boolean useStreamingWriter = builder.useStreamingWriter;
+		this.useStreamingWriter = (useStreamingWriter != null) ? useStreamingWriter : gson == null;
+		Boolean useStreamingReader = builder.useStreamingReader;
+		this.useStreamingReader = (useStreamingReader != null) ? useStreamingReader : gson == null;
+
 		Charset charset = builder.charset;
 		this.charset = (charset != null) ? charset : StandardCharsets.UTF_8;
+
+		this.bufferSize = builder.bufferSize;
+		this.memoryMapThreshold = builder.memoryMapThreshold;
 	}
 	
 	/**
@@ -66,6 +78,26 @@ public final class GsonOptions {
 		return pseudoComments;
 	}
 	
+	/**
+	 * Whether configurations are written by streaming entries directly to a json writer.
+	 * See {@link Builder#useStreamingWriter(boolean)} for more details.
+	 * 
+	 * @return whether the streaming writer is enabled
+	 */
+	public boolean useStreamingWriter() {
+		return useStreamingWriter;
+	}
+	
+	/**
+	 * Whether configurations are loaded by reading directly from a json reader, with numbers converted
+	 * from their lexical form. See {@link Builder#useStreamingReader(boolean)} for more details.
+	 * 
+	 * @return whether the streaming reader is enabled
+	 */
+	public boolean useStreamingReader() {
+		return useStreamingReader;
+	}
+	
 	/**
 	 * Gets the charset used
 	 * 
@@ -74,10 +106,30 @@ public final class GsonOptions {
 	public Charset charset() {
 		return charset;
 	}
+	
+	/**
+	 * Gets the buffer size used for streams and channels. See {@link Builder#bufferSize(int)}
+	 * 
+	 * @return the buffer size
+	 */
+	public int bufferSize() {
+		return bufferSize;
+	}
+	
+	/**
+	 * Gets the file size at or above which files are memory mapped. See {@link Builder#memoryMapThreshold(long)}
+	 * 
+	 * @return the memory map threshold
+	 */
+	public long memoryMapThreshold() {
+		return memoryMapThreshold;
+	}
 
 	@Override
 	public String toString() {
-		return "GsonOptions [pseudoComments=" + pseudoComments + ", charset=" + charset + ", gson=" + gson + "]";
+		return "GsonOptions [pseudoComments=" + pseudoComments + ", useStreamingWriter=" + useStreamingWriter
+				+ ", useStreamingReader=" + useStreamingReader + ", charset=" + charset + ", bufferSize=" + bufferSize + ", memoryMapThreshold=" + memoryMapThreshold
+				+ ", gson=" + gson + "]";
 	}
 
 	/**
@@ -90,7 +142,11 @@ public final class GsonOptions {
 		
 		private Gson gson;
 		private boolean pseudoComments;
+		private Boolean useStreamingWriter;
+		private Boolean useStreamingReader;
 		private Charset charset;
+		private int bufferSize = 8192;
+		private long memoryMapThreshold = 1L << 20;
 		
 		public Builder() {
 			
@@ -128,6 +184,41 @@ public final class GsonOptions {
 			return this;
 		}
 		
+		/**
+		 * Whether configurations should be written by streaming each entry directly to a json writer,
+		 * rather than building a map of the entire configuration and writing it with Gson. Strings,
+		 * numbers, booleans, and nested maps and lists are then written without Gson type adapters. <br>
+		 * <br>
+		 * The output is identical so long as the {@code Gson} instance does not customise how these
+		 * values are written, for instance with its own type adapters or a long serialisation policy.
+		 * It is therefore enabled by default, unless a custom {@code Gson} instance has been set.
+		 * 
+		 * @param useStreamingWriter true to use the streaming writer, false to write maps with Gson
+		 * @return this builder
+		 */
+		public Builder useStreamingWriter(boolean useStreamingWriter) {
+			this.useStreamingWriter = useStreamingWriter;
+			return this;
+		}
+		
+		/**
+		 * Whether configurations should be loaded by reading directly from a json reader, rather than
+		 * with Gson's type adapters. Gson reads every number as a {@code Double}, which cannot exactly
+		 * represent integers above 2<sup>53</sup>. The streaming reader instead converts each number
+		 * from its lexical form, reading integers as an {@code Integer}, {@code Long}, or
+		 * {@code BigInteger}, and other numbers as a {@code Double}. <br>
+		 * <br>
+		 * Enabled by default, unless a custom {@code Gson} instance has been set, since its type
+		 * adapters would not be used.
+		 * 
+		 * @param useStreamingReader true to use the streaming reader, false to read with Gson
+		 * @return this builder
+		 */
+		public Builder useStreamingReader(boolean useStreamingReader) {
+			this.useStreamingReader = useStreamingReader;
+			return this;
+		}
+		
 		/**
 		 * Sets the charset used by the factory. Default is UTF 8
 		 * 
@@ -139,6 +230,39 @@ public final class GsonOptions {
 			return this;
 		}
 		
+		/**
+		 * Sets the size of the character buffers used when reading from or writing to streams and channels.
+		 * This is also the initial buffer size when reading a file whose size is not known. Default is 8192
+		 * 
+		 * @param bufferSize the buffer size
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code bufferSize} is not positive
+		 */
+		public Builder bufferSize(int bufferSize) {
+			if (bufferSize <= 0) {
+				throw new IllegalArgumentException("bufferSize must be positive");
+			}
+			this.bufferSize = bufferSize;
+			return this;
+		}
+		
+		/**
+		 * Sets the file size, in bytes, at or above which files are memory mapped and decoded in place
+		 * when loaded from a path. Smaller files are read into a buffer of exactly the file's size.
+		 * Default is 1 MiB
+		 * 
+		 * @param memoryMapThreshold the memory map threshold
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code memoryMapThreshold} is negative
+		 */
+		public Builder memoryMapThreshold(long memoryMapThreshold) {
+			if (memoryMapThreshold < 0) {
+				throw new IllegalArgumentException("memoryMapThreshold must not be negative");
+			}
+			this.memoryMapThreshold = memoryMapThreshold;
+			return this;
+		}
+		
 		/**
 		 * Builds the options. May be used repeatedly without side effects
 		 * 
@@ -150,7 +274,10 @@ public final class GsonOptions {
 
 		@Override
 		public String toString() {
-			return "GsonOptions.Builder [gson=" + gson + ", pseudoComments=" + pseudoComments + ", charset=" + charset + "]";
+			return "GsonOptions.Builder [gson=" + gson + ", pseudoComments=" + pseudoComments
+					+ ", useStreamingWriter=" + useStreamingWriter + ", useStreamingReader=" + useStreamingReader
+					+ ", charset=" + charset
+					+ ", bufferSize=" + bufferSize + ", memoryMapThreshold=" + memoryMapThreshold + "]";
 		}
 		
 	}
@@ -0,0 +1,139 @@
+/* 
+ * DazzleConf-gson
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-gson is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-gson is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-gson. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.gson;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
+
+/**
+ * Emitter which streams configuration entries directly to a {@link JsonWriter}. Pseudo comments,
+ * if enabled, are written inline before the entries they describe. <br>
+ * <br>
+ * Strings, booleans, integral numbers, doubles, maps, and collections are written without
+ * looking up Gson type adapters. Other values, and doubles which are not finite, are written
+ * with the {@code Gson} instance, so the output is the same as writing the whole map with Gson.
+ * 
+ * @author A248
+ *
+ */
+class JsonEmitter implements ConfigurationEmitter {
+
+	private final Gson gson;
+	private final JsonWriter jsonWriter;
+	private final String pseudoCommentsSuffix;
+	
+	JsonEmitter(Gson gson, Writer writer, String pseudoCommentsSuffix) throws IOException {
+		this.gson = gson;
+		jsonWriter = gson.newJsonWriter(writer);
+		// Same settings as Gson#toJson applies to the writer
+		jsonWriter.setLenient(true);
+		jsonWriter.setHtmlSafe(gson.htmlSafe());
+		this.pseudoCommentsSuffix = pseudoCommentsSuffix;
+		jsonWriter.beginObject();
+	}
+	
+	@Override
+	public void beginSection(String key, List<String> comments) throws IOException {
+		writeComments(key, comments);
+		jsonWriter.name(key).beginObject();
+	}
+	
+	@Override
+	public void endSection() throws IOException {
+		jsonWriter.endObject();
+	}
+	
+	@Override
+	public void emitEntry(String key, Object value, List<String> comments) throws IOException {
+		writeComments(key, comments);
+		jsonWriter.name(key);
+		writeValue(value);
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		jsonWriter.endObject();
+		jsonWriter.flush();
+	}
+	
+	private void writeComments(String key, List<String> comments) throws IOException {
+		if (pseudoCommentsSuffix.isEmpty() || comments.isEmpty()) {
+			return;
+		}
+		jsonWriter.name(key + pseudoCommentsSuffix).value(String.join("\n", comments));
+	}
+	
+	private void writeValue(Object value) throws IOException {
+		if (value instanceof String) {
+			jsonWriter.value((String) value);
+
+		} else if (value instanceof Boolean) {
+			jsonWriter.value(((Boolean) value).booleanValue());
+
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			jsonWriter.value(((Number) value).longValue());
+
+		} else if (value instanceof Double && Double.isFinite((Double) value)) {
+			jsonWriter.value(((Double) value).doubleValue());
+
+		} else if (value instanceof Map) {
+			jsonWriter.beginObject();
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				jsonWriter.name(String.valueOf(entry.getKey()));
+				writeValue(entry.getValue());
+			}
+			jsonWriter.endObject();
+
+		} else if (value instanceof Collection) {
+			jsonWriter.beginArray();
+			for (Object element : (Collection<?>) value) {
+				writeValue(element);
+			}
+			jsonWriter.endArray();
+
+		} else if (value == null) {
+			jsonWriter.nullValue();
+
+		} else {
+			writeWithGson(value);
+		}
+	}
+	
+	private void writeWithGson(Object value) throws IOException {
+		try {
+			gson.toJson(value, value.getClass(), jsonWriter);
+		} catch (JsonIOException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(ex);
+		}
+	}
+	
+}
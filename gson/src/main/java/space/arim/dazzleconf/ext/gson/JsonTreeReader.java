@@ -0,0 +1,145 @@
+/* 
+ * DazzleConf-gson
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-gson is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-gson is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-gson. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.gson;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+
+/**
+ * Reads a json document directly from a {@link JsonReader} into maps, lists, and scalars. Unlike
+ * Gson's object type adapter, which reads every number as a {@code Double}, numbers are converted
+ * from their lexical form: integers become an {@code Integer}, {@code Long}, or {@code BigInteger},
+ * whichever is the smallest to hold them exactly, and other numbers become a {@code Double}, or a
+ * {@code BigDecimal} if they are out of the range of {@code double}.
+ * 
+ * @author A248
+ *
+ */
+final class JsonTreeReader {
+
+	private final JsonReader jsonReader;
+	
+	JsonTreeReader(JsonReader jsonReader) {
+		this.jsonReader = jsonReader;
+	}
+	
+	/**
+	 * Reads the top level json object
+	 * 
+	 * @return the top level map
+	 * @throws IOException if an I/O error occurs, including malformed json
+	 * @throws ConfigFormatSyntaxException if the document is not an object or has duplicate top level keys
+	 */
+	Map<String, Object> readTopLevel() throws IOException, ConfigFormatSyntaxException {
+		JsonToken token = jsonReader.peek();
+		if (token != JsonToken.BEGIN_OBJECT) {
+			throw new ConfigFormatSyntaxException("Expected a json object but found " + token);
+		}
+		Map<String, Object> map = new LinkedHashMap<>();
+		jsonReader.beginObject();
+		while (jsonReader.hasNext()) {
+			String key = jsonReader.nextName();
+			// Same as Gson's map adapter
+			if (map.put(key, readValue()) != null) {
+				throw new ConfigFormatSyntaxException("Duplicate key: " + key);
+			}
+		}
+		jsonReader.endObject();
+		return map;
+	}
+	
+	private Object readValue() throws IOException {
+		switch (jsonReader.peek()) {
+		case BEGIN_OBJECT:
+			Map<String, Object> map = new LinkedHashMap<>();
+			jsonReader.beginObject();
+			while (jsonReader.hasNext()) {
+				map.put(jsonReader.nextName(), readValue());
+			}
+			jsonReader.endObject();
+			return map;
+		case BEGIN_ARRAY:
+			List<Object> list = new ArrayList<>();
+			jsonReader.beginArray();
+			while (jsonReader.hasNext()) {
+				list.add(readValue());
+			}
+			jsonReader.endArray();
+			return list;
+		case STRING:
+			return jsonReader.nextString();
+		case NUMBER:
+			return parseNumber(jsonReader.nextString());
+		case BOOLEAN:
+			return jsonReader.nextBoolean();
+		case NULL:
+			jsonReader.nextNull();
+			return null;
+		default:
+			throw new IllegalStateException("Unexpected token " + jsonReader.peek());
+		}
+	}
+	
+	/**
+	 * Converts a json number from its lexical form
+	 * 
+	 * @param number the number as written, which is valid json
+	 * @return the number
+	 */
+	static Number parseNumber(String number) {
+		int length = number.length();
+		for (int n = 0; n < length; n++) {
+			char ch = number.charAt(n);
+			if (ch == '.' || ch == 'e' || ch == 'E') {
+				double value = Double.parseDouble(number);
+				if (Double.isInfinite(value)) {
+					return new BigDecimal(number);
+				}
+				return value;
+			}
+		}
+		int digits = (number.charAt(0) == '-') ? length - 1 : length;
+		if (digits < 10) {
+			return Integer.parseInt(number);
+		}
+		if (digits < 19) {
+			long value = Long.parseLong(number);
+			if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+				return (int) value;
+			}
+			return value;
+		}
+		BigInteger value = new BigInteger(number);
+		if (value.bitLength() < 64) {
+			return value.longValue();
+		}
+		return value;
+	}
+	
+}
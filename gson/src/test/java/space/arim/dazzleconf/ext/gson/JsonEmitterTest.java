@@ -0,0 +1,157 @@
+/* 
+ * DazzleConf-gson
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-gson is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-gson is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-gson. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.gson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.ConfComments;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultBoolean;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultDouble;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultDoubles;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultLong;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultMap;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultStrings;
+import space.arim.dazzleconf.annote.ConfKey;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class JsonEmitterTest {
+
+	public interface Config {
+
+		@ConfComments({"The name", "on two lines"})
+		@DefaultString("quote \" and <html>")
+		String name();
+
+		@ConfKey("implied.section.count")
+		@ConfComments("Nested by its key")
+		@DefaultLong(Long.MAX_VALUE)
+		long count();
+
+		@ConfKey("implied.enabled")
+		@DefaultBoolean(true)
+		boolean enabled();
+
+		@DefaultDoubles({2.5, 1.0E-20, -0.0})
+		List<Double> ratios();
+
+		@DefaultDouble(0.1)
+		double ratio();
+
+		@DefaultStrings({})
+		List<String> empty();
+
+		@DefaultMap({"first", "one", "second", "two"})
+		Map<String, String> mapping();
+
+		@ConfComments("A section")
+		@SubSection
+		Section section();
+
+	}
+
+	public interface Section {
+
+		@ConfComments("Inside")
+		@DefaultStrings({"a", "b"})
+		List<String> values();
+
+	}
+
+	public interface SharedPrefixConfig {
+
+		@ConfKey("section.x.b")
+		@ConfComments("Dotted")
+		@DefaultLong(2)
+		long dottedValue();
+
+		@ConfComments("A section")
+		@SubSection
+		SharedPrefixSection section();
+
+	}
+
+	public interface SharedPrefixSection {
+
+		@ConfKey("x.a")
+		@ConfComments("Nested")
+		@DefaultLong(1)
+		long nestedValue();
+
+	}
+
+	private static <C> String write(Class<C> configClass, GsonOptions gsonOptions)
+			throws IOException, InvalidConfigException {
+		ConfigurationFactory<C> factory = new GsonConfigurationFactory<>(configClass,
+				ConfigurationOptions.defaults(), gsonOptions);
+		return StandardCharsets.UTF_8.decode(factory.write(factory.loadDefaults())).toString();
+	}
+
+	private static String write(GsonOptions gsonOptions) throws IOException, InvalidConfigException {
+		return write(Config.class, gsonOptions);
+	}
+
+	@Test
+	public void testSameOutputDottedKeyAndSectionWithSharedPrefix() throws IOException, InvalidConfigException {
+		for (boolean pseudoComments : new boolean[] {false, true}) {
+			GsonOptions.Builder builder = new GsonOptions.Builder().pseudoComments(pseudoComments);
+			String streamed = write(SharedPrefixConfig.class, builder.useStreamingWriter(true).build());
+			String mapped = write(SharedPrefixConfig.class, builder.useStreamingWriter(false).build());
+			assertEquals(mapped, streamed);
+			assertEquals(1, streamed.split("\"x\"", -1).length - 1, "Section should not be repeated");
+		}
+	}
+
+	private static void assertSameOutput(GsonOptions.Builder builder) throws IOException, InvalidConfigException {
+		String streamed = write(builder.useStreamingWriter(true).build());
+		String mapped = write(builder.useStreamingWriter(false).build());
+		assertEquals(mapped, streamed);
+	}
+
+	@Test
+	public void testSameOutput() throws IOException, InvalidConfigException {
+		assertSameOutput(new GsonOptions.Builder());
+	}
+
+	@Test
+	public void testSameOutputWithPseudoComments() throws IOException, InvalidConfigException {
+		assertSameOutput(new GsonOptions.Builder().pseudoComments(true));
+	}
+
+	@Test
+	public void testReload() throws IOException, InvalidConfigException {
+		ConfigurationFactory<Config> factory = new GsonConfigurationFactory<>(Config.class,
+				ConfigurationOptions.defaults(), new GsonOptions.Builder().pseudoComments(true).build());
+		Config reloaded = factory.load(factory.write(factory.loadDefaults()));
+		assertEquals(Long.MAX_VALUE, reloaded.count());
+		assertEquals(List.of("a", "b"), reloaded.section().values());
+		assertEquals(Map.of("first", "one", "second", "two"), reloaded.mapping());
+	}
+
+}
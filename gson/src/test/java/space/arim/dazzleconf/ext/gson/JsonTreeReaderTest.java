@@ -0,0 +1,84 @@
+/* 
+ * DazzleConf-gson
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-gson is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-gson is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-gson. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.gson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultDouble;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultLong;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultLongs;
+import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class JsonTreeReaderTest {
+
+	public interface Config {
+
+		@DefaultLong(0)
+		long id();
+
+		@DefaultDouble(0)
+		double ratio();
+
+		@DefaultLongs({})
+		List<Long> sizes();
+
+	}
+
+	private final GsonConfigurationFactory<Config> factory = new GsonConfigurationFactory<>(Config.class,
+			ConfigurationOptions.defaults());
+
+	@Test
+	public void testParseNumber() {
+		assertEquals(0, JsonTreeReader.parseNumber("-0"));
+		assertEquals(Integer.MAX_VALUE, JsonTreeReader.parseNumber("2147483647"));
+		assertEquals(2147483648L, JsonTreeReader.parseNumber("2147483648"));
+		assertEquals(Long.MIN_VALUE, JsonTreeReader.parseNumber("-9223372036854775808"));
+		assertEquals(new BigInteger("9223372036854775808"), JsonTreeReader.parseNumber("9223372036854775808"));
+		assertEquals(2.5, JsonTreeReader.parseNumber("2.5"));
+		assertEquals(1000.0, JsonTreeReader.parseNumber("1E3"));
+		assertEquals(new BigDecimal("1e400"), JsonTreeReader.parseNumber("1e400"));
+	}
+
+	@Test
+	public void testLargeIntegersExact() throws IOException, InvalidConfigException {
+		Config config = factory.load("{\"id\": 9007199254740993, \"ratio\": 0.1,"
+				+ " \"sizes\": [9223372036854775807, -9007199254740993]}");
+		assertEquals(9007199254740993L, config.id());
+		assertEquals(0.1, config.ratio());
+		assertEquals(List.of(Long.MAX_VALUE, -9007199254740993L), config.sizes());
+	}
+
+	@Test
+	public void testInvalidDocuments() {
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load("[1, 2]"));
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load("{\"id\": 1, \"id\": 2}"));
+		assertThrows(ConfigFormatSyntaxException.class, () -> factory.load("{\"id\": }"));
+	}
+
+}
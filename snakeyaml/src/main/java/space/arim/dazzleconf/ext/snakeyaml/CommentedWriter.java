@@ -21,30 +21,63 @@ package space.arim.dazzleconf.ext.snakeyaml;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
 import space.arim.dazzleconf.factory.CommentedWrapper;
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
 
-class CommentedWriter {
+/**
+ * Yaml writer which supports comments. Writes directly to the underlying writer, using cached
+ * indentation and escaping each scalar in a single pass.
+ * 
+ * @author A248
+ *
+ */
+class CommentedWriter implements ConfigurationEmitter {
 
 	private final Map<String, Object> rawMap;
 	private final Writer writer;
+	private final boolean flowScalarLists;
 	
 	private int depth;
+	/** Whether a section has been begun, but its key not yet terminated */
+	private boolean sectionPending;
+	/** Whether a list item indicator was just written, such that the next line is already indented */
+	private boolean inlinePending;
 	
-	CommentedWriter(Map<String, Object> rawMap, Writer writer) {
+	CommentedWriter(Map<String, Object> rawMap, Writer writer, boolean flowScalarLists) {
 		this.rawMap = rawMap;
 		this.writer = writer;
+		this.flowScalarLists = flowScalarLists;
+	}
+	
+	CommentedWriter(Map<String, Object> rawMap, Writer writer) {
+		this(rawMap, writer, false);
+	}
+	
+	/**
+	 * Creates a writer used only as an emitter
+	 * 
+	 * @param writer the writer
+	 * @param flowScalarLists whether to write lists of scalars in flow style
+	 */
+	CommentedWriter(Writer writer, boolean flowScalarLists) {
+		this(null, writer, flowScalarLists);
+	}
+	
+	CommentedWriter(Writer writer) {
+		this(writer, false);
 	}
 	
 	void write() throws IOException {
 		writeMap(rawMap);
 	}
 	
-	private void writeMap(Map<String, Object> map) throws IOException {
-		for (Map.Entry<String, Object> entry : map.entrySet()) {
-			String key = entry.getKey();
+	private void writeMap(Map<?, ?> map) throws IOException {
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			Object key = entry.getKey();
 			Object value = entry.getValue();
 			if (value instanceof CommentedWrapper) { 
 				CommentedWrapper commentWrapper = (CommentedWrapper) value;
@@ -59,58 +92,170 @@ class CommentedWriter {
 	}
 	
 	/*
-	 * Depth control
+	 * Emitter
 	 */
 	
-	private CharSequence depthPrefix() {
-		StringBuilder builder = new StringBuilder();
-		int spaces = 2 * depth;
-		for (int n = 0; n < spaces; n++) {
-			builder.append(' ');
+	private void terminatePendingSection() throws IOException {
+		if (sectionPending) {
+			writer.write('\n');
+			sectionPending = false;
 		}
-		return builder;
 	}
 	
-	@FunctionalInterface
-	private static interface IORunnable {
-		void run() throws IOException;
+	@Override
+	public void beginSection(String key, List<String> comments) throws IOException {
+		terminatePendingSection();
+		writeComments(comments);
+		writeKey(key);
+		sectionPending = true;
+		depth++;
 	}
 	
-	private void descendAndDo(IORunnable whenDescended) throws IOException {
-		writer.append('\n');
-		depth++;
-		whenDescended.run();
+	@Override
+	public void endSection() throws IOException {
+		if (sectionPending) {
+			// Nothing was written in the section
+			writer.write(" {}\n");
+			sectionPending = false;
+		}
 		depth--;
 	}
 	
+	@Override
+	public void emitEntry(String key, Object value, List<String> comments) throws IOException {
+		terminatePendingSection();
+		writeComments(comments);
+		writeKey(key);
+		writeValue(value);
+	}
+	
+	/*
+	 * Indentation
+	 */
+	
+	private static final String[] INDENTS = new String[16];
+	
+	static {
+		StringBuilder builder = new StringBuilder();
+		for (int n = 0; n < INDENTS.length; n++) {
+			INDENTS[n] = builder.toString();
+			builder.append("  ");
+		}
+	}
+	
+	private static String indentFor(int depth) {
+		if (depth < INDENTS.length) {
+			return INDENTS[depth];
+		}
+		StringBuilder builder = new StringBuilder(2 * depth);
+		for (int n = 0; n < depth; n++) {
+			builder.append("  ");
+		}
+		return builder.toString();
+	}
+	
+	private void writeIndent() throws IOException {
+		if (inlinePending) {
+			// Already positioned after a list item indicator
+			inlinePending = false;
+			return;
+		}
+		writer.write(indentFor(depth));
+	}
+	
 	/*
 	 * Comments
 	 */
 	
 	private void writeComments(List<String> comments) throws IOException {
-		writeComments0(depthPrefix(), writer, comments);
+		if (comments.isEmpty()) {
+			return;
+		}
+		writeComments0(indentFor(depth), writer, comments);
+		inlinePending = false;
 	}
 	
 	static void writeCommentsHeader(Writer writer, List<String> comments) throws IOException {
 		writeComments0("", writer, comments);
 	}
 	
-	private static void writeComments0(CharSequence depthPrefix, Writer writer, List<String> comments) throws IOException {
+	private static void writeComments0(String indent, Writer writer, List<String> comments) throws IOException {
 		for (String comment : comments) {
-			StringBuilder commentBuilder = new StringBuilder(depthPrefix);
-			commentBuilder.append(" # ").append(comment).append('\n');
-			writer.append(commentBuilder);
+			int lineStart = 0;
+			int lineEnd;
+			// Each line of a multi-line comment must itself be a comment
+			while ((lineEnd = comment.indexOf('\n', lineStart)) != -1) {
+				writeCommentLine(indent, writer, comment, lineStart, lineEnd);
+				lineStart = lineEnd + 1;
+			}
+			writeCommentLine(indent, writer, comment, lineStart, comment.length());
 		}
 	}
 	
+	private static void writeCommentLine(String indent, Writer writer, String comment, int start, int end)
+			throws IOException {
+		writer.write(indent);
+		writer.write(" # ");
+		writer.write(comment, start, end - start);
+		writer.write('\n');
+	}
+	
 	/*
 	 * Keys
 	 */
 	
-	private void writeKey(String key) throws IOException {
-		StringBuilder keyBuilder = new StringBuilder(depthPrefix());
-		keyBuilder.append(key).append(':');
-		writer.append(keyBuilder);
+	private void writeKey(Object key) throws IOException {
+		writeIndent();
+		if (key instanceof String && isPlainSafeKey((String) key)) {
+			writer.write((String) key);
+		} else {
+			writeScalar(key);
+		}
+		writer.write(':');
+	}
+	
+	/**
+	 * Whether a key may be written without quotes. Keys are conservatively quoted unless they
+	 * consist of simple characters and cannot be resolved as anything other than a string.
+	 * 
+	 * @param key the key
+	 * @return true if the key need not be quoted
+	 */
+	static boolean isPlainSafeKey(String key) {
+		int length = key.length();
+		if (length == 0) {
+			return false;
+		}
+		char first = key.charAt(0);
+		if (!(first >= 'a' && first <= 'z' || first >= 'A' && first <= 'Z' || first == '_')) {
+			return false;
+		}
+		for (int n = 1; n < length; n++) {
+			char ch = key.charAt(n);
+			if (!(ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z' || ch >= '0' && ch <= '9'
+					|| ch == '_' || ch == '-')) {
+				return false;
+			}
+		}
+		return !isReservedWord(key);
+	}
+	
+	private static boolean isReservedWord(String key) {
+		// YAML 1.1 booleans and null, which SnakeYAML resolves to non-string values
+		switch (key.toLowerCase(Locale.ROOT)) {
+		case "y":
+		case "n":
+		case "yes":
+		case "no":
+		case "true":
+		case "false":
+		case "on":
+		case "off":
+		case "null":
+			return true;
+		default:
+			return false;
+		}
 	}
 	
 	/*
@@ -121,46 +266,258 @@ class CommentedWriter {
 		Objects.requireNonNull(value, "Null value in map entry");
 
 		if (value instanceof Map) {
-			descendAndDo(() -> {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> map = (Map<String, Object>) value;
-				writeMap(map);
-			});
+			Map<?, ?> map = (Map<?, ?>) value;
+			if (map.isEmpty()) {
+				writer.write(" {}\n");
+				return;
+			}
+			writer.write('\n');
+			depth++;
+			writeMap(map);
+			depth--;
 			return;
 		}
 		if (value instanceof List) {
-			descendAndDo(() -> {
-				CharSequence depthPrefix = depthPrefix();
-				for (Object element : (List<?>) value) {
-					StringBuilder elementBuilder = new StringBuilder(depthPrefix);
-					elementBuilder.append('-').append(' ');
-					writer.append(elementBuilder);
-					writeSingleValue(element);
-				}
-			});
+			List<?> list = (List<?>) value;
+			if (list.isEmpty()) {
+				writer.write(" []\n");
+				return;
+			}
+			if (flowScalarLists && isScalarList(list)) {
+				writer.write(' ');
+				writeFlowList(list);
+				writer.write('\n');
+				return;
+			}
+			writer.write('\n');
+			depth++;
+			writeListItems(list);
+			depth--;
 			return;
 		}
-		writeSingleValue(value);
+		writer.write(' ');
+		if (value instanceof String && isBlockLiteralCandidate((String) value)) {
+			// Writes its own line breaks
+			writeBlockLiteral((String) value);
+			return;
+		}
+		writeScalar(value);
+		writer.write('\n');
+	}
+	
+	private void writeListItems(List<?> list) throws IOException {
+		for (Object element : list) {
+			writeIndent();
+			writer.write('-');
+			if (element instanceof Map && !((Map<?, ?>) element).isEmpty()) {
+				// Compact nested map, such that its first key shares the line with the item indicator
+				writer.write(' ');
+				inlinePending = true;
+				depth++;
+				writeMap((Map<?, ?>) element);
+				depth--;
+			} else if (element instanceof List && !((List<?>) element).isEmpty()
+					&& !(flowScalarLists && isScalarList((List<?>) element))) {
+				writer.write(' ');
+				inlinePending = true;
+				depth++;
+				writeListItems((List<?>) element);
+				depth--;
+			} else {
+				writeValue(element);
+			}
+		}
+	}
+	
+	private static boolean isScalarList(List<?> list) {
+		for (Object element : list) {
+			if (element instanceof Map || element instanceof List) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
-	private void writeSingleValue(Object value) throws IOException {
-		writer.append(' ');
-		writeSingleValue0(value);
-		writer.append('\n');
+	private void writeFlowList(List<?> list) throws IOException {
+		writer.write('[');
+		boolean first = true;
+		for (Object element : list) {
+			if (!first) {
+				writer.write(", ");
+			}
+			first = false;
+			writeScalar(element);
+		}
+		writer.write(']');
 	}
 	
-	private void writeSingleValue0(Object value) throws IOException {
+	/*
+	 * Scalars
+	 */
+	
+	private void writeScalar(Object value) throws IOException {
 		if (value instanceof String || value instanceof Character) {
-			writer.append('\'');
-			writer.append(value.toString().replace("'", "''"));
-			writer.append('\'');
+			String string = value.toString();
+			writeQuotedString(string, !isSingleQuotable(string));
+			return;
+		}
+		if (value instanceof Double || value instanceof Float) {
+			double doubleValue = ((Number) value).doubleValue();
+			if (Double.isNaN(doubleValue)) {
+				writer.write(".nan");
+			} else if (Double.isInfinite(doubleValue)) {
+				writer.write((doubleValue > 0) ? ".inf" : "-.inf");
+			} else {
+				writer.write(value.toString());
+			}
 			return;
 		}
 		if (value instanceof Number || value instanceof Boolean) {
-			writer.append(value.toString());
+			writer.write(value.toString());
 			return;
 		}
 		throw new IllegalArgumentException("Unknown single value type " + value.getClass());
 	}
 	
+	/**
+	 * Whether a character may appear in a yaml document without escaping. Excludes line breaks.
+	 * 
+	 * @param ch the character
+	 * @return true if printable
+	 */
+	static boolean isPrintable(char ch) {
+		return ch >= 0x20 && ch <= 0x7E
+				|| ch == '\t'
+				|| ch >= 0xA0 && ch <= 0xD7FF && ch != 0x2028 && ch != 0x2029
+				|| ch >= 0xE000 && ch <= 0xFFFD && ch != 0xFEFF
+				|| Character.isSurrogate(ch);
+	}
+	
+	private static boolean isSingleQuotable(String value) {
+		for (int n = 0; n < value.length(); n++) {
+			if (!isPrintable(value.charAt(n))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isBlockLiteralCandidate(String value) {
+		if (value.indexOf('\n') == -1) {
+			return false;
+		}
+		boolean foundContent = false;
+		boolean lineStart = true;
+		for (int n = 0; n < value.length(); n++) {
+			char ch = value.charAt(n);
+			if (ch == '\n') {
+				lineStart = true;
+				continue;
+			}
+			if (!isPrintable(ch)) {
+				return false;
+			}
+			if (lineStart && !foundContent) {
+				// Indentation is detected from the first non-empty line
+				if (ch == ' ' || ch == '\t') {
+					return false;
+				}
+				foundContent = true;
+			}
+			lineStart = false;
+		}
+		return foundContent;
+	}
+	
+	private void writeBlockLiteral(String value) throws IOException {
+		int length = value.length();
+		int trailingBreaks = 0;
+		while (trailingBreaks < length && value.charAt(length - 1 - trailingBreaks) == '\n') {
+			trailingBreaks++;
+		}
+		// Chomping indicator: strip, clip, or keep trailing line breaks
+		if (trailingBreaks == 0) {
+			writer.write("|-\n");
+		} else if (trailingBreaks == 1) {
+			writer.write("|\n");
+		} else {
+			writer.write("|+\n");
+		}
+		String indent = indentFor(depth + 1);
+		int contentEnd = length - trailingBreaks;
+		int lineStart = 0;
+		while (lineStart <= contentEnd) {
+			int lineEnd = value.indexOf('\n', lineStart);
+			if (lineEnd == -1 || lineEnd > contentEnd) {
+				lineEnd = contentEnd;
+			}
+			if (lineEnd > lineStart) {
+				writer.write(indent);
+				writer.write(value, lineStart, lineEnd - lineStart);
+			}
+			writer.write('\n');
+			lineStart = lineEnd + 1;
+		}
+		for (int n = 1; n < trailingBreaks; n++) {
+			writer.write('\n');
+		}
+	}
+	
+	private void writeQuotedString(String value, boolean doubleQuoted) throws IOException {
+		if (doubleQuoted) {
+			writer.write('"');
+			writeEscaped(value);
+			writer.write('"');
+			return;
+		}
+		writer.write('\'');
+		int length = value.length();
+		int chunkStart = 0;
+		for (int n = 0; n < length; n++) {
+			if (value.charAt(n) == '\'') {
+				writer.write(value, chunkStart, n + 1 - chunkStart);
+				writer.write('\'');
+				chunkStart = n + 1;
+			}
+		}
+		writer.write(value, chunkStart, length - chunkStart);
+		writer.write('\'');
+	}
+	
+	private void writeEscaped(String value) throws IOException {
+		int length = value.length();
+		int chunkStart = 0;
+		for (int n = 0; n < length; n++) {
+			char ch = value.charAt(n);
+			String escape;
+			switch (ch) {
+			case '"':
+				escape = "\\\"";
+				break;
+			case '\\':
+				escape = "\\\\";
+				break;
+			case '\n':
+				escape = "\\n";
+				break;
+			case '\r':
+				escape = "\\r";
+				break;
+			case '\t':
+				escape = "\\t";
+				break;
+			default:
+				if (isPrintable(ch)) {
+					continue;
+				}
+				escape = String.format("\\u%04X", (int) ch);
+				break;
+			}
+			writer.write(value, chunkStart, n - chunkStart);
+			writer.write(escape);
+			chunkStart = n + 1;
+		}
+		writer.write(value, chunkStart, length - chunkStart);
+	}
+	
 }
@@ -20,11 +20,15 @@ package space.arim.dazzleconf.ext.snakeyaml;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
+import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.error.YAMLException;
 
 import space.arim.dazzleconf.ConfigurationFactory;
@@ -32,6 +36,7 @@ import space.arim.dazzleconf.ConfigurationOptions;
 import space.arim.dazzleconf.error.ConfigFormatSyntaxException;
 import space.arim.dazzleconf.error.IllDefinedConfigException;
 import space.arim.dazzleconf.factory.AbstractConfigurationFactory;
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
 
 /**
  * A {@link ConfigurationFactory} implementation using SnakeYAML to load a yaml configuration
@@ -43,6 +48,7 @@ import space.arim.dazzleconf.factory.AbstractConfigurationFactory;
 public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFactory<C> {
 
 	private final SnakeYamlOptions yamlOptions;
+	private final YamlPool yamlPool;
 	
 	/**
 	 * Creates from a configuration class, config options, and {@link SnakeYamlOptions}
@@ -57,6 +63,7 @@ public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFacto
 	public SnakeYamlConfigurationFactory(Class<C> configClazz, ConfigurationOptions options, SnakeYamlOptions yamlOptions) {
 		super(configClazz, options);
 		this.yamlOptions = Objects.requireNonNull(yamlOptions, "yamlOptions");
+		yamlPool = new YamlPool(yamlOptions.yamlSupplier());
 	}
 	
 	/**
@@ -83,10 +90,39 @@ public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFacto
 		return yamlOptions.charset();
 	}
 	
+	@Override
+	protected int bufferSize() {
+		return yamlOptions.bufferSize();
+	}
+	
+	@Override
+	protected long memoryMapThreshold() {
+		return yamlOptions.memoryMapThreshold();
+	}
+
 	@Override
 	protected Map<String, Object> loadMapFromReader(Reader reader) throws IOException, ConfigFormatSyntaxException {
+		if (yamlOptions.useSubsetParser()) {
+			String content = readFully(reader);
+			Map<String, Object> rawMap = SubsetYamlParser.parse(content);
+			if (rawMap != null) {
+				return rawMap;
+			}
+			// Outside the subset, fall back to SnakeYAML
+			Yaml yaml = yamlPool.acquire();
+			Map<String, Object> loaded;
+			try {
+				loaded = yaml.load(content);
+			} catch (YAMLException ex) {
+				throw new ConfigFormatSyntaxException(ex);
+			}
+			yamlPool.release(yaml);
+			return loaded;
+		}
+		Yaml yaml = yamlPool.acquire();
+		Map<String, Object> loaded;
 		try {
-			return yamlOptions.yamlSupplier().get().load(reader);
+			loaded = yaml.load(reader);
 		} catch (YAMLException ex) {
 			Throwable cause = ex.getCause();
 			if (cause instanceof IOException) {
@@ -94,6 +130,70 @@ public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFacto
 			}
 			throw new ConfigFormatSyntaxException(ex);
 		}
+		// Only reuse instances which completed normally
+		yamlPool.release(yaml);
+		return loaded;
+	}
+
+	private String readFully(Reader reader) throws IOException {
+		int bufferSize = bufferSize();
+		StringBuilder builder = new StringBuilder(bufferSize);
+		char[] buffer = new char[bufferSize];
+		int read;
+		while ((read = reader.read(buffer)) != -1) {
+			builder.append(buffer, 0, read);
+		}
+		return builder.toString();
+	}
+
+	@Override
+	protected ConfigurationEmitter createEmitter(Writer writer) throws IOException {
+		if (!yamlOptions.useCommentingWriter()) {
+			return null;
+		}
+		CommentedWriter.writeCommentsHeader(writer, getHeader());
+		return new CommentedWriter(writer, yamlOptions.flowStyleScalarLists());
+	}
+
+	@Override
+	protected CharSequence patchDocument(CharSequence document, C configData, Set<String> paths) throws IOException {
+		if (!yamlOptions.useCommentingWriter()) {
+			return null;
+		}
+		YamlPatcher patcher = new YamlPatcher(document.toString(), paths, yamlOptions.flowStyleScalarLists());
+		if (!patcher.outline()) {
+			return null;
+		}
+		emitSelectedEntries(configData, paths, patcher);
+		String patched = patcher.result();
+		if (patched == null || !isRenderedCorrectly(patcher.renderedUnits())) {
+			return null;
+		}
+		return patched;
+	}
+	
+	/**
+	 * Verifies that each inserted entry or section, parsed on its own, is a mapping of only its key.
+	 * The rest of the document is not parsed again, since the patcher leaves it as it is and positions
+	 * the inserted text by the document's outline.
+	 * 
+	 * @param units the rendered entries and sections
+	 * @return true if every unit is rendered correctly
+	 * @throws IOException if an I/O error occurs
+	 */
+	private boolean isRenderedCorrectly(List<YamlPatcher.RenderedUnit> units) throws IOException {
+		for (YamlPatcher.RenderedUnit unit : units) {
+			Map<String, Object> unitMap;
+			try {
+				unitMap = loadMapFromReader(new StringReader(unit.text));
+			} catch (ConfigFormatSyntaxException ex) {
+				return false;
+			}
+			if (unitMap == null || unitMap.size() != 1 || !unitMap.containsKey(unit.key)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -101,11 +201,12 @@ public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFacto
 		CommentedWriter.writeCommentsHeader(writer, getHeader());
 
 		if (yamlOptions.useCommentingWriter()) {
-			new CommentedWriter(rawMap, writer).write();
+			new CommentedWriter(rawMap, writer, yamlOptions.flowStyleScalarLists()).write();
 
 		} else {
+			Yaml yaml = yamlPool.acquire();
 			try {
-				yamlOptions.yamlSupplier().get().dump(rawMap, writer);
+				yaml.dump(rawMap, writer);
 			} catch (YAMLException ex) {
 				Throwable cause = ex.getCause();
 				if (cause instanceof IOException) {
@@ -113,6 +214,7 @@ public class SnakeYamlConfigurationFactory<C> extends AbstractConfigurationFacto
 				}
 				throw new IOException("This should not happen", ex);
 			}
+			yamlPool.release(yaml);
 		}
 	}
 
@@ -36,16 +36,27 @@ public final class SnakeYamlOptions {
 
 	private final Supplier<Yaml> yamlSupplier;
 	private final boolean useCommentingWriter;
+	private final boolean flowStyleScalarLists;
+	private final boolean useSubsetParser;
 	private final Charset charset;
+	private final int bufferSize;
+	private final long memoryMapThreshold;
 	
 	SnakeYamlOptions(Builder builder) {
 		Supplier<Yaml> yamlSupplier = builder.yamlSupplier;
 		this.yamlSupplier = (yamlSupplier != null) ? yamlSupplier : DefaultYamlSupplier.INSTANCE;
 
 		this.useCommentingWriter = builder.useCommentingWriter;
+		this.flowStyleScalarLists = builder.flowStyleScalarLists;
+
+		Boolean useSubsetParser = builder.useSubsetParser;
+		this.useSubsetParser = (useSubsetParser != null) ? useSubsetParser : yamlSupplier == null;
 
 		Charset charset = builder.charset;
 		this.charset = (charset != null) ? charset : StandardCharsets.UTF_8;
+
+		this.bufferSize = builder.bufferSize;
+		this.memoryMapThreshold = builder.memoryMapThreshold;
 	}
 
 	private static class DefaultYamlSupplier implements Supplier<Yaml> {
@@ -81,6 +92,26 @@ public final class SnakeYamlOptions {
 		return useCommentingWriter;
 	}
 	
+	/**
+	 * Whether the commenting writer writes lists of scalars in flow style. See
+	 * {@link Builder#flowStyleScalarLists(boolean)} for more details.
+	 * 
+	 * @return whether lists of scalars are written in flow style
+	 */
+	public boolean flowStyleScalarLists() {
+		return flowStyleScalarLists;
+	}
+	
+	/**
+	 * Whether documents within the subset of yaml written by the commenting writer are loaded
+	 * without SnakeYAML. See {@link Builder#useSubsetParser(boolean)} for more details.
+	 * 
+	 * @return whether the subset parser is enabled
+	 */
+	public boolean useSubsetParser() {
+		return useSubsetParser;
+	}
+	
 	/**
 	 * Gets the charset used
 	 * 
@@ -89,11 +120,31 @@ public final class SnakeYamlOptions {
 	public Charset charset() {
 		return charset;
 	}
+	
+	/**
+	 * Gets the buffer size used for streams and channels. See {@link Builder#bufferSize(int)}
+	 * 
+	 * @return the buffer size
+	 */
+	public int bufferSize() {
+		return bufferSize;
+	}
+	
+	/**
+	 * Gets the file size at or above which files are memory mapped. See {@link Builder#memoryMapThreshold(long)}
+	 * 
+	 * @return the memory map threshold
+	 */
+	public long memoryMapThreshold() {
+		return memoryMapThreshold;
+	}
 
 	@Override
 	public String toString() {
 		return "SnakeYamlOptions [yamlSupplier=" + yamlSupplier + ", useCommentingWriter=" + useCommentingWriter
-				+ ", charset=" + charset + "]";
+				+ ", flowStyleScalarLists=" + flowStyleScalarLists + ", useSubsetParser=" + useSubsetParser
+				+ ", charset=" + charset
+				+ ", bufferSize=" + bufferSize + ", memoryMapThreshold=" + memoryMapThreshold + "]";
 	}
 
 	/**
@@ -106,7 +157,11 @@ public final class SnakeYamlOptions {
 		
 		private Supplier<Yaml> yamlSupplier;
 		private boolean useCommentingWriter;
+		private boolean flowStyleScalarLists;
+		private Boolean useSubsetParser;
 		private Charset charset;
+		private int bufferSize = 8192;
+		private long memoryMapThreshold = 1L << 20;
 		
 		public Builder() {
 			
@@ -138,6 +193,72 @@ public final class SnakeYamlOptions {
 			return this;
 		}
 		
+		/**
+		 * Whether the commenting writer should write lists of scalars in flow style, such as
+		 * {@code [1, 2, 3]}, rather than one element per line. False by default. <br>
+		 * <br>
+		 * This is more compact for large lists of simple values. Lists containing maps or other lists
+		 * are always written in block style. Has no effect unless the commenting writer is enabled.
+		 * 
+		 * @param flowStyleScalarLists true to write lists of scalars in flow style, false otherwise
+		 * @return this builder
+		 */
+		public Builder flowStyleScalarLists(boolean flowStyleScalarLists) {
+			this.flowStyleScalarLists = flowStyleScalarLists;
+			return this;
+		}
+		
+		/**
+		 * Whether documents should first be loaded with a small single pass parser, which recognises
+		 * the subset of yaml written by the commenting writer: block maps and lists, quoted scalars,
+		 * literal block scalars, flow lists of scalars, simple plain scalars, and comments. Documents
+		 * outside the subset are loaded with SnakeYAML as usual. <br>
+		 * <br>
+		 * The subset parser produces the same values as a {@code Yaml} instance with the default
+		 * resolver and constructor. It is therefore enabled by default, unless a custom yaml supplier
+		 * has been set, since a custom {@code Yaml} instance may resolve or construct values differently.
+		 * 
+		 * @param useSubsetParser true to use the subset parser where possible, false to always use SnakeYAML
+		 * @return this builder
+		 */
+		public Builder useSubsetParser(boolean useSubsetParser) {
+			this.useSubsetParser = useSubsetParser;
+			return this;
+		}
+		
+		/**
+		 * Sets the size of the character buffers used when reading from or writing to streams and channels.
+		 * This is also the initial buffer size when reading a file whose size is not known. Default is 8192
+		 * 
+		 * @param bufferSize the buffer size
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code bufferSize} is not positive
+		 */
+		public Builder bufferSize(int bufferSize) {
+			if (bufferSize <= 0) {
+				throw new IllegalArgumentException("bufferSize must be positive");
+			}
+			this.bufferSize = bufferSize;
+			return this;
+		}
+		
+		/**
+		 * Sets the file size, in bytes, at or above which files are memory mapped and decoded in place
+		 * when loaded from a path. Smaller files are read into a buffer of exactly the file's size.
+		 * Default is 1 MiB
+		 * 
+		 * @param memoryMapThreshold the memory map threshold
+		 * @return this builder
+		 * @throws IllegalArgumentException if {@code memoryMapThreshold} is negative
+		 */
+		public Builder memoryMapThreshold(long memoryMapThreshold) {
+			if (memoryMapThreshold < 0) {
+				throw new IllegalArgumentException("memoryMapThreshold must not be negative");
+			}
+			this.memoryMapThreshold = memoryMapThreshold;
+			return this;
+		}
+		
 		/**
 		 * Builds the options. May be used repeatedly without side effects
 		 * 
@@ -150,7 +271,9 @@ public final class SnakeYamlOptions {
 		@Override
 		public String toString() {
 			return "SnakeYamlOptions.Builder [yamlSupplier=" + yamlSupplier + ", useCommentingWriter=" + useCommentingWriter
-					+ ", charset=" + charset + "]";
+					+ ", flowStyleScalarLists=" + flowStyleScalarLists + ", useSubsetParser=" + useSubsetParser
+				+ ", charset=" + charset
+					+ ", bufferSize=" + bufferSize + ", memoryMapThreshold=" + memoryMapThreshold + "]";
 		}
 		
 	}
@@ -0,0 +1,850 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass parser for the subset of yaml written by {@link CommentedWriter}. This includes block
+ * maps and lists, compact maps and lists inside lists, quoted scalars, literal block scalars, flow
+ * lists of scalars, empty flow collections, and comments. <br>
+ * <br>
+ * Plain scalars are only accepted if they are resolved by SnakeYAML's default resolver in an
+ * unambiguous manner: decimal integers, floats with a fractional part, infinity and NaN, booleans,
+ * null, and simple words. The parser produces the same result as SnakeYAML for every document it
+ * accepts. Anything outside the subset, including every malformed document, is rejected, so that
+ * the document may be loaded by SnakeYAML instead.
+ * 
+ * @author A248
+ *
+ */
+final class SubsetYamlParser {
+
+	private final String yaml;
+	private final int length;
+	private int pos;
+	/** Indentation of the current content line, or -1 if the end of the document was reached */
+	private int lineIndent;
+	
+	private SubsetYamlParser(String yaml) {
+		this.yaml = yaml;
+		length = yaml.length();
+	}
+	
+	/**
+	 * Parses a yaml document, if it lies within the recognised subset
+	 * 
+	 * @param yaml the yaml document
+	 * @return the parsed top level map, or {@code null} if the document is outside the subset
+	 */
+	static Map<String, Object> parse(String yaml) {
+		try {
+			return new SubsetYamlParser(yaml).parseDocument();
+		} catch (UnsupportedYamlException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Thrown to abandon parsing when a document is found to be outside the subset. Has no stacktrace
+	 * since it is used solely for control flow.
+	 *
+	 */
+	private static final class UnsupportedYamlException extends Exception {
+
+		private static final long serialVersionUID = -6002958302575416219L;
+		
+		static final UnsupportedYamlException INSTANCE = new UnsupportedYamlException();
+
+		private UnsupportedYamlException() {
+			super(null, null, false, false);
+		}
+	}
+	
+	private static UnsupportedYamlException unsupported() {
+		return UnsupportedYamlException.INSTANCE;
+	}
+	
+	private Map<String, Object> parseDocument() throws UnsupportedYamlException {
+		nextContentLine();
+		// Empty documents and indented top level maps are left to SnakeYAML
+		if (lineIndent != 0) {
+			throw unsupported();
+		}
+		Map<String, Object> map = parseBlockMap(0);
+		if (lineIndent != -1) {
+			throw unsupported();
+		}
+		return map;
+	}
+	
+	/*
+	 * Lines
+	 */
+	
+	/**
+	 * Skips blank lines and comment lines, positioning at the first character of the next content line
+	 * and setting {@code lineIndent} to its indentation
+	 * 
+	 * @throws UnsupportedYamlException if the indentation contains anything other than spaces
+	 */
+	private void nextContentLine() throws UnsupportedYamlException {
+		while (true) {
+			int lineStart = pos;
+			while (pos < length && yaml.charAt(pos) == ' ') {
+				pos++;
+			}
+			if (pos == length) {
+				lineIndent = -1;
+				return;
+			}
+			char ch = yaml.charAt(pos);
+			if (ch == '\n') {
+				pos++;
+				continue;
+			}
+			if (ch == '#') {
+				skipComment();
+				continue;
+			}
+			if (ch == '\t' || ch == '\r' || ch == '\uFEFF') {
+				throw unsupported();
+			}
+			lineIndent = pos - lineStart;
+			return;
+		}
+	}
+	
+	/**
+	 * Skips a comment, including the line break after it
+	 * 
+	 * @throws UnsupportedYamlException if the comment contains characters SnakeYAML would reject
+	 */
+	private void skipComment() throws UnsupportedYamlException {
+		while (pos < length) {
+			char ch = yaml.charAt(pos++);
+			if (ch == '\n') {
+				return;
+			}
+			if (!CommentedWriter.isPrintable(ch)) {
+				throw unsupported();
+			}
+		}
+	}
+	
+	/**
+	 * Finishes the current line after a value, allowing trailing spaces and a comment, then moves
+	 * to the next content line
+	 * 
+	 * @throws UnsupportedYamlException if anything else follows the value
+	 */
+	private void endLine() throws UnsupportedYamlException {
+		skipSpaces();
+		if (pos < length) {
+			char ch = yaml.charAt(pos);
+			if (ch == '#' && yaml.charAt(pos - 1) == ' ') {
+				skipComment();
+			} else if (ch == '\n') {
+				pos++;
+			} else {
+				throw unsupported();
+			}
+		}
+		nextContentLine();
+	}
+	
+	private void skipSpaces() {
+		while (pos < length && yaml.charAt(pos) == ' ') {
+			pos++;
+		}
+	}
+	
+	/**
+	 * Whether the end of the line, or a comment, begins at the current position. Should be called
+	 * after a space has been skipped
+	 * 
+	 * @return true if at the end of a line's content
+	 */
+	private boolean atLineEnd() {
+		if (pos == length) {
+			return true;
+		}
+		char ch = yaml.charAt(pos);
+		return ch == '\n' || ch == '#';
+	}
+	
+	/**
+	 * Whether a block sequence entry indicator is at the current position
+	 * 
+	 * @return true if at a list item
+	 */
+	private boolean atSequenceEntry() {
+		if (pos == length || yaml.charAt(pos) != '-') {
+			return false;
+		}
+		if (pos + 1 == length) {
+			return true;
+		}
+		char next = yaml.charAt(pos + 1);
+		return next == ' ' || next == '\n';
+	}
+	
+	/*
+	 * Block collections
+	 */
+	
+	/**
+	 * Parses a block map whose first key is at the current position
+	 * 
+	 * @param indent the indentation of the map's keys
+	 * @return the map
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private Map<String, Object> parseBlockMap(int indent) throws UnsupportedYamlException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		do {
+			Object key = parseKey();
+			if (!(key instanceof String)) {
+				// Null and non-string keys are left to SnakeYAML
+				throw unsupported();
+			}
+			Object value = parseValue(indent);
+			if (map.containsKey(key)) {
+				// Duplicate keys may be disallowed by the loader options
+				throw unsupported();
+			}
+			map.put((String) key, value);
+		} while (lineIndent == indent);
+
+		if (lineIndent > indent) {
+			throw unsupported();
+		}
+		return map;
+	}
+	
+	/**
+	 * Parses a block list whose first item indicator is at the current position
+	 * 
+	 * @param indent the indentation of the item indicators
+	 * @return the list
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private List<Object> parseBlockSequence(int indent) throws UnsupportedYamlException {
+		List<Object> list = new ArrayList<>();
+		do {
+			if (!atSequenceEntry()) {
+				throw unsupported();
+			}
+			pos++;
+			list.add(parseSequenceItem(indent));
+		} while (lineIndent == indent);
+
+		if (lineIndent > indent) {
+			throw unsupported();
+		}
+		return list;
+	}
+	
+	private Object parseSequenceItem(int indent) throws UnsupportedYamlException {
+		int indicatorEnd = pos;
+		skipSpaces();
+		if (atLineEnd()) {
+			return parseNestedBlock(indent);
+		}
+		if (pos == indicatorEnd) {
+			throw unsupported();
+		}
+		// Compact collections begin on the same line as the item indicator
+		int column = indent + 1 + (pos - indicatorEnd);
+		if (atSequenceEntry()) {
+			return parseBlockSequence(column);
+		}
+		if (atMapKey()) {
+			return parseBlockMap(column);
+		}
+		return parseInlineValue(indent);
+	}
+	
+	/**
+	 * Parses the value following a map key or list item indicator
+	 * 
+	 * @param indent the indentation of the parent collection
+	 * @return the value
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private Object parseValue(int indent) throws UnsupportedYamlException {
+		int indicatorEnd = pos;
+		skipSpaces();
+		if (atLineEnd()) {
+			return parseNestedBlock(indent);
+		}
+		if (pos == indicatorEnd) {
+			throw unsupported();
+		}
+		return parseInlineValue(indent);
+	}
+	
+	/**
+	 * Parses a collection beginning on the line after its key or item indicator. If there is no
+	 * more indented line, the value is null
+	 * 
+	 * @param indent the indentation of the parent collection
+	 * @return the nested collection or null
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private Object parseNestedBlock(int indent) throws UnsupportedYamlException {
+		endLine();
+		if (lineIndent <= indent) {
+			return null;
+		}
+		if (atSequenceEntry()) {
+			return parseBlockSequence(lineIndent);
+		}
+		return parseBlockMap(lineIndent);
+	}
+	
+	/**
+	 * Parses a value which begins on the current line, being a scalar, block literal, or flow collection
+	 * 
+	 * @param indent the indentation of the parent collection
+	 * @return the value
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private Object parseInlineValue(int indent) throws UnsupportedYamlException {
+		Object value;
+		switch (yaml.charAt(pos)) {
+		case '|':
+			return parseBlockLiteral(indent);
+		case '[':
+			value = parseFlowList();
+			break;
+		case '{':
+			if (!yaml.startsWith("{}", pos)) {
+				throw unsupported();
+			}
+			pos += 2;
+			value = new LinkedHashMap<>();
+			break;
+		case '"':
+			value = parseDoubleQuoted();
+			break;
+		case '\'':
+			value = parseSingleQuoted();
+			break;
+		default:
+			value = resolvePlain(scanPlain(false));
+			break;
+		}
+		endLine();
+		return value;
+	}
+	
+	/*
+	 * Keys
+	 */
+	
+	/**
+	 * Looks ahead to determine whether a map key begins at the current position
+	 * 
+	 * @return true if at a map key
+	 */
+	private boolean atMapKey() throws UnsupportedYamlException {
+		int start = pos;
+		try {
+			char ch = yaml.charAt(pos);
+			if (ch == '"') {
+				parseDoubleQuoted();
+			} else if (ch == '\'') {
+				parseSingleQuoted();
+			} else if (ch == '[' || ch == '{' || ch == '|') {
+				return false;
+			} else {
+				scanPlain(false);
+			}
+			skipSpaces();
+			return atKeyIndicator();
+		} finally {
+			pos = start;
+		}
+	}
+	
+	private boolean atKeyIndicator() {
+		if (pos == length || yaml.charAt(pos) != ':') {
+			return false;
+		}
+		return pos + 1 == length || yaml.charAt(pos + 1) == ' ' || yaml.charAt(pos + 1) == '\n';
+	}
+	
+	private Object parseKey() throws UnsupportedYamlException {
+		Object key;
+		char ch = yaml.charAt(pos);
+		if (ch == '"') {
+			key = parseDoubleQuoted();
+		} else if (ch == '\'') {
+			key = parseSingleQuoted();
+		} else {
+			key = resolvePlain(scanPlain(false));
+		}
+		skipSpaces();
+		if (!atKeyIndicator()) {
+			throw unsupported();
+		}
+		pos++;
+		return key;
+	}
+	
+	/*
+	 * Scalars
+	 */
+	
+	/**
+	 * Scans a plain scalar. In block context, the scalar ends before a key indicator, a comment,
+	 * or the end of the line. In flow context, it also ends before flow indicators
+	 * 
+	 * @param flow whether in flow context
+	 * @return the scalar, without trailing spaces
+	 * @throws UnsupportedYamlException if the scalar is empty
+	 */
+	private String scanPlain(boolean flow) throws UnsupportedYamlException {
+		int start = pos;
+		int end = pos;
+		scan:
+		while (pos < length) {
+			switch (yaml.charAt(pos)) {
+			case '\n':
+				break scan;
+			case ' ':
+				pos++;
+				if (pos < length && yaml.charAt(pos) == '#') {
+					break scan;
+				}
+				continue;
+			case ':':
+				if (atKeyIndicator()) {
+					break scan;
+				}
+				break;
+			case ',':
+			case '[':
+			case ']':
+			case '{':
+			case '}':
+				if (flow) {
+					break scan;
+				}
+				break;
+			default:
+				break;
+			}
+			pos++;
+			end = pos;
+		}
+		if (end == start) {
+			throw unsupported();
+		}
+		pos = end;
+		return yaml.substring(start, end);
+	}
+	
+	/**
+	 * Resolves a plain scalar in the same manner as SnakeYAML's default resolver and constructor,
+	 * for the plain scalars within the subset
+	 * 
+	 * @param scalar the plain scalar
+	 * @return the resolved value
+	 * @throws UnsupportedYamlException if the scalar is not within the subset
+	 */
+	private static Object resolvePlain(String scalar) throws UnsupportedYamlException {
+		switch (scalar) {
+		case "~":
+		case "null":
+		case "Null":
+		case "NULL":
+			return null;
+		case "true":
+		case "True":
+		case "TRUE":
+		case "yes":
+		case "Yes":
+		case "YES":
+		case "on":
+		case "On":
+		case "ON":
+			return Boolean.TRUE;
+		case "false":
+		case "False":
+		case "FALSE":
+		case "no":
+		case "No":
+		case "NO":
+		case "off":
+		case "Off":
+		case "OFF":
+			return Boolean.FALSE;
+		case ".inf":
+		case ".Inf":
+		case ".INF":
+		case "+.inf":
+		case "+.Inf":
+		case "+.INF":
+			return Double.POSITIVE_INFINITY;
+		case "-.inf":
+		case "-.Inf":
+		case "-.INF":
+			return Double.NEGATIVE_INFINITY;
+		case ".nan":
+		case ".NaN":
+		case ".NAN":
+			return Double.NaN;
+		default:
+			break;
+		}
+		if (CommentedWriter.isPlainSafeKey(scalar)) {
+			return scalar;
+		}
+		return resolveNumber(scalar);
+	}
+	
+	private static Object resolveNumber(String scalar) throws UnsupportedYamlException {
+		int length = scalar.length();
+		int start = 0;
+		if (length > 0 && (scalar.charAt(0) == '-' || scalar.charAt(0) == '+')) {
+			start = 1;
+		}
+		int digitsEnd = skipDigits(scalar, start);
+		int digits = digitsEnd - start;
+		if (digits == 0) {
+			throw unsupported();
+		}
+		if (digitsEnd == length) {
+			// Leading zeroes denote octal
+			if (digits > 1 && scalar.charAt(start) == '0') {
+				throw unsupported();
+			}
+			String decimal = (scalar.charAt(0) == '+') ? scalar.substring(1) : scalar;
+			if (digits < 10) {
+				return Integer.valueOf(decimal);
+			}
+			if (digits < 19) {
+				long value = Long.parseLong(decimal);
+				if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+					return (int) value;
+				}
+				return value;
+			}
+			BigInteger value = new BigInteger(decimal);
+			if (value.bitLength() < 32) {
+				return value.intValue();
+			}
+			if (value.bitLength() < 64) {
+				return value.longValue();
+			}
+			return value;
+		}
+		// Require a fractional part, as written by Double.toString
+		if (scalar.charAt(digitsEnd) != '.') {
+			throw unsupported();
+		}
+		int fractionEnd = skipDigits(scalar, digitsEnd + 1);
+		if (fractionEnd == digitsEnd + 1) {
+			throw unsupported();
+		}
+		if (fractionEnd != length) {
+			char exponent = scalar.charAt(fractionEnd);
+			if (exponent != 'e' && exponent != 'E') {
+				throw unsupported();
+			}
+			int exponentStart = fractionEnd + 1;
+			if (exponentStart < length && (scalar.charAt(exponentStart) == '-' || scalar.charAt(exponentStart) == '+')) {
+				exponentStart++;
+			}
+			int exponentEnd = skipDigits(scalar, exponentStart);
+			if (exponentEnd == exponentStart || exponentEnd != length) {
+				throw unsupported();
+			}
+		}
+		return Double.valueOf(scalar);
+	}
+	
+	private static int skipDigits(String scalar, int index) {
+		while (index < scalar.length()) {
+			char ch = scalar.charAt(index);
+			if (ch < '0' || ch > '9') {
+				break;
+			}
+			index++;
+		}
+		return index;
+	}
+	
+	private String parseSingleQuoted() throws UnsupportedYamlException {
+		StringBuilder builder = null;
+		int chunkStart = ++pos;
+		while (pos < length) {
+			char ch = yaml.charAt(pos);
+			if (ch == '\'') {
+				if (pos + 1 < length && yaml.charAt(pos + 1) == '\'') {
+					// Escaped quote
+					if (builder == null) {
+						builder = new StringBuilder();
+					}
+					builder.append(yaml, chunkStart, pos + 1);
+					pos += 2;
+					chunkStart = pos;
+					continue;
+				}
+				String value = (builder == null) ?
+						yaml.substring(chunkStart, pos) : builder.append(yaml, chunkStart, pos).toString();
+				pos++;
+				return value;
+			}
+			if (!CommentedWriter.isPrintable(ch)) {
+				// Line folding, or characters SnakeYAML would reject
+				throw unsupported();
+			}
+			pos++;
+		}
+		throw unsupported();
+	}
+	
+	private String parseDoubleQuoted() throws UnsupportedYamlException {
+		StringBuilder builder = null;
+		int chunkStart = ++pos;
+		while (pos < length) {
+			char ch = yaml.charAt(pos);
+			if (ch == '"') {
+				String value = (builder == null) ?
+						yaml.substring(chunkStart, pos) : builder.append(yaml, chunkStart, pos).toString();
+				pos++;
+				return value;
+			}
+			if (ch == '\\') {
+				if (builder == null) {
+					builder = new StringBuilder();
+				}
+				builder.append(yaml, chunkStart, pos);
+				pos++;
+				appendEscape(builder);
+				chunkStart = pos;
+				continue;
+			}
+			if (!CommentedWriter.isPrintable(ch)) {
+				throw unsupported();
+			}
+			pos++;
+		}
+		throw unsupported();
+	}
+	
+	private void appendEscape(StringBuilder builder) throws UnsupportedYamlException {
+		if (pos == length) {
+			throw unsupported();
+		}
+		char escape = yaml.charAt(pos++);
+		switch (escape) {
+		case '"':
+		case '\\':
+			builder.append(escape);
+			break;
+		case 'n':
+			builder.append('\n');
+			break;
+		case 'r':
+			builder.append('\r');
+			break;
+		case 't':
+			builder.append('\t');
+			break;
+		case '0':
+			builder.append('\0');
+			break;
+		case 'x':
+			builder.append(parseHex(2));
+			break;
+		case 'u':
+			builder.append(parseHex(4));
+			break;
+		default:
+			throw unsupported();
+		}
+	}
+	
+	private char parseHex(int digits) throws UnsupportedYamlException {
+		if (pos + digits > length) {
+			throw unsupported();
+		}
+		int value = 0;
+		for (int n = 0; n < digits; n++) {
+			int digit = Character.digit(yaml.charAt(pos++), 16);
+			if (digit == -1) {
+				throw unsupported();
+			}
+			value = (value << 4) | digit;
+		}
+		return (char) value;
+	}
+	
+	/*
+	 * Block literals and flow collections
+	 */
+	
+	/**
+	 * Parses a literal block scalar with an optional chomping indicator. The indentation indicator
+	 * is not supported
+	 * 
+	 * @param indent the indentation of the parent collection
+	 * @return the string value
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private String parseBlockLiteral(int indent) throws UnsupportedYamlException {
+		pos++;
+		char chomping = ' ';
+		if (pos < length && (yaml.charAt(pos) == '-' || yaml.charAt(pos) == '+')) {
+			chomping = yaml.charAt(pos++);
+		}
+		skipSpaces();
+		if (pos < length) {
+			char ch = yaml.charAt(pos);
+			if (ch == '#' && yaml.charAt(pos - 1) == ' ') {
+				skipComment();
+			} else if (ch == '\n') {
+				pos++;
+			} else {
+				throw unsupported();
+			}
+		}
+		StringBuilder builder = new StringBuilder();
+		int contentIndent = -1;
+		int maxEmptyIndent = 0;
+		int pendingBreaks = 0;
+		while (pos < length) {
+			int lineStart = pos;
+			while (pos < length && yaml.charAt(pos) == ' ') {
+				pos++;
+			}
+			int spaces = pos - lineStart;
+			boolean empty = pos == length || yaml.charAt(pos) == '\n';
+			if (contentIndent == -1) {
+				if (empty) {
+					maxEmptyIndent = Math.max(maxEmptyIndent, spaces);
+				} else {
+					// Indentation is detected from the first non-empty line
+					if (spaces <= indent || spaces < maxEmptyIndent) {
+						throw unsupported();
+					}
+					contentIndent = spaces;
+				}
+			}
+			if (empty && (contentIndent == -1 || spaces <= contentIndent)) {
+				if (pos < length) {
+					pos++;
+					pendingBreaks++;
+				}
+				continue;
+			}
+			if (spaces < contentIndent) {
+				// End of the block scalar
+				pos = lineStart;
+				break;
+			}
+			for (int n = 0; n < pendingBreaks; n++) {
+				builder.append('\n');
+			}
+			pendingBreaks = 0;
+			int textStart = lineStart + contentIndent;
+			while (pos < length && yaml.charAt(pos) != '\n') {
+				if (!CommentedWriter.isPrintable(yaml.charAt(pos))) {
+					throw unsupported();
+				}
+				pos++;
+			}
+			builder.append(yaml, textStart, pos);
+			if (pos < length) {
+				pos++;
+				pendingBreaks++;
+			}
+		}
+		if (contentIndent == -1) {
+			throw unsupported();
+		}
+		if (chomping == '+') {
+			for (int n = 0; n < pendingBreaks; n++) {
+				builder.append('\n');
+			}
+		} else if (chomping == ' ' && pendingBreaks > 0) {
+			builder.append('\n');
+		}
+		nextContentLine();
+		return builder.toString();
+	}
+	
+	/**
+	 * Parses a flow list of scalars on a single line
+	 * 
+	 * @return the list
+	 * @throws UnsupportedYamlException if outside the subset
+	 */
+	private List<Object> parseFlowList() throws UnsupportedYamlException {
+		pos++;
+		List<Object> list = new ArrayList<>();
+		skipSpaces();
+		if (pos < length && yaml.charAt(pos) == ']') {
+			pos++;
+			return list;
+		}
+		while (pos < length) {
+			Object element;
+			switch (yaml.charAt(pos)) {
+			case '"':
+				element = parseDoubleQuoted();
+				break;
+			case '\'':
+				element = parseSingleQuoted();
+				break;
+			case '[':
+			case '{':
+			case '\n':
+			case '#':
+				throw unsupported();
+			default:
+				element = resolvePlain(scanPlain(true));
+				break;
+			}
+			list.add(element);
+			skipSpaces();
+			if (pos == length) {
+				break;
+			}
+			char ch = yaml.charAt(pos++);
+			if (ch == ']') {
+				return list;
+			}
+			if (ch != ',') {
+				break;
+			}
+			skipSpaces();
+		}
+		throw unsupported();
+	}
+	
+}
@@ -0,0 +1,519 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import space.arim.dazzleconf.factory.ConfigurationEmitter;
+
+/**
+ * Inserts missing entries into the existing text of a yaml document, leaving the rest of the text as it is.
+ * The document is first outlined by its mapping keys and their indentation. Selected entries are then
+ * emitted to this patcher, which renders each missing entry or section with a {@link CommentedWriter}
+ * and positions it after the preceding sibling which exists in the document. <br>
+ * <br>
+ * Documents using constructs the outline does not understand are reported as unsupported, in which
+ * case the whole configuration should be written instead.
+ * 
+ * @author A248
+ *
+ */
+final class YamlPatcher implements ConfigurationEmitter {
+
+	private final String[] lines;
+	private final boolean endsWithNewline;
+	private final Set<String> paths;
+	private final boolean flowScalarLists;
+	
+	private final Node root = new Node(null, -1, -1, 0, false);
+	private final Deque<Level> levels = new ArrayDeque<>();
+	private final List<Insertion> insertions = new ArrayList<>();
+	private final List<RenderedUnit> renderedUnits = new ArrayList<>();
+	/** Set if an entry cannot be positioned */
+	private boolean failed;
+	
+	private StringWriter unitBuffer;
+	private CommentedWriter unitWriter;
+	private String unitKey;
+	private int unitDepth;
+	
+	/**
+	 * Creates a patcher
+	 * 
+	 * @param document the existing document
+	 * @param paths the full keys of the entries and sections which will be inserted
+	 * @param flowScalarLists whether to write lists of scalars in flow style
+	 */
+	YamlPatcher(String document, Set<String> paths, boolean flowScalarLists) {
+		endsWithNewline = document.endsWith("\n");
+		String body = (endsWithNewline) ? document.substring(0, document.length() - 1) : document;
+		lines = (body.isEmpty()) ? new String[0] : body.split("\n", -1);
+		this.paths = paths;
+		this.flowScalarLists = flowScalarLists;
+	}
+	
+	/*
+	 * Outline
+	 */
+	
+	private static final class Node {
+		
+		final String key;
+		final int indent;
+		final int keyLine;
+		/** First line of the comments directly above the key */
+		final int commentStart;
+		/** Whether a value follows the key on the same line */
+		final boolean inlineValue;
+		/** Whether the block below the key is not a mapping */
+		boolean opaque;
+		/** Last line of content belonging to the key */
+		int end;
+		int childIndent = -1;
+		final Map<String, Node> children = new HashMap<>();
+		
+		Node(String key, int indent, int keyLine, int commentStart, boolean inlineValue) {
+			this.key = key;
+			this.indent = indent;
+			this.keyLine = keyLine;
+			this.commentStart = commentStart;
+			this.inlineValue = inlineValue;
+			end = keyLine;
+		}
+		
+		boolean acceptsChildren() {
+			return !inlineValue && !opaque;
+		}
+		
+	}
+	
+	/**
+	 * Outlines the document's mapping keys
+	 * 
+	 * @return true if successful, false if the document is unsupported
+	 */
+	boolean outline() {
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		int lastContentLine = -1;
+		int commentStart = -1;
+		for (int n = 0; n < lines.length; n++) {
+			String line = lines[n];
+			if (line.indexOf('\r') != -1 || line.indexOf('\t') != -1) {
+				return false;
+			}
+			int indent = 0;
+			while (indent < line.length() && line.charAt(indent) == ' ') {
+				indent++;
+			}
+			if (indent == line.length()) {
+				commentStart = -1;
+				continue;
+			}
+			if (line.charAt(indent) == '#') {
+				if (commentStart == -1) {
+					commentStart = n;
+				}
+				continue;
+			}
+			int keyEnd = findKeyEnd(line, indent);
+			if (keyEnd != -1) {
+				while (stack.peek().indent >= indent) {
+					stack.pop().end = lastContentLine;
+				}
+				Node parent = stack.peek();
+				if (parent.acceptsChildren()) {
+					if (parent.childIndent == -1) {
+						parent.childIndent = indent;
+					} else if (parent.childIndent != indent) {
+						return false;
+					}
+					String key = decodeKey(line.substring(indent, keyEnd).trim());
+					if (key == null) {
+						return false;
+					}
+					boolean inlineValue = hasInlineValue(line, keyEnd + 1);
+					Node node = new Node(key, indent, n, (commentStart == -1) ? n : commentStart, inlineValue);
+					if (parent.children.put(key, node) != null) {
+						return false;
+					}
+					stack.push(node);
+				}
+				// Otherwise the line belongs to the value of the parent key
+			} else {
+				while (stack.peek().indent > indent) {
+					stack.pop().end = lastContentLine;
+				}
+				Node node = stack.peek();
+				if (node == root) {
+					// Documents markers, directives, or a top level value which is not a mapping
+					return false;
+				}
+				if (node.indent == indent) {
+					// Only a block sequence may appear at the indentation of its key
+					if (line.charAt(indent) != '-' || node.inlineValue || !node.children.isEmpty()) {
+						return false;
+					}
+					node.opaque = true;
+				} else if (!node.children.isEmpty()) {
+					return false;
+				} else {
+					node.opaque = true;
+				}
+			}
+			lastContentLine = n;
+			commentStart = -1;
+		}
+		while (!stack.isEmpty()) {
+			stack.pop().end = lastContentLine;
+		}
+		levels.push(new Level(root));
+		return true;
+	}
+	
+	/**
+	 * Finds the position of the colon ending the key on a line, if the line begins with a mapping key
+	 * 
+	 * @param line the line
+	 * @param start the start of the line's content
+	 * @return the position of the colon, or -1 if the line does not begin with a key
+	 */
+	private static int findKeyEnd(String line, int start) {
+		int length = line.length();
+		char first = line.charAt(start);
+		int position;
+		if (first == '"' || first == '\'') {
+			position = start + 1;
+			while (true) {
+				if (position >= length) {
+					return -1;
+				}
+				char ch = line.charAt(position);
+				if (first == '"' && ch == '\\') {
+					position += 2;
+					continue;
+				}
+				if (ch == first) {
+					if (first == '\'' && position + 1 < length && line.charAt(position + 1) == '\'') {
+						position += 2;
+						continue;
+					}
+					break;
+				}
+				position++;
+			}
+			position++;
+			while (position < length && line.charAt(position) == ' ') {
+				position++;
+			}
+			return (isKeyIndicator(line, position)) ? position : -1;
+		}
+		if ("-?:,[]{}#&*!|>%@`".indexOf(first) != -1) {
+			return -1;
+		}
+		for (position = start + 1; position < length; position++) {
+			char ch = line.charAt(position);
+			if (ch == '#' && line.charAt(position - 1) == ' ') {
+				return -1;
+			}
+			if (isKeyIndicator(line, position)) {
+				return position;
+			}
+		}
+		return -1;
+	}
+	
+	private static boolean isKeyIndicator(String line, int position) {
+		return position < line.length() && line.charAt(position) == ':'
+				&& (position + 1 == line.length() || line.charAt(position + 1) == ' ');
+	}
+	
+	private static boolean hasInlineValue(String line, int start) {
+		for (int n = start; n < line.length(); n++) {
+			char ch = line.charAt(n);
+			if (ch != ' ') {
+				return ch != '#';
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Decodes a mapping key
+	 * 
+	 * @param key the key as written
+	 * @return the decoded key, or {@code null} if it uses escapes which are not understood
+	 */
+	private static String decodeKey(String key) {
+		char first = key.charAt(0);
+		if (first == '\'') {
+			return key.substring(1, key.length() - 1).replace("''", "'");
+		}
+		if (first == '"') {
+			StringBuilder decoded = new StringBuilder(key.length());
+			for (int n = 1; n < key.length() - 1; n++) {
+				char ch = key.charAt(n);
+				if (ch == '\\') {
+					ch = key.charAt(++n);
+					if (ch != '"' && ch != '\\') {
+						return null;
+					}
+				}
+				decoded.append(ch);
+			}
+			return decoded.toString();
+		}
+		return key;
+	}
+	
+	/*
+	 * Emitter
+	 */
+	
+	private static final class Level {
+		
+		final Node node;
+		/** The last sibling emitted at this level which exists in the document */
+		Node lastSibling;
+		/** Rendered entries waiting for the next sibling which exists in the document */
+		final List<String> pending = new ArrayList<>();
+		
+		Level(Node node) {
+			this.node = node;
+		}
+		
+	}
+	
+	private static final class Insertion {
+		
+		final int beforeLine;
+		final String text;
+		
+		Insertion(int beforeLine, String text) {
+			this.beforeLine = beforeLine;
+			this.text = text;
+		}
+		
+	}
+	
+	private boolean isSelected(String key) {
+		StringBuilder path = new StringBuilder();
+		for (Level level : (Iterable<Level>) levels::descendingIterator) {
+			if (level.node != root) {
+				path.append(level.node.key).append('.');
+			}
+		}
+		return paths.contains(path.append(key).toString());
+	}
+	
+	private void beginUnit(String key) {
+		unitBuffer = new StringWriter();
+		unitWriter = new CommentedWriter(unitBuffer, flowScalarLists);
+		unitKey = key;
+	}
+	
+	private void completeUnit() {
+		Level level = levels.peek();
+		String unit = unitBuffer.toString();
+		renderedUnits.add(new RenderedUnit(unitKey, unit));
+		String text = indentUnit(level.node, unit);
+		unitBuffer = null;
+		unitWriter = null;
+		unitKey = null;
+		if (text == null) {
+			failed = true;
+		} else if (level.lastSibling != null) {
+			insertions.add(new Insertion(level.lastSibling.end + 1, text));
+		} else {
+			level.pending.add(text);
+		}
+	}
+	
+	private String indentUnit(Node parent, String unit) {
+		if (!parent.acceptsChildren()) {
+			return null;
+		}
+		int indent;
+		if (parent.childIndent != -1) {
+			indent = parent.childIndent;
+		} else {
+			indent = (parent == root) ? 0 : parent.indent + 2;
+		}
+		if (indent == 0) {
+			return unit;
+		}
+		char[] spaces = new char[indent];
+		Arrays.fill(spaces, ' ');
+		StringBuilder result = new StringBuilder(unit.length() + 8 * indent);
+		int lineStart = 0;
+		int lineEnd;
+		while ((lineEnd = unit.indexOf('\n', lineStart)) != -1) {
+			if (lineEnd != lineStart) {
+				result.append(spaces);
+			}
+			result.append(unit, lineStart, lineEnd + 1);
+			lineStart = lineEnd + 1;
+		}
+		return result.toString();
+	}
+	
+	private void existingSibling(Node sibling) {
+		Level level = levels.peek();
+		for (String text : level.pending) {
+			insertions.add(new Insertion(sibling.commentStart, text));
+		}
+		level.pending.clear();
+		level.lastSibling = sibling;
+	}
+	
+	private void endLevel() {
+		Level level = levels.pop();
+		int beforeLine = (level.node == root) ? lines.length : level.node.end + 1;
+		for (String text : level.pending) {
+			insertions.add(new Insertion(beforeLine, text));
+		}
+	}
+	
+	@Override
+	public void beginSection(String key, List<String> comments) throws IOException {
+		if (unitWriter != null) {
+			unitWriter.beginSection(key, comments);
+			unitDepth++;
+			return;
+		}
+		if (isSelected(key)) {
+			beginUnit(key);
+			unitWriter.beginSection(key, comments);
+			unitDepth = 1;
+			return;
+		}
+		Node section = levels.peek().node.children.get(key);
+		if (section == null) {
+			// The section is neither present nor selected
+			failed = true;
+			section = new Node(key, -1, -1, 0, true);
+		} else {
+			existingSibling(section);
+		}
+		levels.push(new Level(section));
+	}
+	
+	@Override
+	public void endSection() throws IOException {
+		if (unitWriter != null) {
+			unitWriter.endSection();
+			if (--unitDepth == 0) {
+				completeUnit();
+			}
+			return;
+		}
+		endLevel();
+	}
+	
+	@Override
+	public void emitEntry(String key, Object value, List<String> comments) throws IOException {
+		if (unitWriter != null) {
+			unitWriter.emitEntry(key, value, comments);
+			return;
+		}
+		beginUnit(key);
+		unitWriter.emitEntry(key, value, comments);
+		completeUnit();
+	}
+	
+	@Override
+	public void omitKey(String key) throws IOException {
+		Node sibling = levels.peek().node.children.get(key);
+		if (sibling != null) {
+			existingSibling(sibling);
+		}
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		endLevel();
+	}
+	
+	/*
+	 * Result
+	 */
+	
+	/**
+	 * An entry or section rendered for insertion, before it is indented to its position
+	 */
+	static final class RenderedUnit {
+		
+		final String key;
+		final String text;
+		
+		RenderedUnit(String key, String text) {
+			this.key = key;
+			this.text = text;
+		}
+		
+	}
+	
+	/**
+	 * Gets the rendered entries and sections, each of which is a document of its own
+	 * 
+	 * @return the rendered units
+	 */
+	List<RenderedUnit> renderedUnits() {
+		return renderedUnits;
+	}
+	
+	/**
+	 * Applies the insertions to the document
+	 * 
+	 * @return the patched document, or {@code null} if an entry could not be positioned
+	 */
+	String result() {
+		if (failed) {
+			return null;
+		}
+		// Stable, so that insertions at the same line keep their emission order
+		Collections.sort(insertions, (i1, i2) -> Integer.compare(i1.beforeLine, i2.beforeLine));
+		StringBuilder result = new StringBuilder();
+		int next = 0;
+		for (int n = 0; n <= lines.length; n++) {
+			while (next < insertions.size() && insertions.get(next).beforeLine == n) {
+				result.append(insertions.get(next++).text);
+			}
+			if (n == lines.length) {
+				break;
+			}
+			result.append(lines[n]);
+			if (n + 1 < lines.length || endsWithNewline || next < insertions.size()) {
+				result.append('\n');
+			}
+		}
+		return result.toString();
+	}
+	
+}
@@ -0,0 +1,94 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Small pool of {@code Yaml} instances. Creating a {@code Yaml} instance sets up its representer,
+ * resolver, and constructor, which is a significant part of the cost of loading a small document.
+ * Since {@code Yaml} is not thread safe but may be reused by one thread at a time, instances are
+ * borrowed from the pool for the duration of a single load or dump. <br>
+ * <br>
+ * Instances are held per factory rather than per thread, so that they do not outlive the factory.
+ * If every slot is in use, a new instance is created and, on release, kept only if a slot is free.
+ * 
+ * @author A248
+ *
+ */
+final class YamlPool {
+
+	private final Supplier<Yaml> yamlSupplier;
+	private final AtomicReferenceArray<Yaml> slots;
+	
+	YamlPool(Supplier<Yaml> yamlSupplier, int size) {
+		this.yamlSupplier = yamlSupplier;
+		slots = new AtomicReferenceArray<>(size);
+	}
+	
+	YamlPool(Supplier<Yaml> yamlSupplier) {
+		this(yamlSupplier, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+	}
+	
+	private int startIndex() {
+		// Spread threads across slots to reduce contention
+		return (int) (Thread.currentThread().getId() % slots.length());
+	}
+	
+	/**
+	 * Borrows a yaml instance, which must be released after use
+	 * 
+	 * @return the yaml instance
+	 */
+	Yaml acquire() {
+		int length = slots.length();
+		int start = startIndex();
+		for (int n = 0; n < length; n++) {
+			int index = (start + n) % length;
+			if (slots.get(index) != null) {
+				Yaml yaml = slots.getAndSet(index, null);
+				if (yaml != null) {
+					return yaml;
+				}
+			}
+		}
+		return yamlSupplier.get();
+	}
+	
+	/**
+	 * Returns a yaml instance to the pool. Should not be called if the instance may have been left
+	 * in an inconsistent state
+	 * 
+	 * @param yaml the yaml instance
+	 */
+	void release(Yaml yaml) {
+		int length = slots.length();
+		int start = startIndex();
+		for (int n = 0; n < length; n++) {
+			int index = (start + n) % length;
+			if (slots.get(index) == null && slots.compareAndSet(index, null, yaml)) {
+				return;
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,157 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+public class CommentedWriterRoundTripTest {
+
+	private static final List<String> TRICKY_STRINGS = List.of(
+			"", " ", "plain", "it's", "''", "\"quoted\"", "back\\slash", "key: value", "# not a comment",
+			"- not a list", "[not, flow]", "{not: flow}", "&anchor", "*alias", "!tag", "%directive", "@at", "`tick",
+			"true", "false", "yes", "no", "on", "off", "null", "~", "123", "-4.5", "0x1F", "1e10", ".inf", ".nan",
+			" leading space", "trailing space ", "tab\tinside", "multi\nline", "multi\nline\n", "multi\nline\n\n",
+			"\nleading break", "  indented\nsecond", "blank\n\nline", "carriage\r\nreturn", "nul\u0000char",
+			"bell\u0007", "next line\u0085", "line separator\u2028", "bom\uFEFF", "unicode é中文",
+			"emoji 😀", "\n", "\n\n");
+
+	private static String write(Map<String, Object> map, boolean flowScalarLists) throws IOException {
+		StringWriter writer = new StringWriter();
+		new CommentedWriter(map, writer, flowScalarLists).write();
+		return writer.toString();
+	}
+
+	private static void assertRoundTrip(Map<String, Object> map) throws IOException {
+		for (boolean flowScalarLists : new boolean[] {false, true}) {
+			String yaml = write(map, flowScalarLists);
+			Map<String, Object> loaded = new Yaml().load(yaml);
+			assertEquals(map, loaded, () -> "Mismatch with written yaml:\n" + yaml);
+		}
+	}
+
+	@Test
+	public void testStringValues() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (int n = 0; n < TRICKY_STRINGS.size(); n++) {
+			map.put("key" + n, TRICKY_STRINGS.get(n));
+		}
+		assertRoundTrip(map);
+	}
+
+	@Test
+	public void testStringKeys() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (int n = 0; n < TRICKY_STRINGS.size(); n++) {
+			map.put(TRICKY_STRINGS.get(n), n);
+		}
+		assertRoundTrip(map);
+	}
+
+	@Test
+	public void testStringListElements() throws IOException {
+		assertRoundTrip(Map.of("list", TRICKY_STRINGS));
+	}
+
+	@Test
+	public void testNumbersAndBooleans() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("int", -7);
+		map.put("long", Long.MAX_VALUE);
+		map.put("double", 2.5);
+		map.put("exponent", 1.0E20);
+		map.put("nan", Double.NaN);
+		map.put("inf", Double.POSITIVE_INFINITY);
+		map.put("negative-inf", Double.NEGATIVE_INFINITY);
+		map.put("bool", true);
+		map.put("mixed-list", List.of(1, 2.5, false, "text"));
+		assertRoundTrip(map);
+	}
+
+	@Test
+	public void testNestedStructures() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("sections", List.of(
+				Map.of("name", "first", "tags", List.of("a", "b"), "nested", Map.of("deep", 1)),
+				Map.of("name", "multi\nline"),
+				Map.of()));
+		map.put("matrix", List.of(List.of(1, 2), List.of(), List.of(List.of("x"))));
+		map.put("empty-map", Map.of());
+		map.put("empty-list", List.of());
+		assertRoundTrip(map);
+	}
+
+	@Test
+	public void testDeepNesting() throws IOException {
+		Map<String, Object> innermost = new LinkedHashMap<>();
+		innermost.put("value", "multi\nline\n");
+		Map<String, Object> current = innermost;
+		for (int n = 0; n < 40; n++) {
+			Map<String, Object> parent = new LinkedHashMap<>();
+			parent.put("level" + n, current);
+			parent.put("list" + n, List.of("element"));
+			current = parent;
+		}
+		assertRoundTrip(current);
+	}
+
+	@Test
+	public void testLargeList() throws IOException {
+		List<Object> large = new ArrayList<>();
+		for (int n = 0; n < 10_000; n++) {
+			large.add("element " + n);
+		}
+		assertRoundTrip(Map.of("large", large));
+	}
+
+	@Test
+	public void testFlowStyleOutput() throws IOException {
+		String yaml = write(Map.of("list", List.of(1, 2, 3)), true);
+		assertEquals("list: [1, 2, 3]\n", yaml);
+		String blockYaml = write(Map.of("list", List.of(1, 2, 3)), false);
+		assertFalse(blockYaml.contains("["));
+	}
+
+	@Test
+	public void testBlockLiteralOutput() throws IOException {
+		String yaml = write(Map.of("text", "first\nsecond"), false);
+		assertEquals("text: |-\n  first\n  second\n", yaml);
+	}
+
+	@Test
+	public void testPlainSafeKeys() {
+		assertTrue(CommentedWriter.isPlainSafeKey("simple-key_1"));
+		assertFalse(CommentedWriter.isPlainSafeKey("with space"));
+		assertFalse(CommentedWriter.isPlainSafeKey("1starts-with-digit"));
+		assertFalse(CommentedWriter.isPlainSafeKey("Yes"));
+		assertFalse(CommentedWriter.isPlainSafeKey(""));
+	}
+
+}
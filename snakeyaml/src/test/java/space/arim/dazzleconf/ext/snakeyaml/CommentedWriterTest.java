@@ -53,6 +53,49 @@ public class CommentedWriterTest {
 		}
 	}
 	
+	@Test
+	public void testNestedListElements() throws IOException {
+		Map<String, Object> map = Map.of(
+				"sections", List.of(Map.of("name", "first", "weight", 2), Map.of("name", "second", "weight", 3)),
+				"groups", List.of(List.of("a", "b"), List.of("c")),
+				"empty-list", List.of(),
+				"empty-map", Map.of()
+				);
+
+		String fullString;
+		try (StringWriter writer = new StringWriter()) {
+			new CommentedWriter(map, writer).write();
+			fullString = writer.toString();
+		}
+		try (Reader reader = new StringReader(fullString)) {
+			assertConfigMapsEqual(map, new Yaml().load(reader));
+		}
+	}
+	
+	@Test
+	public void testEmitter() throws IOException {
+		String fullString;
+		try (StringWriter writer = new StringWriter()) {
+			CommentedWriter emitter = new CommentedWriter(writer);
+			emitter.emitEntry("first-key", -3, List.of("A comment"));
+			emitter.beginSection("section", List.of("Section comment"));
+			emitter.emitEntry("sub-list", List.of(1, 2), List.of());
+			emitter.beginSection("empty", List.of());
+			emitter.endSection();
+			emitter.endSection();
+			emitter.emitEntry("last", "value", List.of());
+			emitter.finish();
+			fullString = writer.toString();
+		}
+		Map<String, Object> expected = Map.of(
+				"first-key", -3,
+				"section", Map.of("sub-list", List.of(1, 2), "empty", Map.of()),
+				"last", "value");
+		try (Reader reader = new StringReader(fullString)) {
+			assertConfigMapsEqual(expected, new Yaml().load(reader));
+		}
+	}
+	
 	private static void assertConfigMapsEqual(Map<String, Object> map1, Map<String, Object> map2) {
 		map2 = new HashMap<>(map2);
 		for (Map.Entry<String, Object> entry : map1.entrySet()) {
@@ -0,0 +1,117 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import space.arim.dazzleconf.ConfigurationLayer;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.LayeredKeys;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultStrings;
+import space.arim.dazzleconf.error.InvalidConfigException;
+
+public class InMemoryIOTest {
+
+	public interface Config {
+
+		@DefaultString("plain ascii")
+		String name();
+
+		@DefaultInteger(3)
+		int count();
+
+		@DefaultStrings({"one", "two"})
+		List<String> values();
+
+	}
+
+	private final SnakeYamlConfigurationFactory<Config> factory =
+			new SnakeYamlConfigurationFactory<>(Config.class, ConfigurationOptions.defaults());
+
+	@Test
+	public void testLoadCharSequence() throws IOException, InvalidConfigException {
+		Config config = factory.load(new StringBuilder("name: 'hello'\ncount: 5\nvalues: [a, b]\n"));
+		assertEquals("hello", config.name());
+		assertEquals(5, config.count());
+		assertEquals(List.of("a", "b"), config.values());
+	}
+
+	@Test
+	public void testLoadOutsideSubset() throws IOException, InvalidConfigException {
+		Config config = factory.load("name: &name hello world\ncount: 0x10\nvalues:\n  - *name\n  - >-\n    folded\n");
+		assertEquals("hello world", config.name());
+		assertEquals(16, config.count());
+		assertEquals(List.of("hello world", "folded"), config.values());
+	}
+
+	@Test
+	public void testLoadByteBuffer() throws IOException, InvalidConfigException {
+		String content = "name: 'héllo ☃'\ncount: 7\nvalues: [x]\n";
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		byte[] padded = new byte[bytes.length + 4];
+		System.arraycopy(bytes, 0, padded, 2, bytes.length);
+
+		Config heap = factory.load(ByteBuffer.wrap(padded, 2, bytes.length).slice());
+		assertEquals("héllo ☃", heap.name());
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes).flip();
+		Config fromDirect = factory.load(direct);
+		assertEquals("héllo ☃", fromDirect.name());
+		assertEquals(7, fromDirect.count());
+		assertEquals(bytes.length, direct.remaining(), "Buffer position must not change");
+	}
+
+	@Test
+	public void testWriteRoundTrip() throws IOException, InvalidConfigException {
+		Config defaults = factory.loadDefaults();
+		ByteBuffer written = factory.write(defaults);
+		Config reloaded = factory.load(written);
+		assertEquals(defaults.name(), reloaded.name());
+		assertEquals(defaults.count(), reloaded.count());
+		assertEquals(defaults.values(), reloaded.values());
+
+		Config unicode = factory.load("name: 'café'\ncount: 1\nvalues: []\n");
+		String rewritten = StandardCharsets.UTF_8.decode(factory.write(unicode)).toString();
+		assertEquals("café", factory.load(rewritten).name());
+	}
+
+	@Test
+	public void testLoadLayered() throws IOException, InvalidConfigException {
+		Config config = factory.loadLayered(List.of(
+				ConfigurationLayer.ofRawMap("overrides", Map.of("count", 9)),
+				ConfigurationLayer.ofContent("env", ""),
+				ConfigurationLayer.ofContent("base", "name: base\ncount: 1\nvalues: [a]\n")));
+		assertEquals("base", config.name());
+		assertEquals(9, config.count());
+		assertEquals(Map.of("name", "base", "count", "overrides", "values", "base"),
+				((LayeredKeys) config).getKeyLayers());
+	}
+
+}
@@ -0,0 +1,89 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.ConfigurationFactory;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.ext.snakeyaml.InMemoryIOTest.Config;
+
+public class PathIOTest {
+
+	@TempDir
+	public Path tempDir;
+
+	private static ConfigurationFactory<Config> factory(long memoryMapThreshold) {
+		return new SnakeYamlConfigurationFactory<>(Config.class, ConfigurationOptions.defaults(),
+				new SnakeYamlOptions.Builder().memoryMapThreshold(memoryMapThreshold).bufferSize(16).build());
+	}
+
+	private Path writeContent(String content) throws IOException {
+		Path path = tempDir.resolve("config.yml");
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+
+	@Test
+	public void testLoadSmallFile() throws IOException, InvalidConfigException {
+		Path path = writeContent("name: 'ünïcode'\ncount: 2\nvalues: [a]\n");
+		Config config = factory(Long.MAX_VALUE).load(path);
+		assertEquals("ünïcode", config.name());
+		assertEquals(2, config.count());
+		assertEquals(List.of("a"), config.values());
+	}
+
+	@Test
+	public void testLoadMappedFile() throws IOException, InvalidConfigException {
+		Path path = writeContent("name: 'mapped'\ncount: 9\nvalues: [a, b, c]\n");
+		Config config = factory(0L).load(path);
+		assertEquals("mapped", config.name());
+		assertEquals(9, config.count());
+		assertEquals(List.of("a", "b", "c"), config.values());
+	}
+
+	@Test
+	public void testWriteReplacesFile() throws IOException, InvalidConfigException {
+		ConfigurationFactory<Config> factory = factory(Long.MAX_VALUE);
+		Path path = writeContent("# A much longer file which must be entirely replaced when written\n".repeat(10));
+		Config defaults = factory.loadDefaults();
+		factory.write(defaults, path);
+		Config reloaded = factory.load(path, defaults);
+		assertEquals(defaults.name(), reloaded.name());
+		assertEquals(defaults.count(), reloaded.count());
+		assertEquals(defaults.values(), reloaded.values());
+	}
+
+	@Test
+	public void testInvalidOptions() {
+		assertThrows(IllegalArgumentException.class, () -> new SnakeYamlOptions.Builder().bufferSize(0));
+		assertThrows(IllegalArgumentException.class, () -> new SnakeYamlOptions.Builder().memoryMapThreshold(-1L));
+	}
+
+}
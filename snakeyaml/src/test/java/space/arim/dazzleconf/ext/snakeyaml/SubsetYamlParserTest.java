@@ -0,0 +1,138 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+public class SubsetYamlParserTest {
+
+	private static final List<String> TRICKY_STRINGS = List.of(
+			"", " ", "plain", "it's", "''", "\"quoted\"", "back\\slash", "key: value", "# not a comment",
+			"- not a list", "[not, flow]", "{not: flow}", "&anchor", "true", "null", "~", "123", ".nan",
+			" leading space", "trailing space ", "tab\tinside", "multi\nline", "multi\nline\n", "multi\nline\n\n",
+			"\nleading break", "  indented\nsecond", "blank\n\nline", "last line\n  indented",
+			"carriage\r\nreturn", "nul\u0000char", "next line\u0085", "bom\uFEFF", "unicode é中文", "emoji 😀",
+			"\n", "\n\n");
+
+	private static void assertParsedLikeSnakeYaml(String yaml) {
+		Map<String, Object> parsed = SubsetYamlParser.parse(yaml);
+		assertNotNull(parsed, () -> "Not recognised as within the subset:\n" + yaml);
+		assertEquals((Object) new Yaml().load(yaml), parsed, () -> "Mismatch with yaml:\n" + yaml);
+	}
+
+	private static void assertWrittenAndParsed(Map<String, Object> map) throws IOException {
+		for (boolean flowScalarLists : new boolean[] {false, true}) {
+			StringWriter writer = new StringWriter();
+			CommentedWriter.writeCommentsHeader(writer, List.of("Header", "second\nline"));
+			new CommentedWriter(map, writer, flowScalarLists).write();
+			String yaml = writer.toString();
+			assertParsedLikeSnakeYaml(yaml);
+			assertEquals(map, SubsetYamlParser.parse(yaml));
+		}
+	}
+
+	@Test
+	public void testWrittenScalars() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (int n = 0; n < TRICKY_STRINGS.size(); n++) {
+			map.put("key" + n, TRICKY_STRINGS.get(n));
+			map.put(TRICKY_STRINGS.get(n), n);
+		}
+		map.put("list", TRICKY_STRINGS);
+		map.put("int", -7);
+		map.put("long", Long.MAX_VALUE);
+		map.put("big", BigInteger.TEN.pow(30));
+		map.put("double", 2.5);
+		map.put("exponent", 1.0E-20);
+		map.put("nan", Double.NaN);
+		map.put("negative-inf", Double.NEGATIVE_INFINITY);
+		map.put("bool", false);
+		map.put("mixed-list", List.of(1, 2.5, true, "text", Long.MIN_VALUE));
+		assertWrittenAndParsed(map);
+	}
+
+	@Test
+	public void testWrittenNestedStructures() throws IOException {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("sections", List.of(
+				Map.of("name", "first", "tags", List.of("a", "b"), "nested", Map.of("deep", 1)),
+				Map.of("text", "multi\nline\n\n"),
+				Map.of()));
+		map.put("matrix", List.of(List.of(1, 2), List.of(), List.of(List.of("x")), List.of("a\nb")));
+		map.put("empty-map", Map.of());
+		map.put("empty-list", List.of());
+		Map<String, Object> current = map;
+		for (int n = 0; n < 20; n++) {
+			Map<String, Object> child = new LinkedHashMap<>();
+			current.put("level" + n, child);
+			child.put("list" + n, List.of("element", Map.of("text", "block\nliteral")));
+			current = child;
+		}
+		assertWrittenAndParsed(map);
+	}
+
+	@Test
+	public void testLargeList() throws IOException {
+		List<Object> large = new ArrayList<>();
+		for (int n = 0; n < 5_000; n++) {
+			large.add((n % 2 == 0) ? "element " + n : n);
+		}
+		assertWrittenAndParsed(Map.of("large", large));
+	}
+
+	@Test
+	public void testHandWrittenWithinSubset() {
+		assertParsedLikeSnakeYaml("name: hello\ncount: +5\nenabled: Yes\nmissing: ~\nempty:\nratio: -0.0\n");
+		assertParsedLikeSnakeYaml("# comment\nsection:   # trailing comment\n    key: 'value'   \n\n    other: 2\ntop: 1");
+		assertParsedLikeSnakeYaml("list:\n  -   1\n  -\n    nested: true\n  - - first\n    - second\n  -\nafter: .Inf\n");
+		assertParsedLikeSnakeYaml("flow: [1,'two' ,  \"three\", 4.5E+3, ~]\nescapes: \"\\x41\\\"\\0\"\n");
+		assertParsedLikeSnakeYaml("text: |+ # keep\n\n   first\n    second\n\n\nnext: 9999999999\n");
+		assertParsedLikeSnakeYaml("text: |\n  line\n  # not a comment\n# comment\nbig: 99999999999999999999\n");
+	}
+
+	@Test
+	public void testOutsideSubset() {
+		List<String> documents = List.of(
+				"", "# only a comment\n", "- top level list\n", "scalar\n", "---\nkey: value\n",
+				"anchor: &a 1\nalias: *a\n", "tagged: !!str 1\n", "folded: >\n  text\n", "plain: two words\n",
+				"octal: 012\n", "hex: 0x1F\n", "underscore: 1_000\n", "float: 1e5\n", "timestamp: 2020-01-01\n",
+				"flow: {a: 1}\n", "nested: [[1]]\n", "multiline: 'first\n  second'\n", "tab:\tvalue\n",
+				"crlf: 1\r\n", "duplicate: 1\nduplicate: 2\n", "1: integer key\n", "? complex\n: key\n",
+				"indent:\n  a: 1\n   b: 2\n", "same-indent:\n- item\n", "unterminated: 'quote\n",
+				"escape: \"\\q\"\n", "slash: \"\\/\"\n", "indicator: |2\n  text\n", "  indented: 1\n",
+				"<<: {}\n", "key: value: other\n");
+		for (String document : documents) {
+			assertNull(SubsetYamlParser.parse(document), () -> "Should be outside the subset:\n" + document);
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import space.arim.dazzleconf.AuxiliaryKeys;
+import space.arim.dazzleconf.ConfigurationOptions;
+import space.arim.dazzleconf.annote.ConfComments;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultStrings;
+import space.arim.dazzleconf.annote.SubSection;
+import space.arim.dazzleconf.error.InvalidConfigException;
+import space.arim.dazzleconf.sorter.AnnotationBasedSorter;
+
+public class YamlPatcherTest {
+
+	@TempDir
+	public Path tempDir;
+
+	public interface Config {
+
+		@ConfComments("The name")
+		@DefaultString("default name")
+		String name();
+
+		@DefaultInteger(3)
+		int count();
+
+		@SubSection
+		Limits limits();
+
+		@ConfComments("Extra values")
+		@DefaultStrings({"x", "y"})
+		List<String> extras();
+
+		interface Limits {
+
+			@DefaultInteger(10)
+			int lower();
+
+			@ConfComments("The upper bound")
+			@DefaultInteger(20)
+			int upper();
+
+		}
+	}
+
+	// Sorts keys alphabetically
+	private final SnakeYamlConfigurationFactory<Config> factory = new SnakeYamlConfigurationFactory<>(Config.class,
+			new ConfigurationOptions.Builder().sorter(new AnnotationBasedSorter()).build(), new SnakeYamlOptions.Builder().useCommentingWriter(true).build());
+
+	private String patch(String content) throws IOException, InvalidConfigException {
+		Path path = tempDir.resolve("config.yml");
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		Config config = factory.load(path, factory.loadDefaults());
+		assertTrue(config instanceof AuxiliaryKeys);
+		factory.writeAuxiliaryKeys(config, path);
+		String patched = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+		assertFalse(factory.load(path, factory.loadDefaults()) instanceof AuxiliaryKeys);
+		return patched;
+	}
+
+	@Test
+	public void testInsertMissingKeys() throws IOException, InvalidConfigException {
+		String patched = patch(
+				"# Edited by hand\n"
+				+ "count: 5 # five\n"
+				+ "\n"
+				+ "limits:\n"
+				+ "    # kept\n"
+				+ "    upper: 30\n");
+		assertEquals(
+				"# Edited by hand\n"
+				+ "count: 5 # five\n"
+				+ " # Extra values\n"
+				+ "extras:\n"
+				+ "  - 'x'\n"
+				+ "  - 'y'\n"
+				+ "\n"
+				+ "limits:\n"
+				+ "    lower: 10\n"
+				+ "    # kept\n"
+				+ "    upper: 30\n"
+				+ " # The name\n"
+				+ "name: 'default name'\n", patched);
+	}
+
+	@Test
+	public void testInsertMissingSection() throws IOException, InvalidConfigException {
+		String patched = patch("name: named\nextras: []");
+		assertEquals("name: named\ncount: 3\nextras: []\nlimits:\n  lower: 10\n   # The upper bound\n  upper: 20\n",
+				patched);
+	}
+
+	@Test
+	public void testPatchGivenSource() throws IOException, InvalidConfigException {
+		byte[] source = "name: named\nextras: []\nlimits:\n  lower: 1\n  upper: 2\n".getBytes(StandardCharsets.UTF_8);
+		Config config = factory.load(ByteBuffer.wrap(source), factory.loadDefaults());
+		// The file does not exist, so the given source must be the one patched
+		Path path = tempDir.resolve("config.yml");
+		factory.writeAuxiliaryKeys(config, path, ByteBuffer.wrap(source));
+		assertEquals("name: named\ncount: 3\nextras: []\nlimits:\n  lower: 1\n  upper: 2\n",
+				new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testEscapedKeyFallsBackToFullWrite() throws IOException, InvalidConfigException {
+		// The outline does not decode hexadecimal escapes, so it cannot tell the key is present
+		String patched = patch("\"na\\x6De\": named\n");
+		assertFalse(patched.contains("\\x6D"));
+		assertEquals("named", factory.load(patched).name());
+	}
+
+	@Test
+	public void testFallBackToFullWrite() throws IOException, InvalidConfigException {
+		// Document markers are not understood by the patcher, so the whole configuration is written
+		String patched = patch("---\nname: named\n");
+		assertFalse(patched.startsWith("---"));
+		assertEquals("named", factory.load(patched).name());
+	}
+
+}
@@ -0,0 +1,78 @@
+/* 
+ * DazzleConf-snakeyaml
+ * Copyright © 2020 Anand Beh <https://www.arim.space>
+ * 
+ * DazzleConf-snakeyaml is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * DazzleConf-snakeyaml is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with DazzleConf-snakeyaml. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Lesser General Public License.
+ */
+package space.arim.dazzleconf.ext.snakeyaml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import space.arim.dazzleconf.ConfigurationOptions;
+
+public class YamlPoolTest {
+
+	@Test
+	public void testReuse() {
+		AtomicInteger created = new AtomicInteger();
+		YamlPool pool = new YamlPool(() -> {
+			created.incrementAndGet();
+			return new Yaml();
+		}, 1);
+		Yaml first = pool.acquire();
+		Yaml second = pool.acquire();
+		assertNotSame(first, second);
+		pool.release(first);
+		pool.release(second);
+		assertSame(first, pool.acquire());
+		assertEquals(2, created.get());
+	}
+
+	@Test
+	public void testConcurrentLoads() throws Exception {
+		// Anchors place the document outside the subset parser
+		SnakeYamlConfigurationFactory<InMemoryIOTest.Config> factory = new SnakeYamlConfigurationFactory<>(
+				InMemoryIOTest.Config.class, ConfigurationOptions.defaults());
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<InMemoryIOTest.Config>> futures = new ArrayList<>();
+			for (int n = 0; n < 200; n++) {
+				String document = "name: &name value" + n + "\ncount: " + n + "\nvalues: [*name]\n";
+				futures.add(executor.submit(() -> factory.load(document)));
+			}
+			for (int n = 0; n < futures.size(); n++) {
+				InMemoryIOTest.Config config = futures.get(n).get();
+				assertEquals("value" + n, config.name());
+				assertEquals(n, config.count());
+				assertEquals(List.of("value" + n), config.values());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}